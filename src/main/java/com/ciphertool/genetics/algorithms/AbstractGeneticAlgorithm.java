@@ -1,6 +1,5 @@
 package com.ciphertool.genetics.algorithms;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -25,7 +24,9 @@ import com.ciphertool.genetics.entities.Chromosome;
 import com.ciphertool.genetics.entities.statistics.ExecutionStatistics;
 import com.ciphertool.genetics.entities.statistics.GenerationStatistics;
 import com.ciphertool.genetics.entities.statistics.PerformanceStatistics;
+import com.ciphertool.genetics.fitness.CachingFitnessEvaluator;
 import com.ciphertool.genetics.population.Population;
+import com.ciphertool.genetics.population.StandardPopulation;
 
 public abstract class AbstractGeneticAlgorithm implements GeneticAlgorithm {
 	protected Logger					log					= LoggerFactory.getLogger(getClass());
@@ -49,6 +50,10 @@ public abstract class AbstractGeneticAlgorithm implements GeneticAlgorithm {
 	protected Boolean					persistStatistics	= false;
 	protected Double					majorEvaluationPercentage;
 	protected Integer					majorEvaluationStepSize;
+	protected int						entropySampleSize;
+	protected int						entropyStepSize		= 1;
+	private long						fitnessCacheHits;
+	private long						fitnessCacheMisses;
 
 	protected class SelectionResult {
 		private Chromosome	mom;
@@ -100,11 +105,7 @@ public abstract class AbstractGeneticAlgorithm implements GeneticAlgorithm {
 
 		this.population.breed();
 
-		long startEntropyCalculation = System.currentTimeMillis();
-		BigDecimal entropy = this.population.calculateEntropy();
-		generationStatistics.setEntropy(entropy);
-		generationStatistics.getPerformanceStatistics().setEntropyMillis(System.currentTimeMillis()
-				- startEntropyCalculation);
+		calculateEntropy(generationStatistics, generationStatistics.getPerformanceStatistics());
 
 		long startEvaluation = System.currentTimeMillis();
 		this.population.evaluateFitness(generationStatistics);
@@ -116,11 +117,62 @@ public abstract class AbstractGeneticAlgorithm implements GeneticAlgorithm {
 
 		log.info("Took " + executionTime + "ms to spawn initial population of size " + this.population.size());
 
+		recordFitnessCacheStatistics(generationStatistics);
+
 		log.info(generationStatistics.toString());
 
 		this.executionStatistics.addGenerationStatistics(generationStatistics);
 	}
 
+	/**
+	 * Calculates the entropy of the population if it is due this generation, either exactly or, when an
+	 * entropySampleSize is set, as an estimate from a random sample of individuals.
+	 * 
+	 * @param generationStatistics
+	 *            the GenerationStatistics to record the entropy in
+	 * @param performanceStats
+	 *            the PerformanceStatistics to record the time taken in
+	 */
+	protected void calculateEntropy(GenerationStatistics generationStatistics, PerformanceStatistics performanceStats) {
+		if ((this.generationCount % entropyStepSize) != 0) {
+			return;
+		}
+
+		long startEntropyCalculation = System.currentTimeMillis();
+
+		if (entropySampleSize > 0) {
+			generationStatistics.setEntropy(this.population.estimateEntropy(entropySampleSize));
+			generationStatistics.setEntropySampleSize(Math.min(entropySampleSize, this.population.size()));
+		} else {
+			generationStatistics.setEntropy(this.population.calculateEntropy());
+		}
+
+		performanceStats.setEntropyMillis(System.currentTimeMillis() - startEntropyCalculation);
+	}
+
+	/**
+	 * Records the fitness cache hits and misses since the previous generation, if the strategy's FitnessEvaluator is a
+	 * CachingFitnessEvaluator.
+	 * 
+	 * @param generationStatistics
+	 *            the GenerationStatistics to record the counts in
+	 */
+	protected void recordFitnessCacheStatistics(GenerationStatistics generationStatistics) {
+		if (this.strategy == null || !(this.strategy.getFitnessEvaluator() instanceof CachingFitnessEvaluator)) {
+			return;
+		}
+
+		CachingFitnessEvaluator fitnessCache = (CachingFitnessEvaluator) this.strategy.getFitnessEvaluator();
+		long hits = fitnessCache.getHitCount();
+		long misses = fitnessCache.getMissCount();
+
+		generationStatistics.setFitnessCacheHits(hits - this.fitnessCacheHits);
+		generationStatistics.setFitnessCacheMisses(misses - this.fitnessCacheMisses);
+
+		this.fitnessCacheHits = hits;
+		this.fitnessCacheMisses = misses;
+	}
+
 	@Override
 	public void evolveAutonomously() {
 		try {
@@ -229,6 +281,38 @@ public abstract class AbstractGeneticAlgorithm implements GeneticAlgorithm {
 		}
 	}
 
+	/*
+	 * The idea is to make sure that individuals which share too much ancestry (i.e. immediate family members) or not
+	 * enough ancestry (i.e. different species) cannot reproduce.
+	 */
+	protected boolean isCompatible(Chromosome mom, Chromosome dad) {
+		return !(verifyAncestry && generationCount > generationsToKeep && mom.getAncestry() != null
+				&& dad.getAncestry() != null && !mom.getAncestry().sharesLineageWith(dad.getAncestry(), generationsToSkip));
+	}
+
+	/*
+	 * Selects a single pair of parents from a StandardPopulation, re-selecting until the pair is compatible.
+	 */
+	protected SelectionResult selectPair() {
+		StandardPopulation standardPopulation = (StandardPopulation) population;
+		int momIndex;
+		int dadIndex;
+		Chromosome mom;
+		Chromosome dad;
+
+		do {
+			momIndex = standardPopulation.selectIndex();
+			mom = standardPopulation.getIndividuals().get(momIndex);
+
+			dadIndex = standardPopulation.selectIndex();
+			// Ensure that dadIndex is different from momIndex
+			dadIndex += (dadIndex == momIndex) ? ((dadIndex == 0) ? 1 : -1) : 0;
+			dad = standardPopulation.getIndividuals().get(dadIndex);
+		} while (!isCompatible(mom, dad));
+
+		return new SelectionResult(mom, dad);
+	}
+
 	@Override
 	public void proceedWithNextGeneration() throws InterruptedException {
 		this.population.backupIndividuals();
@@ -252,22 +336,36 @@ public abstract class AbstractGeneticAlgorithm implements GeneticAlgorithm {
 		select(populationSizeBeforeGeneration, moms, dads);
 		performanceStats.setSelectionMillis(System.currentTimeMillis() - startSelection);
 
-		long startCrossover = System.currentTimeMillis();
-		generationStatistics.setNumberOfCrossovers(crossover(populationSizeBeforeGeneration, moms, dads));
-		performanceStats.setCrossoverMillis(System.currentTimeMillis() - startCrossover);
+		crossoverAndMutate(populationSizeBeforeGeneration, moms, dads, generationStatistics, performanceStats);
 
-		long startMutation = System.currentTimeMillis();
-		generationStatistics.setNumberOfMutations(mutate(populationSizeBeforeGeneration));
-		performanceStats.setMutationMillis(System.currentTimeMillis() - startMutation);
+		completeGeneration(generationStatistics, performanceStats, generationStart);
+	}
 
-		long startEntropyCalculation = System.currentTimeMillis();
-		BigDecimal entropy = this.population.calculateEntropy();
-		generationStatistics.setEntropy(entropy);
-		performanceStats.setEntropyMillis(System.currentTimeMillis() - startEntropyCalculation);
+	/**
+	 * Finishes a generation once its children are in the population: calculates the entropy, gathers the fitness
+	 * statistics, performs any major evaluation which is due, and records the GenerationStatistics.
+	 * 
+	 * @param generationStatistics
+	 *            the GenerationStatistics of the generation
+	 * @param performanceStats
+	 *            the PerformanceStatistics of the generation
+	 * @param generationStart
+	 *            the time in milliseconds at which the generation started
+	 * @throws InterruptedException
+	 *             if stop is requested during the evaluation
+	 */
+	protected void completeGeneration(GenerationStatistics generationStatistics, PerformanceStatistics performanceStats,
+			long generationStart) throws InterruptedException {
+		calculateEntropy(generationStatistics, performanceStats);
+
+		// Any children evaluated as they were born are not dirty anymore, so they are added to what remains here
+		long earlierEvaluationMillis = performanceStats.getEvaluationMillis();
+		int earlierEvaluations = generationStatistics.getNumberOfEvaluations();
 
 		long startEvaluation = System.currentTimeMillis();
 		this.population.evaluateFitness(generationStatistics);
-		performanceStats.setEvaluationMillis(System.currentTimeMillis() - startEvaluation);
+		performanceStats.setEvaluationMillis(earlierEvaluationMillis + System.currentTimeMillis() - startEvaluation);
+		generationStatistics.setNumberOfEvaluations(earlierEvaluations + generationStatistics.getNumberOfEvaluations());
 
 		if (majorEvaluationStepSize > 0 && (this.generationCount % majorEvaluationStepSize) == 0) {
 			long startMajorEvaluation = System.currentTimeMillis();
@@ -278,11 +376,41 @@ public abstract class AbstractGeneticAlgorithm implements GeneticAlgorithm {
 		performanceStats.setTotalMillis(System.currentTimeMillis() - generationStart);
 		generationStatistics.setPerformanceStatistics(performanceStats);
 
+		recordFitnessCacheStatistics(generationStatistics);
+
 		log.info(generationStatistics.toString());
 
 		this.executionStatistics.addGenerationStatistics(generationStatistics);
 	}
 
+	/**
+	 * Performs the crossover and mutation phases of a generation, one after the other.
+	 * 
+	 * @param initialPopulationSize
+	 *            the size of the population before the generation
+	 * @param moms
+	 *            the selected moms
+	 * @param dads
+	 *            the selected dads, paired with the moms by position
+	 * @param generationStatistics
+	 *            the GenerationStatistics to record the counts in
+	 * @param performanceStats
+	 *            the PerformanceStatistics to record the phase times in
+	 * @throws InterruptedException
+	 *             if stop is requested during the generation
+	 */
+	protected void crossoverAndMutate(int initialPopulationSize, List<Chromosome> moms, List<Chromosome> dads,
+			GenerationStatistics generationStatistics, PerformanceStatistics performanceStats)
+			throws InterruptedException {
+		long startCrossover = System.currentTimeMillis();
+		generationStatistics.setNumberOfCrossovers(crossover(initialPopulationSize, moms, dads));
+		performanceStats.setCrossoverMillis(System.currentTimeMillis() - startCrossover);
+
+		long startMutation = System.currentTimeMillis();
+		generationStatistics.setNumberOfMutations(mutate(initialPopulationSize));
+		performanceStats.setMutationMillis(System.currentTimeMillis() - startMutation);
+	}
+
 	@Override
 	public void requestStop() {
 		this.stopRequested = true;
@@ -419,6 +547,32 @@ public abstract class AbstractGeneticAlgorithm implements GeneticAlgorithm {
 		this.majorEvaluationStepSize = majorEvaluationStepSize;
 	}
 
+	/**
+	 * @param entropySampleSize
+	 *            the number of individuals to estimate the entropy from, or 0 to calculate it over the whole population
+	 */
+	public void setEntropySampleSize(int entropySampleSize) {
+		if (entropySampleSize < 0) {
+			throw new IllegalArgumentException("Tried to set an entropySampleSize of " + entropySampleSize + ", but "
+					+ getClass().getSimpleName() + " requires an entropySampleSize of at least 0.");
+		}
+
+		this.entropySampleSize = entropySampleSize;
+	}
+
+	/**
+	 * @param entropyStepSize
+	 *            the number of generations between entropy calculations
+	 */
+	public void setEntropyStepSize(int entropyStepSize) {
+		if (entropyStepSize < 1) {
+			throw new IllegalArgumentException("Tried to set an entropyStepSize of " + entropyStepSize + ", but "
+					+ getClass().getSimpleName() + " requires an entropyStepSize of at least 1.");
+		}
+
+		this.entropyStepSize = entropyStepSize;
+	}
+
 	/**
 	 * @param verifyAncestry
 	 *            the verifyAncestry to set
@@ -428,6 +582,11 @@ public abstract class AbstractGeneticAlgorithm implements GeneticAlgorithm {
 		this.verifyAncestry = verifyAncestry;
 	}
 
+	@Override
+	public ExecutionStatistics getExecutionStatistics() {
+		return executionStatistics;
+	}
+
 	/**
 	 * @return the population
 	 */
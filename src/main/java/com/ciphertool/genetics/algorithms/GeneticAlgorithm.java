@@ -23,6 +23,7 @@ import java.util.List;
 
 import com.ciphertool.genetics.GeneticAlgorithmStrategy;
 import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.statistics.ExecutionStatistics;
 import com.ciphertool.genetics.population.Population;
 
 public interface GeneticAlgorithm {
@@ -64,4 +65,9 @@ public interface GeneticAlgorithm {
 	public void setStrategy(GeneticAlgorithmStrategy geneticAlgorithmStrategy);
 
 	public void spawnInitialPopulation() throws InterruptedException;
+
+	/**
+	 * @return the ExecutionStatistics of the current run, or null if there is none
+	 */
+	public ExecutionStatistics getExecutionStatistics();
 }
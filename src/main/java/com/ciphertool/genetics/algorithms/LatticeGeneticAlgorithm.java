@@ -30,10 +30,117 @@ import org.slf4j.LoggerFactory;
 
 import com.ciphertool.genetics.entities.Chromosome;
 import com.ciphertool.genetics.entities.SpatialChromosome;
+import com.ciphertool.genetics.entities.statistics.GenerationStatistics;
+import com.ciphertool.genetics.entities.statistics.PerformanceStatistics;
 import com.ciphertool.genetics.population.LatticePopulation;
 
 public class LatticeGeneticAlgorithm extends AbstractGeneticAlgorithm {
-	private Logger log = LoggerFactory.getLogger(getClass());
+	private Logger				log					= LoggerFactory.getLogger(getClass());
+
+	private static final int	TILE_SIZE_DEFAULT	= 32;
+	private boolean				tiledExecution;
+	private int					tileSize			= TILE_SIZE_DEFAULT;
+
+	/**
+	 * The outcome of a TileTask, with the time spent in each stage accumulated across every cell in the tile.
+	 */
+	protected class TileResult {
+		private int		crossovers;
+		private int		mutations;
+		private long	selectionNanos;
+		private long	crossoverNanos;
+		private long	mutationNanos;
+		private long	evaluationNanos;
+	}
+
+	/**
+	 * A concurrent task which owns a rectangular block of the lattice and runs selection, crossover, mutation and
+	 * evaluation for every cell in the block in one pass. Parents are read from the current generation and children
+	 * are written into the next generation buffer, so tiles never write to the same cell.
+	 */
+	protected class TileTask implements Callable<TileResult> {
+		private SpatialChromosome[][]	current;
+		private SpatialChromosome[][]	next;
+		private int						rowStart;
+		private int						rowEnd;
+		private int						columnStart;
+		private int						columnEnd;
+
+		public TileTask(SpatialChromosome[][] current, SpatialChromosome[][] next, int rowStart, int rowEnd,
+				int columnStart, int columnEnd) {
+			this.current = current;
+			this.next = next;
+			this.rowStart = rowStart;
+			this.rowEnd = rowEnd;
+			this.columnStart = columnStart;
+			this.columnEnd = columnEnd;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public TileResult call() throws Exception {
+			LatticePopulation latticePopulation = (LatticePopulation) population;
+			SpatialChromosome[] parents = new SpatialChromosome[2];
+			TileResult result = new TileResult();
+			List<SpatialChromosome> children;
+			SpatialChromosome child;
+			long start;
+			long end;
+
+			for (int x = rowStart; x < rowEnd; x++) {
+				for (int y = columnStart; y < columnEnd; y++) {
+					if (stopRequested) {
+						return result;
+					}
+
+					start = System.nanoTime();
+					do {
+						latticePopulation.selectParents(x, y, parents);
+					} while (parents[0] == parents[1] || !isCompatible(parents[0], parents[1]));
+					end = System.nanoTime();
+					result.selectionNanos += end - start;
+
+					start = end;
+					children = crossoverAlgorithm.crossover(parents[0], parents[1]);
+					end = System.nanoTime();
+					result.crossoverNanos += end - start;
+
+					if (children == null || children.isEmpty()) {
+						// The cell keeps its current occupant
+						next[x][y] = current[x][y];
+
+						continue;
+					}
+
+					// Only one child can occupy the cell, so any others are discarded
+					child = children.get(0);
+					child.setXPos(x);
+					child.setYPos(y);
+					result.crossovers++;
+
+					// Detached until swapped in, so that its Gene changes are not reported to the population
+					child.setPopulation(null);
+
+					start = end;
+					if (mutationAlgorithm.mutateChromosome(child)) {
+						result.mutations++;
+					}
+					end = System.nanoTime();
+					result.mutationNanos += end - start;
+
+					start = end;
+					latticePopulation.evaluateIndividual(child);
+					result.evaluationNanos += System.nanoTime() - start;
+
+					child.setPopulation(latticePopulation);
+
+					next[x][y] = child;
+				}
+			}
+
+			return result;
+		}
+	}
 
 	/**
 	 * A concurrent task for performing a crossover of two parent Chromosomes, producing one child Chromosome.
@@ -54,6 +161,108 @@ public class LatticeGeneticAlgorithm extends AbstractGeneticAlgorithm {
 		}
 	}
 
+	@Override
+	public void proceedWithNextGeneration() throws InterruptedException {
+		if (!tiledExecution) {
+			super.proceedWithNextGeneration();
+
+			return;
+		}
+
+		LatticePopulation latticePopulation = (LatticePopulation) this.population;
+
+		this.generationCount++;
+
+		GenerationStatistics generationStatistics = new GenerationStatistics(this.executionStatistics,
+				this.generationCount);
+
+		long generationStart = System.currentTimeMillis();
+
+		PerformanceStatistics performanceStats = new PerformanceStatistics();
+
+		// There is no need to back up the individuals, since they are left untouched until the swap
+		latticePopulation.discardBackup();
+
+		doTiledGeneration(generationStatistics, performanceStats);
+
+		latticePopulation.swapGenerations();
+
+		// The tiles have already evaluated every child, so this only gathers the fitness statistics
+		completeGeneration(generationStatistics, performanceStats, generationStart);
+	}
+
+	protected void doTiledGeneration(GenerationStatistics generationStatistics, PerformanceStatistics performanceStats)
+			throws InterruptedException {
+		LatticePopulation latticePopulation = (LatticePopulation) this.population;
+		int rows = latticePopulation.getLatticeRows();
+		int columns = latticePopulation.getLatticeColumns();
+		SpatialChromosome[][] current = (SpatialChromosome[][]) latticePopulation.getIndividualsAsArray();
+		SpatialChromosome[][] next = latticePopulation.getNextGeneration();
+
+		List<FutureTask<TileResult>> futureTasks = new ArrayList<FutureTask<TileResult>>();
+		FutureTask<TileResult> futureTask = null;
+
+		long startTiles = System.currentTimeMillis();
+
+		for (int x = 0; x < rows; x += tileSize) {
+			for (int y = 0; y < columns; y += tileSize) {
+				futureTask = new FutureTask<TileResult>(new TileTask(current, next, x, Math.min(x + tileSize, rows), y,
+						Math.min(y + tileSize, columns)));
+				futureTasks.add(futureTask);
+				this.taskExecutor.execute(futureTask);
+			}
+		}
+
+		TileResult total = new TileResult();
+		TileResult result;
+		Throwable failure = null;
+		for (FutureTask<TileResult> future : futureTasks) {
+			try {
+				result = future.get();
+
+				total.crossovers += result.crossovers;
+				total.mutations += result.mutations;
+				total.selectionNanos += result.selectionNanos;
+				total.crossoverNanos += result.crossoverNanos;
+				total.mutationNanos += result.mutationNanos;
+				total.evaluationNanos += result.evaluationNanos;
+			} catch (InterruptedException ie) {
+				log.error("Caught InterruptedException while waiting for TileTask ", ie);
+			} catch (ExecutionException ee) {
+				if (failure == null) {
+					failure = ee.getCause();
+				}
+			}
+		}
+
+		if (stopRequested) {
+			throw new InterruptedException("Stop requested during tiled generation");
+		}
+
+		// The failed tile's cells in the next generation were never written, so it must not be swapped in
+		if (failure != null) {
+			throw new IllegalStateException("A tile failed during the tiled generation.", failure);
+		}
+
+		generationStatistics.setNumberOfCrossovers(total.crossovers);
+		generationStatistics.setNumberOfMutations(total.mutations);
+
+		/*
+		 * The stages are interleaved within each tile, so the wall-clock time of the whole pass is apportioned among
+		 * them according to the time the tiles spent in each.
+		 */
+		long elapsedMillis = System.currentTimeMillis() - startTiles;
+		double totalNanos = (double) (total.selectionNanos + total.crossoverNanos + total.mutationNanos
+				+ total.evaluationNanos);
+
+		if (totalNanos > 0.0) {
+			performanceStats.setSelectionMillis(Math.round(elapsedMillis * (total.selectionNanos / totalNanos)));
+			performanceStats.setCrossoverMillis(Math.round(elapsedMillis * (total.crossoverNanos / totalNanos)));
+			performanceStats.setMutationMillis(Math.round(elapsedMillis * (total.mutationNanos / totalNanos)));
+			performanceStats.setEvaluationMillis(Math.round(elapsedMillis * (total.evaluationNanos / totalNanos)));
+		}
+	}
+
 	protected class SelectionTask implements Callable<SelectionResult> {
 		int	x;
 		int	y;
@@ -68,30 +277,20 @@ public class LatticeGeneticAlgorithm extends AbstractGeneticAlgorithm {
 			LatticePopulation latticePopulation = (LatticePopulation) population;
 			SpatialChromosome mom = null;
 			SpatialChromosome dad = null;
-			List<SpatialChromosome> parents = null;
+			SpatialChromosome[] parents = new SpatialChromosome[2];
 
 			do {
-				parents = latticePopulation.selectIndices(x, y);
-
-				if (parents == null || parents.isEmpty() || parents.size() < 2) {
-					throw new IllegalStateException("Unable to produce two parents for crossover");
-				}
+				latticePopulation.selectParents(x, y, parents);
 
-				mom = parents.get(0);
+				mom = parents[0];
 				mom.setXPos(x);
 				mom.setYPos(y);
 
-				dad = parents.get(1);
+				dad = parents[1];
 				dad.setXPos(x);
 				dad.setYPos(y);
 			}
-			/*
-			 * The idea is to make sure that individuals which share too much ancestry (i.e. immediate family members)
-			 * or not enough ancestry (i.e. different species) cannot reproduce.
-			 */
-			while (mom == dad || (verifyAncestry && generationCount > generationsToKeep && mom.getAncestry() != null
-					&& dad.getAncestry() != null
-					&& !mom.getAncestry().sharesLineageWith(dad.getAncestry(), generationsToSkip)));
+			while (mom == dad || !isCompatible(mom, dad));
 
 			return new SelectionResult(mom, dad);
 		}
@@ -263,4 +462,25 @@ public class LatticeGeneticAlgorithm extends AbstractGeneticAlgorithm {
 
 		return mutations.get();
 	}
+
+	/**
+	 * @param tiledExecution
+	 *            whether each generation should be run as a single pass over tiles of the lattice
+	 */
+	public void setTiledExecution(boolean tiledExecution) {
+		this.tiledExecution = tiledExecution;
+	}
+
+	/**
+	 * @param tileSize
+	 *            the number of rows and columns in each tile
+	 */
+	public void setTileSize(int tileSize) {
+		if (tileSize < 1) {
+			throw new IllegalArgumentException("Tried to set a tileSize of " + tileSize + ", but "
+					+ getClass().getSimpleName() + " requires a tileSize of at least 1.");
+		}
+
+		this.tileSize = tileSize;
+	}
 }
@@ -23,19 +23,27 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Required;
 
 import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.statistics.GenerationStatistics;
+import com.ciphertool.genetics.entities.statistics.PerformanceStatistics;
+import com.ciphertool.genetics.fitness.FitnessEvaluator;
 import com.ciphertool.genetics.population.StandardPopulation;
 
 public class StandardGeneticAlgorithm extends AbstractGeneticAlgorithm {
 	private Logger	log	= LoggerFactory.getLogger(getClass());
 
 	private int		elitism;
+	private boolean	pipelined	= false;
 
 	/**
 	 * A concurrent task for performing a crossover of two parent Chromosomes, producing one child Chromosome.
@@ -56,80 +64,55 @@ public class StandardGeneticAlgorithm extends AbstractGeneticAlgorithm {
 		}
 	}
 
-	protected class SelectionTask implements Callable<SelectionResult> {
-		public SelectionTask() {
-		}
-
-		@Override
-		public SelectionResult call() throws Exception {
-			StandardPopulation standardPopulation = (StandardPopulation) population;
-			int momIndex;
-			int dadIndex;
-			Chromosome mom;
-			Chromosome dad;
-
-			do {
-				momIndex = standardPopulation.selectIndex();
-				mom = standardPopulation.getIndividuals().get(momIndex);
-
-				dadIndex = standardPopulation.selectIndex();
-				// Ensure that dadIndex is different from momIndex
-				dadIndex += (dadIndex == momIndex) ? ((dadIndex == 0) ? 1 : -1) : 0;
-				dad = standardPopulation.getIndividuals().get(dadIndex);
-			}
-			/*
-			 * The idea is to make sure that individuals which share too much ancestry (i.e. immediate family members)
-			 * or not enough ancestry (i.e. different species) cannot reproduce.
-			 */
-			while (verifyAncestry && generationCount > generationsToKeep && mom.getAncestry() != null
-					&& dad.getAncestry() != null
-					&& !mom.getAncestry().sharesLineageWith(dad.getAncestry(), generationsToSkip));
-
-			return new SelectionResult(mom, dad);
-		}
-	}
-
 	@Override
 	public void select(int initialPopulationSize, List<Chromosome> moms, List<Chromosome> dads)
 			throws InterruptedException {
-		long pairsToCrossover = (initialPopulationSize - elitism) / this.crossoverAlgorithm.numberOfOffspring();
+		StandardPopulation standardPopulation = (StandardPopulation) this.population;
 
-		List<FutureTask<SelectionResult>> futureTasks = new ArrayList<FutureTask<SelectionResult>>();
-		FutureTask<SelectionResult> futureTask = null;
+		int pairsToCrossover = Math.max(0, (initialPopulationSize - elitism)
+				/ this.crossoverAlgorithm.numberOfOffspring());
 
 		/*
-		 * Execute each selection concurrently. Each should produce two children, but this is not necessarily always
-		 * guaranteed.
+		 * Select every parent with a single call so that the Selector is able to do so in one pass. Each pair should
+		 * produce two children, but this is not necessarily always guaranteed.
 		 */
-		for (int i = 0; i < Math.max(0, pairsToCrossover); i++) {
-			futureTask = new FutureTask<SelectionResult>(new SelectionTask());
-			futureTasks.add(futureTask);
-			this.taskExecutor.execute(futureTask);
-		}
+		int[] indices = standardPopulation.selectIndices(pairsToCrossover * 2);
+		List<Chromosome> individuals = standardPopulation.getIndividuals();
 
-		// Add the result of each FutureTask to the Lists of Chromosomes selected for subsequent crossover
-		for (FutureTask<SelectionResult> future : futureTasks) {
+		int momIndex;
+		int dadIndex;
+		Chromosome mom;
+		Chromosome dad;
+		SelectionResult result;
+
+		for (int i = 0; i < pairsToCrossover; i++) {
 			if (stopRequested) {
-				throw new InterruptedException("Stop requested during concurrent selections");
+				throw new InterruptedException("Stop requested during selection");
 			}
 
-			try {
-				SelectionResult result = future.get();
-				moms.add(result.getMom());
-				dads.add(result.getDad());
-			} catch (InterruptedException ie) {
-				log.error("Caught InterruptedException while waiting for SelectionTask ", ie);
-			} catch (ExecutionException ee) {
-				log.error("Caught ExecutionException while waiting for SelectionTask ", ee);
+			momIndex = indices[i * 2];
+			mom = individuals.get(momIndex);
+
+			dadIndex = indices[(i * 2) + 1];
+			// Ensure that dadIndex is different from momIndex
+			dadIndex += (dadIndex == momIndex) ? ((dadIndex == 0) ? 1 : -1) : 0;
+			dad = individuals.get(dadIndex);
+
+			if (!isCompatible(mom, dad)) {
+				// Fall back to selecting this pair individually until a compatible one is found
+				result = selectPair();
+				mom = result.getMom();
+				dad = result.getDad();
 			}
+
+			moms.add(mom);
+			dads.add(dad);
 		}
 	}
 
 	@Override
 	public int crossover(int pairsToCrossover, List<Chromosome> moms, List<Chromosome> dads)
 			throws InterruptedException {
-		StandardPopulation standardPopulation = (StandardPopulation) this.population;
-
 		if (this.population.size() < 2) {
 			log.info("Unable to perform crossover because there is only 1 individual in the population. Returning.");
 
@@ -153,10 +136,21 @@ public class StandardGeneticAlgorithm extends AbstractGeneticAlgorithm {
 			return ((null == childrenToAdd) ? 0 : childrenToAdd.size());
 		}
 
+		replaceNonElites(childrenToAdd);
+
+		return (int) childrenToAdd.size();
+	}
+
+	/*
+	 * Replaces every individual except the elite with the given children.
+	 */
+	protected void replaceNonElites(List<Chromosome> childrenToAdd) throws InterruptedException {
+		StandardPopulation standardPopulation = (StandardPopulation) this.population;
+
 		List<Chromosome> eliteIndividuals = new ArrayList<Chromosome>();
 
 		if (elitism > 0) {
-			standardPopulation.sortIndividuals();
+			standardPopulation.partitionTopIndividuals(elitism);
 
 			for (int i = this.population.size() - 1; i >= this.population.size() - elitism; i--) {
 				eliteIndividuals.add(this.population.getIndividuals().get(i));
@@ -182,8 +176,152 @@ public class StandardGeneticAlgorithm extends AbstractGeneticAlgorithm {
 
 			standardPopulation.addIndividual(child);
 		}
+	}
 
-		return (int) childrenToAdd.size();
+	@Override
+	protected void crossoverAndMutate(int initialPopulationSize, List<Chromosome> moms, List<Chromosome> dads,
+			GenerationStatistics generationStatistics, PerformanceStatistics performanceStats)
+			throws InterruptedException {
+		if (!pipelined) {
+			super.crossoverAndMutate(initialPopulationSize, moms, dads, generationStatistics, performanceStats);
+
+			return;
+		}
+
+		pipelineGeneration(initialPopulationSize, moms, dads, generationStatistics, performanceStats);
+	}
+
+	/**
+	 * Replaces the crossover and mutation phases of a generation when pipelined is set, passing each pair of selected
+	 * parents through crossover, mutation and evaluation without waiting for the other pairs in between. Since the
+	 * stages overlap, the crossover, mutation and evaluation times recorded are the sums of the time spent in each
+	 * stage by every task rather than elapsed times.
+	 * 
+	 * @param initialPopulationSize
+	 *            the size of the population before the generation
+	 * @param moms
+	 *            the selected moms
+	 * @param dads
+	 *            the selected dads, paired with the moms by position
+	 * @param generationStatistics
+	 *            the GenerationStatistics to record the counts in
+	 * @param performanceStats
+	 *            the PerformanceStatistics to record the stage times in
+	 * @throws InterruptedException
+	 *             if stop is requested during the generation
+	 */
+	protected void pipelineGeneration(int initialPopulationSize, List<Chromosome> moms, List<Chromosome> dads,
+			GenerationStatistics generationStatistics, PerformanceStatistics performanceStats)
+			throws InterruptedException {
+		if (this.population.size() < 2) {
+			log.info("Unable to perform crossover because there is only 1 individual in the population. Returning.");
+
+			return;
+		}
+
+		if (moms.size() != dads.size()) {
+			throw new IllegalStateException(
+					"Attempted to perform crossover on the population, but there are not an equal number of moms and dads.  Something is wrong.  Moms: "
+							+ moms.size() + ", Dads:  " + dads.size());
+		}
+
+		FitnessEvaluator fitnessEvaluator = this.strategy.getFitnessEvaluator();
+		AtomicLong crossoverNanos = new AtomicLong(0);
+		AtomicLong mutationNanos = new AtomicLong(0);
+		AtomicLong evaluationNanos = new AtomicLong(0);
+		AtomicInteger evaluations = new AtomicInteger(0);
+
+		mutations.set(0);
+
+		List<CompletableFuture<List<Chromosome>>> futures = new ArrayList<CompletableFuture<List<Chromosome>>>();
+
+		/*
+		 * Each pair's children go on to mutation and evaluation as soon as they are born, without waiting for the
+		 * rest of the population to finish crossover.
+		 */
+		for (int i = 0; i < moms.size(); i++) {
+			Chromosome mom = moms.get(i);
+			Chromosome dad = dads.get(i);
+
+			futures.add(CompletableFuture.supplyAsync(() -> {
+				long start = System.nanoTime();
+
+				@SuppressWarnings("unchecked")
+				List<Chromosome> children = crossoverAlgorithm.crossover(mom, dad);
+
+				// Detached until added, so that their Gene changes are not reported to the population
+				for (Chromosome child : children) {
+					child.setPopulation(null);
+				}
+
+				crossoverNanos.addAndGet(System.nanoTime() - start);
+
+				return children;
+			}, this.taskExecutor).thenApplyAsync(children -> {
+				long start = System.nanoTime();
+
+				for (Chromosome child : children) {
+					if (mutateChromosome(child)) {
+						mutations.incrementAndGet();
+					}
+				}
+
+				mutationNanos.addAndGet(System.nanoTime() - start);
+
+				return children;
+			}, this.taskExecutor).thenApplyAsync(children -> {
+				long start = System.nanoTime();
+
+				for (Chromosome child : children) {
+					if (child.isEvaluationNeeded()) {
+						FitnessEvaluator.evaluateAndSetFitness(fitnessEvaluator, child);
+
+						evaluations.incrementAndGet();
+					}
+				}
+
+				evaluationNanos.addAndGet(System.nanoTime() - start);
+
+				return children;
+			}, this.taskExecutor));
+		}
+
+		List<Chromosome> childrenToAdd = new ArrayList<Chromosome>();
+
+		for (CompletableFuture<List<Chromosome>> future : futures) {
+			if (stopRequested) {
+				throw new InterruptedException("Stop requested during pipelined generation");
+			}
+
+			try {
+				childrenToAdd.addAll(future.get());
+			} catch (InterruptedException ie) {
+				log.error("Caught InterruptedException while waiting for pipelined crossover ", ie);
+			} catch (ExecutionException ee) {
+				log.error("Caught ExecutionException while waiting for pipelined crossover ", ee);
+			}
+		}
+
+		generationStatistics.setNumberOfCrossovers(childrenToAdd.size());
+		generationStatistics.setNumberOfMutations(mutations.get());
+		generationStatistics.setNumberOfEvaluations(evaluations.get());
+		performanceStats.setCrossoverMillis(TimeUnit.NANOSECONDS.toMillis(crossoverNanos.get()));
+		performanceStats.setMutationMillis(TimeUnit.NANOSECONDS.toMillis(mutationNanos.get()));
+		performanceStats.setEvaluationMillis(TimeUnit.NANOSECONDS.toMillis(evaluationNanos.get()));
+
+		if ((childrenToAdd.size() + elitism) < initialPopulationSize) {
+			log.error(childrenToAdd.size() + " children produced from pipelined crossover execution.  Expected "
+					+ initialPopulationSize + " children.");
+
+			return;
+		}
+
+		replaceNonElites(childrenToAdd);
+	}
+
+	@SuppressWarnings("unchecked")
+	private boolean mutateChromosome(Chromosome chromosome) {
+		return mutationAlgorithm.mutateChromosome(chromosome);
 	}
 
 	protected List<Chromosome> doConcurrentCrossovers(List<Chromosome> moms, List<Chromosome> dads)
@@ -246,10 +384,13 @@ public class StandardGeneticAlgorithm extends AbstractGeneticAlgorithm {
 
 		mutations.set(0);
 
-		standardPopulation.sortIndividuals();
+		if (elitism > 0) {
+			// Only the elite need to be set apart, so there is no need to sort the rest
+			standardPopulation.partitionTopIndividuals(elitism);
+		}
 
 		/*
-		 * Execute each mutation concurrently.
+		 * Execute each mutation concurrently. The elite, at the end of the population, are skipped.
 		 */
 		for (int i = this.population.size() - elitism - 1; i >= 0; i--) {
 			futureTask = new FutureTask<Void>(new MutationTask(this.population.getIndividuals().get(i)));
@@ -282,4 +423,12 @@ public class StandardGeneticAlgorithm extends AbstractGeneticAlgorithm {
 	public void setElitism(int elitism) {
 		this.elitism = elitism;
 	}
+
+	/**
+	 * @param pipelined
+	 *            whether to pipeline crossover, mutation and evaluation instead of running them as separate phases
+	 */
+	public void setPipelined(boolean pipelined) {
+		this.pipelined = pipelined;
+	}
 }
@@ -0,0 +1,431 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.statistics.GenerationStatistics;
+import com.ciphertool.genetics.entities.statistics.PerformanceStatistics;
+import com.ciphertool.genetics.fitness.FitnessComparator;
+import com.ciphertool.genetics.fitness.FitnessEvaluator;
+import com.ciphertool.genetics.population.StandardPopulation;
+
+/**
+ * A GeneticAlgorithm which never replaces the population wholesale. Concurrent workers each select a pair of parents,
+ * then cross over, mutate and evaluate their children, and finally swap each child in for the least fit individual in
+ * the population, so evaluation never waits on a generation-wide barrier. The workers keep breeding for the whole run,
+ * and a generation here is just a reporting interval of offspringPerGeneration children, whose statistics are a
+ * snapshot of what the workers have published since the previous one.
+ * 
+ * The workers hold on to their threads until the run finishes, so the TaskExecutor must be asynchronous and have
+ * threads to spare for the population's own evaluations.
+ */
+public class SteadyStateGeneticAlgorithm extends AbstractGeneticAlgorithm {
+	private static final long				WORKER_POLL_MILLIS	= 100L;
+
+	private Logger							log					= LoggerFactory.getLogger(getClass());
+
+	private int								offspringPerGeneration;
+	private int								workers				= Runtime.getRuntime().availableProcessors();
+	private PriorityQueue<Integer>			leastFitFirst;
+	private List<FutureTask<Void>>			runningWorkers		= new ArrayList<FutureTask<Void>>();
+	private volatile boolean				breeding			= false;
+	private final Semaphore					pairsBred			= new Semaphore(0);
+	private final OffspringResult			offspring			= new OffspringResult();
+	private long							lastSnapshotMillis;
+
+	/**
+	 * Counts and timings of the breeding, which the workers add to concurrently.
+	 */
+	protected class OffspringResult {
+		private final LongAdder	crossovers		= new LongAdder();
+		private final LongAdder	mutations		= new LongAdder();
+		private final LongAdder	evaluations		= new LongAdder();
+		private final LongAdder	selectionNanos	= new LongAdder();
+		private final LongAdder	crossoverNanos	= new LongAdder();
+		private final LongAdder	mutationNanos	= new LongAdder();
+		private final LongAdder	evaluationNanos	= new LongAdder();
+	}
+
+	/**
+	 * A concurrent task which keeps breeding children until the workers are stopped, releasing a permit for every
+	 * pair it has bred.
+	 */
+	protected class WorkerTask implements Callable<Void> {
+		@Override
+		public Void call() throws Exception {
+			while (breeding && !stopRequested) {
+				long startSelection = System.nanoTime();
+				SelectionResult parents;
+
+				synchronized (population) {
+					parents = selectPair();
+				}
+
+				offspring.selectionNanos.add(System.nanoTime() - startSelection);
+
+				breed(parents.getMom(), parents.getDad(), offspring);
+
+				pairsBred.release();
+			}
+
+			return null;
+		}
+	}
+
+	/*
+	 * Crosses over the parents, mutates and evaluates the children outside of the lock, and then replaces the least
+	 * fit individuals with them.
+	 */
+	@SuppressWarnings("unchecked")
+	protected void breed(Chromosome mom, Chromosome dad, OffspringResult result) {
+		long startCrossover = System.nanoTime();
+		List<Chromosome> children = crossoverAlgorithm.crossover(mom, dad);
+		result.crossovers.add(children.size());
+		result.crossoverNanos.add(System.nanoTime() - startCrossover);
+
+		long startMutation = System.nanoTime();
+		for (Chromosome child : children) {
+			// Detached until swapped in, so that its Gene changes are not reported to the population
+			child.setPopulation(null);
+
+			if (mutationAlgorithm.mutateChromosome(child)) {
+				result.mutations.increment();
+			}
+		}
+		result.mutationNanos.add(System.nanoTime() - startMutation);
+
+		long startEvaluation = System.nanoTime();
+		FitnessEvaluator fitnessEvaluator = this.strategy.getFitnessEvaluator();
+		for (Chromosome child : children) {
+			if (child.isEvaluationNeeded()) {
+				FitnessEvaluator.evaluateAndSetFitness(fitnessEvaluator, child);
+
+				result.evaluations.increment();
+			}
+		}
+		result.evaluationNanos.add(System.nanoTime() - startEvaluation);
+
+		synchronized (this.population) {
+			for (Chromosome child : children) {
+				replaceLeastFit(child);
+			}
+		}
+	}
+
+	/*
+	 * Must be called while holding the lock on the population.
+	 */
+	protected void replaceLeastFit(Chromosome child) {
+		StandardPopulation standardPopulation = (StandardPopulation) this.population;
+
+		Integer leastFitIndex = leastFitFirst.poll();
+
+		standardPopulation.replaceIndividual(leastFitIndex, child);
+
+		leastFitFirst.offer(leastFitIndex);
+	}
+
+	protected void indexLeastFit() {
+		List<Chromosome> individuals = this.population.getIndividuals();
+		FitnessComparator fitnessComparator = ((StandardPopulation) this.population).getFitnessComparator();
+
+		// The FitnessComparator orders the least fit first, whichever direction fitness is measured in
+		leastFitFirst = new PriorityQueue<Integer>(Math.max(1, individuals.size()), (a, b) -> fitnessComparator
+				.compare(individuals.get(a), individuals.get(b)));
+
+		for (int i = 0; i < individuals.size(); i++) {
+			leastFitFirst.offer(i);
+		}
+	}
+
+	@Override
+	public void proceedWithNextGeneration() throws InterruptedException {
+		synchronized (this.population) {
+			this.population.backupIndividuals();
+		}
+
+		this.generationCount++;
+
+		GenerationStatistics generationStatistics = new GenerationStatistics(this.executionStatistics,
+				this.generationCount);
+
+		long generationStart = System.currentTimeMillis();
+
+		PerformanceStatistics performanceStats = new PerformanceStatistics();
+
+		if (this.population.size() < 2) {
+			log.info("Unable to breed because there is only 1 individual in the population.");
+		} else {
+			doSteadyStateBreeding(generationStatistics, performanceStats);
+		}
+
+		try {
+			synchronized (this.population) {
+				// The workers have already evaluated every child, so this only gathers the fitness statistics
+				completeGeneration(generationStatistics, performanceStats, generationStart);
+
+				if (breeding) {
+					// Non-incremental Selectors are only re-indexed here, and otherwise select from stale weights
+					this.population.reIndexSelector();
+					indexLeastFit();
+				}
+			}
+		} catch (InterruptedException ie) {
+			// Outside of the lock, since the workers may be waiting on it to finish their pairs
+			stopWorkers();
+
+			throw ie;
+		}
+	}
+
+	/**
+	 * Starts the workers if they are not running yet, and then waits until they have bred this generation's children.
+	 * The workers are not joined, and keep breeding the next generation's children while this one is completed.
+	 * 
+	 * @param generationStatistics
+	 *            the GenerationStatistics to record the snapshot of the counts in
+	 * @param performanceStats
+	 *            the PerformanceStatistics to record the snapshot of the timings in
+	 * @throws InterruptedException
+	 *             if stop is requested, in which case the workers have been stopped
+	 */
+	protected void doSteadyStateBreeding(GenerationStatistics generationStatistics,
+			PerformanceStatistics performanceStats) throws InterruptedException {
+		if (!breeding) {
+			startWorkers();
+		}
+
+		int pairsToBreed = Math.max(1, getOffspringPerGeneration() / this.crossoverAlgorithm.numberOfOffspring());
+		boolean bred;
+
+		try {
+			do {
+				bred = pairsBred.tryAcquire(pairsToBreed, WORKER_POLL_MILLIS, TimeUnit.MILLISECONDS);
+			} while (!bred && !stopRequested && !anyWorkerDone());
+		} catch (InterruptedException ie) {
+			stopWorkers();
+
+			throw ie;
+		}
+
+		if (!bred) {
+			Throwable failure = stopWorkers();
+
+			if (stopRequested) {
+				throw new InterruptedException("Stop requested during steady state breeding");
+			}
+
+			throw new IllegalStateException("A worker failed during steady state breeding.", failure);
+		}
+
+		long now = System.currentTimeMillis();
+		long elapsedMillis = now - lastSnapshotMillis;
+		lastSnapshotMillis = now;
+
+		generationStatistics.setNumberOfCrossovers((int) offspring.crossovers.sumThenReset());
+		generationStatistics.setNumberOfMutations((int) offspring.mutations.sumThenReset());
+		generationStatistics.setNumberOfEvaluations((int) offspring.evaluations.sumThenReset());
+
+		long selectionNanos = offspring.selectionNanos.sumThenReset();
+		long crossoverNanos = offspring.crossoverNanos.sumThenReset();
+		long mutationNanos = offspring.mutationNanos.sumThenReset();
+		long evaluationNanos = offspring.evaluationNanos.sumThenReset();
+
+		/*
+		 * The stages are interleaved within each worker, so the wall-clock time since the previous snapshot is
+		 * apportioned among them according to the time the workers spent in each.
+		 */
+		double totalNanos = (double) (selectionNanos + crossoverNanos + mutationNanos + evaluationNanos);
+
+		if (totalNanos > 0.0) {
+			performanceStats.setSelectionMillis(Math.round(elapsedMillis * (selectionNanos / totalNanos)));
+			performanceStats.setCrossoverMillis(Math.round(elapsedMillis * (crossoverNanos / totalNanos)));
+			performanceStats.setMutationMillis(Math.round(elapsedMillis * (mutationNanos / totalNanos)));
+			performanceStats.setEvaluationMillis(Math.round(elapsedMillis * (evaluationNanos / totalNanos)));
+		}
+	}
+
+	protected void startWorkers() {
+		synchronized (this.population) {
+			this.population.reIndexSelector();
+			indexLeastFit();
+		}
+
+		lastSnapshotMillis = System.currentTimeMillis();
+		breeding = true;
+
+		FutureTask<Void> futureTask = null;
+
+		for (int i = 0; i < workers; i++) {
+			futureTask = new FutureTask<Void>(new WorkerTask());
+			runningWorkers.add(futureTask);
+			this.taskExecutor.execute(futureTask);
+		}
+	}
+
+	protected boolean anyWorkerDone() {
+		for (FutureTask<Void> worker : runningWorkers) {
+			if (worker.isDone()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Stops the workers and waits for each of them to finish the pair it is breeding, so that the population is no
+	 * longer changing once this returns.
+	 * 
+	 * @return the first failure of any worker, or null if none of them failed
+	 */
+	protected Throwable stopWorkers() {
+		breeding = false;
+
+		Throwable failure = null;
+
+		for (FutureTask<Void> worker : runningWorkers) {
+			try {
+				worker.get();
+			} catch (InterruptedException ie) {
+				log.error("Caught InterruptedException while waiting for WorkerTask ", ie);
+			} catch (ExecutionException ee) {
+				log.error("Caught ExecutionException while waiting for WorkerTask ", ee);
+
+				if (failure == null) {
+					failure = ee.getCause();
+				}
+			}
+		}
+
+		runningWorkers.clear();
+		pairsBred.drainPermits();
+
+		return failure;
+	}
+
+	@Override
+	public void finish() {
+		stopWorkers();
+
+		super.finish();
+	}
+
+	@Override
+	public void select(int initialPopulationSize, List<Chromosome> moms, List<Chromosome> dads)
+			throws InterruptedException {
+		int pairsToCrossover = initialPopulationSize / this.crossoverAlgorithm.numberOfOffspring();
+
+		SelectionResult result;
+
+		this.population.reIndexSelector();
+
+		for (int i = 0; i < pairsToCrossover; i++) {
+			if (stopRequested) {
+				throw new InterruptedException("Stop requested during selection");
+			}
+
+			result = selectPair();
+			moms.add(result.getMom());
+			dads.add(result.getDad());
+		}
+	}
+
+	/**
+	 * Breeds each pair in turn, replacing the least fit individuals with the children. The children are mutated and
+	 * evaluated as they are born, so there is nothing left for {@link #mutate(int)} to do.
+	 */
+	@Override
+	public int crossover(int pairsToCrossover, List<Chromosome> moms, List<Chromosome> dads)
+			throws InterruptedException {
+		if (this.population.size() < 2) {
+			log.info("Unable to perform crossover because there is only 1 individual in the population. Returning.");
+
+			return 0;
+		}
+
+		indexLeastFit();
+
+		OffspringResult result = new OffspringResult();
+
+		for (int i = 0; i < moms.size(); i++) {
+			if (stopRequested) {
+				throw new InterruptedException("Stop requested during crossover");
+			}
+
+			breed(moms.get(i), dads.get(i), result);
+		}
+
+		return result.crossovers.intValue();
+	}
+
+	@Override
+	public int mutate(int initialPopulationSize) throws InterruptedException {
+		// Children are mutated as they are born in crossover()
+		return 0;
+	}
+
+	/**
+	 * @return the number of children bred per generation, which defaults to the size of the population
+	 */
+	protected int getOffspringPerGeneration() {
+		return (offspringPerGeneration > 0) ? offspringPerGeneration : this.population.size();
+	}
+
+	/**
+	 * @param offspringPerGeneration
+	 *            the number of children bred between generation statistics, or 0 to use the size of the population
+	 */
+	public void setOffspringPerGeneration(int offspringPerGeneration) {
+		if (offspringPerGeneration < 0) {
+			throw new IllegalArgumentException("Tried to set an offspringPerGeneration of " + offspringPerGeneration
+					+ ", but " + getClass().getSimpleName() + " requires an offspringPerGeneration of at least 0.");
+		}
+
+		this.offspringPerGeneration = offspringPerGeneration;
+	}
+
+	/**
+	 * @param workers
+	 *            the number of concurrent workers breeding children, each of which holds a thread of the TaskExecutor
+	 *            for the whole run
+	 */
+	public void setWorkers(int workers) {
+		if (workers < 1) {
+			throw new IllegalArgumentException("Tried to set a number of workers of " + workers + ", but "
+					+ getClass().getSimpleName() + " requires a number of workers of at least 1.");
+		}
+
+		this.workers = workers;
+	}
+}
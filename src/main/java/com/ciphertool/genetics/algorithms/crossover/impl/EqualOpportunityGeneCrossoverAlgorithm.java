@@ -28,6 +28,7 @@ import org.springframework.beans.factory.annotation.Required;
 import com.ciphertool.genetics.algorithms.crossover.CrossoverAlgorithm;
 import com.ciphertool.genetics.entities.Ancestry;
 import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.entities.IndexedChromosome;
 import com.ciphertool.genetics.entities.KeyedChromosome;
 import com.ciphertool.genetics.util.Coin;
 
@@ -60,6 +61,10 @@ public class EqualOpportunityGeneCrossoverAlgorithm implements CrossoverAlgorith
 
 	@SuppressWarnings("unchecked")
 	protected KeyedChromosome<Object> performCrossover(KeyedChromosome<Object> parentA, KeyedChromosome<Object> parentB) {
+		if (IndexedChromosome.sharesGeneIndex(parentA, parentB)) {
+			return performIndexedCrossover((IndexedChromosome<Object>) parentA, (IndexedChromosome<Object>) parentB);
+		}
+
 		KeyedChromosome<Object> child = (KeyedChromosome<Object>) parentA.clone();
 
 		Object key;
@@ -77,6 +82,25 @@ public class EqualOpportunityGeneCrossoverAlgorithm implements CrossoverAlgorith
 		return child;
 	}
 
+	@SuppressWarnings("unchecked")
+	protected KeyedChromosome<Object> performIndexedCrossover(IndexedChromosome<Object> parentA, IndexedChromosome<Object> parentB) {
+		IndexedChromosome<Object> child = (IndexedChromosome<Object>) parentA.clone();
+
+		Gene gene;
+
+		for (int i = 0; i < parentA.getGeneIndex().size(); i++) {
+			if (parentA.getGeneAt(i) != null && coin.flip()) {
+				gene = parentB.getGeneAt(i);
+
+				if (!child.getGeneAt(i).equals(gene)) {
+					child.replaceGeneAt(i, gene.clone());
+				}
+			}
+		}
+
+		return child;
+	}
+
 	/**
 	 * @param coin
 	 *            the coin to set
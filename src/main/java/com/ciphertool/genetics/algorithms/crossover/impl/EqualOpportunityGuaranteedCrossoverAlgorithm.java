@@ -19,7 +19,6 @@
 
 package com.ciphertool.genetics.algorithms.crossover.impl;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -73,7 +72,7 @@ public class EqualOpportunityGuaranteedCrossoverAlgorithm implements
 	protected KeyedChromosome<Object> performCrossover(KeyedChromosome<Object> parentA, KeyedChromosome<Object> parentB) {
 		KeyedChromosome<Object> child = (KeyedChromosome<Object>) parentA.clone();
 		Map<Object, Gene> replaced = new HashMap<Object, Gene>();
-		BigDecimal originalFitness = parentA.getFitness();
+		double originalFitness = parentA.getFitnessAsDouble();
 		Gene originalGene;
 		Gene replacement;
 
@@ -99,11 +98,8 @@ public class EqualOpportunityGuaranteedCrossoverAlgorithm implements
 			}
 
 			if (crossedOver) {
-				BigDecimal fitness = fitnessEvaluator.evaluate(child);
-
-				if (fitness.compareTo(originalFitness) > 0) {
-					child.setFitness(fitness);
-
+				if (FitnessEvaluator.evaluateAndSetFitness(fitnessEvaluator, child, replaced.keySet(),
+						originalFitness) > originalFitness) {
 					break;
 				} else {
 					// revert crossover
@@ -112,7 +108,7 @@ public class EqualOpportunityGuaranteedCrossoverAlgorithm implements
 					}
 
 					// Make sure it doesn't get re-evaluated
-					child.setFitness(originalFitness);
+					child.setFitness(parentA.getFitness());
 				}
 			}
 		}
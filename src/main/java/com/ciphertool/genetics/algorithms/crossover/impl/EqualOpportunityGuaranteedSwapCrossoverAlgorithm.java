@@ -19,7 +19,6 @@
 
 package com.ciphertool.genetics.algorithms.crossover.impl;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -71,8 +70,8 @@ public class EqualOpportunityGuaranteedSwapCrossoverAlgorithm implements
 		KeyedChromosome<Object> childB = (KeyedChromosome<Object>) parentB.clone();
 		Map<Object, Gene> replacedChildA = new HashMap<Object, Gene>();
 		Map<Object, Gene> replacedChildB = new HashMap<Object, Gene>();
-		BigDecimal originalFitnessA = parentA.getFitness();
-		BigDecimal originalFitnessB = parentB.getFitness();
+		double originalFitnessA = parentA.getFitnessAsDouble();
+		double originalFitnessB = parentB.getFitnessAsDouble();
 		Gene originalGeneChildA;
 		Gene originalGeneChildB;
 		Gene replacementChildA;
@@ -105,13 +104,12 @@ public class EqualOpportunityGuaranteedSwapCrossoverAlgorithm implements
 			}
 
 			if (crossedOver) {
-				BigDecimal fitnessChildA = fitnessEvaluator.evaluate(childA);
-				BigDecimal fitnessChildB = fitnessEvaluator.evaluate(childB);
-
-				if (fitnessChildA.compareTo(originalFitnessA) > 0 && fitnessChildB.compareTo(originalFitnessB) > 0) {
-					childA.setFitness(fitnessChildA);
-					childB.setFitness(fitnessChildB);
+				double fitnessChildA = FitnessEvaluator.evaluateAndSetFitness(fitnessEvaluator, childA,
+						replacedChildA.keySet(), originalFitnessA);
+				double fitnessChildB = FitnessEvaluator.evaluateAndSetFitness(fitnessEvaluator, childB,
+						replacedChildB.keySet(), originalFitnessB);
 
+				if (fitnessChildA > originalFitnessA && fitnessChildB > originalFitnessB) {
 					break;
 				} else {
 					// revert the crossovers
@@ -124,8 +122,8 @@ public class EqualOpportunityGuaranteedSwapCrossoverAlgorithm implements
 					}
 
 					// Make sure they don't get re-evaluated
-					childA.setFitness(originalFitnessA);
-					childB.setFitness(originalFitnessB);
+					childA.setFitness(parentA.getFitness());
+					childB.setFitness(parentB.getFitness());
 				}
 			}
 		}
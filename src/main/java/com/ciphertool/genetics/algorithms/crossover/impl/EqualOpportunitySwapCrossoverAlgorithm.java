@@ -26,6 +26,7 @@ import org.springframework.beans.factory.annotation.Required;
 
 import com.ciphertool.genetics.algorithms.crossover.CrossoverAlgorithm;
 import com.ciphertool.genetics.entities.Ancestry;
+import com.ciphertool.genetics.entities.IndexedChromosome;
 import com.ciphertool.genetics.entities.KeyedChromosome;
 import com.ciphertool.genetics.util.Coin;
 
@@ -54,6 +55,10 @@ public class EqualOpportunitySwapCrossoverAlgorithm implements CrossoverAlgorith
 
 	@SuppressWarnings("unchecked")
 	protected List<KeyedChromosome<Object>> performCrossover(KeyedChromosome<Object> parentA, KeyedChromosome<Object> parentB) {
+		if (IndexedChromosome.sharesGeneIndex(parentA, parentB)) {
+			return performIndexedCrossover((IndexedChromosome<Object>) parentA, (IndexedChromosome<Object>) parentB);
+		}
+
 		KeyedChromosome<Object> childA = (KeyedChromosome<Object>) parentA.clone();
 		KeyedChromosome<Object> childB = (KeyedChromosome<Object>) parentB.clone();
 
@@ -71,6 +76,25 @@ public class EqualOpportunitySwapCrossoverAlgorithm implements CrossoverAlgorith
 		return children;
 	}
 
+	@SuppressWarnings("unchecked")
+	protected List<KeyedChromosome<Object>> performIndexedCrossover(IndexedChromosome<Object> parentA, IndexedChromosome<Object> parentB) {
+		IndexedChromosome<Object> childA = (IndexedChromosome<Object>) parentA.clone();
+		IndexedChromosome<Object> childB = (IndexedChromosome<Object>) parentB.clone();
+
+		for (int i = 0; i < parentA.getGeneIndex().size(); i++) {
+			if (parentA.getGeneAt(i) != null && coin.flip()) {
+				childA.replaceGeneAt(i, parentB.getGeneAt(i).clone());
+				childB.replaceGeneAt(i, parentA.getGeneAt(i).clone());
+			}
+		}
+
+		List<KeyedChromosome<Object>> children = new ArrayList<KeyedChromosome<Object>>(2);
+		children.add(childA);
+		children.add(childB);
+
+		return children;
+	}
+
 	/**
 	 * @param coin
 	 *            the coin to set
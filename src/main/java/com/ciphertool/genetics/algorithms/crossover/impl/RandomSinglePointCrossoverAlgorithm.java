@@ -23,11 +23,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.springframework.beans.factory.annotation.Required;
 
 import com.ciphertool.genetics.algorithms.crossover.CrossoverAlgorithm;
 import com.ciphertool.genetics.entities.Ancestry;
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.entities.IndexedChromosome;
 import com.ciphertool.genetics.entities.KeyedChromosome;
 
 public class RandomSinglePointCrossoverAlgorithm implements CrossoverAlgorithm<KeyedChromosome<Object>> {
@@ -57,6 +60,10 @@ public class RandomSinglePointCrossoverAlgorithm implements CrossoverAlgorithm<K
 
 	@SuppressWarnings("unchecked")
 	protected KeyedChromosome<Object> performCrossover(KeyedChromosome<Object> parentA, KeyedChromosome<Object> parentB) {
+		if (IndexedChromosome.sharesGeneIndex(parentA, parentB)) {
+			return performIndexedCrossover((IndexedChromosome<Object>) parentA, (IndexedChromosome<Object>) parentB);
+		}
+
 		Random generator = new Random();
 		Set<Object> availableKeys = parentA.getGenes().keySet();
 		Object[] keys = availableKeys.toArray();
@@ -80,6 +87,27 @@ public class RandomSinglePointCrossoverAlgorithm implements CrossoverAlgorithm<K
 		return child;
 	}
 
+	@SuppressWarnings("unchecked")
+	protected KeyedChromosome<Object> performIndexedCrossover(IndexedChromosome<Object> parentA, IndexedChromosome<Object> parentB) {
+		int randomIndex = ThreadLocalRandom.current().nextInt(parentA.getGeneIndex().size());
+
+		IndexedChromosome<Object> child = (IndexedChromosome<Object>) parentA.clone();
+		Gene gene;
+
+		for (int i = 0; i <= randomIndex; i++) {
+			gene = parentB.getGeneAt(i);
+
+			if (null == gene) {
+				throw new IllegalStateException("Expected second parent to have a Gene with key "
+						+ parentA.getGeneIndex().keyAt(i) + ", but no such key was found.  Cannot continue.");
+			}
+
+			child.replaceGeneAt(i, gene.clone());
+		}
+
+		return child;
+	}
+
 	@Override
 	public String getDisplayName() {
 		return "Random Single Point";
@@ -19,7 +19,6 @@
 
 package com.ciphertool.genetics.algorithms.crossover.impl;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -73,7 +72,7 @@ public class RandomSinglePointGuaranteedCrossoverAlgorithm implements
 		KeyedChromosome<Object> child = (KeyedChromosome<Object>) parentA.clone();
 		Map<Object, Gene> replaced = new HashMap<Object, Gene>();
 
-		BigDecimal originalFitness = parentA.getFitness();
+		double originalFitness = parentA.getFitnessAsDouble();
 		int randomIndex;
 		Gene originalGene;
 		Gene replacement;
@@ -109,11 +108,8 @@ public class RandomSinglePointGuaranteedCrossoverAlgorithm implements
 			}
 
 			if (crossedOver) {
-				BigDecimal fitness = fitnessEvaluator.evaluate(child);
-
-				if (fitness.compareTo(originalFitness) > 0) {
-					child.setFitness(fitness);
-
+				if (FitnessEvaluator.evaluateAndSetFitness(fitnessEvaluator, child, replaced.keySet(),
+						originalFitness) > originalFitness) {
 					break;
 				} else {
 					// revert crossover
@@ -122,7 +118,7 @@ public class RandomSinglePointGuaranteedCrossoverAlgorithm implements
 					}
 
 					// Make sure it doesn't get re-evaluated
-					child.setFitness(originalFitness);
+					child.setFitness(parentA.getFitness());
 				}
 			}
 		}
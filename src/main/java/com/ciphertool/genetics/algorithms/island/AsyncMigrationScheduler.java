@@ -0,0 +1,214 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.island;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Required;
+import org.springframework.core.task.TaskExecutor;
+
+import com.ciphertool.genetics.entities.Chromosome;
+
+/**
+ * Migrates between islands through a MigrationTransport without ever making an island wait. At each migration, any
+ * batches which have already arrived are taken in, and the emigrants are cloned and then serialized and sent in the
+ * background, so they reach their destinations in time for a later migration rather than the current one. The local
+ * islands of an {@link IslandModelGeneticAlgorithm} have the ids firstIslandId onwards, out of islandCount islands
+ * across every process.
+ */
+public class AsyncMigrationScheduler {
+	private Logger					log				= LoggerFactory.getLogger(getClass());
+
+	private MigrationTransport		migrationTransport;
+	private MigrantSerializer		migrantSerializer;
+	private TaskExecutor			taskExecutor;
+	private int						firstIslandId	= 0;
+	private int						islandCount		= 0;
+	private List<FutureTask<Void>>	pendingSends	= new ArrayList<FutureTask<Void>>();
+
+	/**
+	 * A concurrent task for serializing a batch of emigrants and sending it to its destinations.
+	 */
+	protected class SendTask implements Callable<Void> {
+		private List<Chromosome>	emigrants;
+		private int[]				destinations;
+
+		public SendTask(List<Chromosome> emigrants, int[] destinations) {
+			this.emigrants = emigrants;
+			this.destinations = destinations;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			byte[] batch = migrantSerializer.serialize(emigrants);
+
+			for (int destination : destinations) {
+				migrationTransport.send(destination, batch);
+			}
+
+			return null;
+		}
+	}
+
+	/**
+	 * Takes in whatever immigrants have arrived for the local islands, and starts sending their emigrants. Must be
+	 * called between generations.
+	 * 
+	 * @param islandModel
+	 *            the IslandModelGeneticAlgorithm whose islands are migrating
+	 */
+	public synchronized void migrate(IslandModelGeneticAlgorithm islandModel) {
+		int localIslands = islandModel.getIslands().size();
+		int totalIslands = (islandCount > 0) ? islandCount : localIslands;
+
+		for (Iterator<FutureTask<Void>> iterator = pendingSends.iterator(); iterator.hasNext();) {
+			FutureTask<Void> future = iterator.next();
+
+			if (future.isDone()) {
+				awaitSend(future);
+
+				iterator.remove();
+			}
+		}
+
+		for (int i = 0; i < localIslands; i++) {
+			receiveImmigrants(islandModel, i);
+		}
+
+		for (int i = 0; i < localIslands; i++) {
+			List<Chromosome> emigrants = new ArrayList<Chromosome>();
+
+			// The originals go on evolving, so the batch is serialized from clones, detached from the population
+			for (Chromosome emigrant : islandModel.selectEmigrants(i)) {
+				Chromosome clone = emigrant.clone();
+				clone.setPopulation(null);
+
+				emigrants.add(clone);
+			}
+
+			if (emigrants.isEmpty()) {
+				continue;
+			}
+
+			FutureTask<Void> futureTask = new FutureTask<Void>(new SendTask(emigrants,
+					islandModel.getMigrationTopology().getDestinations(firstIslandId + i, totalIslands)));
+			pendingSends.add(futureTask);
+			this.taskExecutor.execute(futureTask);
+		}
+	}
+
+	protected void receiveImmigrants(IslandModelGeneticAlgorithm islandModel, int island) {
+		byte[] batch;
+
+		try {
+			while ((batch = migrationTransport.receive(firstIslandId + island)) != null) {
+				islandModel.immigrate(island, migrantSerializer.deserialize(batch));
+			}
+		} catch (IOException ioe) {
+			log.error("Unable to receive immigrants for island " + (firstIslandId + island) + ".", ioe);
+		}
+	}
+
+	/**
+	 * Waits for every batch sent so far to be handed to the MigrationTransport, for example before shutting down.
+	 */
+	public synchronized void awaitPendingSends() {
+		for (FutureTask<Void> future : pendingSends) {
+			awaitSend(future);
+		}
+
+		pendingSends.clear();
+	}
+
+	/*
+	 * Waits for a single batch to be sent, logging rather than raising any failure, since the batch is lost either way
+	 * and the islands can go on evolving without it.
+	 */
+	private void awaitSend(FutureTask<Void> future) {
+		try {
+			future.get();
+		} catch (InterruptedException ie) {
+			log.error("Caught InterruptedException while waiting for SendTask ", ie);
+		} catch (ExecutionException ee) {
+			log.error("Caught ExecutionException while waiting for SendTask ", ee);
+		}
+	}
+
+	/**
+	 * @param migrationTransport
+	 *            the migrationTransport to set
+	 */
+	@Required
+	public void setMigrationTransport(MigrationTransport migrationTransport) {
+		this.migrationTransport = migrationTransport;
+	}
+
+	/**
+	 * @param migrantSerializer
+	 *            the migrantSerializer to set
+	 */
+	@Required
+	public void setMigrantSerializer(MigrantSerializer migrantSerializer) {
+		this.migrantSerializer = migrantSerializer;
+	}
+
+	/**
+	 * @param taskExecutor
+	 *            the taskExecutor to serialize and send batches on
+	 */
+	@Required
+	public void setTaskExecutor(TaskExecutor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * @param firstIslandId
+	 *            the id of this process's first island
+	 */
+	public void setFirstIslandId(int firstIslandId) {
+		if (firstIslandId < 0) {
+			throw new IllegalArgumentException("Tried to set a firstIslandId of " + firstIslandId + ", but "
+					+ getClass().getSimpleName() + " requires a firstIslandId of at least 0.");
+		}
+
+		this.firstIslandId = firstIslandId;
+	}
+
+	/**
+	 * @param islandCount
+	 *            the number of islands across every process, or 0 if every island is local
+	 */
+	public void setIslandCount(int islandCount) {
+		if (islandCount < 0) {
+			throw new IllegalArgumentException("Tried to set an islandCount of " + islandCount + ", but "
+					+ getClass().getSimpleName() + " requires an islandCount of at least 0.");
+		}
+
+		this.islandCount = islandCount;
+	}
+}
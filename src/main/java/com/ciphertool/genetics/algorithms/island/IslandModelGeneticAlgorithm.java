@@ -0,0 +1,450 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.island;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Required;
+import org.springframework.core.task.TaskExecutor;
+
+import com.ciphertool.genetics.algorithms.GeneticAlgorithm;
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.statistics.ExecutionStatistics;
+import com.ciphertool.genetics.entities.statistics.GenerationStatistics;
+import com.ciphertool.genetics.fitness.CachingFitnessEvaluator;
+import com.ciphertool.genetics.fitness.FitnessComparator;
+import com.ciphertool.genetics.fitness.FitnessEvaluator;
+import com.ciphertool.genetics.population.StandardPopulation;
+
+/**
+ * Evolves several islands, each a GeneticAlgorithm with its own StandardPopulation, side by side on the TaskExecutor.
+ * Every migrationInterval generations the islands stop, and each sends clones of its migrantCount fittest individuals
+ * to the islands given by the MigrationTopology, where they replace the least fit. Each island keeps its own
+ * GenerationStatistics, and finish() merges them generation by generation into a single ExecutionStatistics.
+ */
+public class IslandModelGeneticAlgorithm {
+	private Logger						log					= LoggerFactory.getLogger(getClass());
+
+	private List<GeneticAlgorithm>		islands;
+	private MigrationTopology			migrationTopology;
+	private AsyncMigrationScheduler		migrationScheduler;
+	private int							migrationInterval	= 10;
+	private int							migrantCount		= 1;
+	private TaskExecutor				taskExecutor;
+	private volatile boolean			stopRequested		= false;
+	private int							generationCount		= 0;
+	private List<ExecutionStatistics>	islandExecutionStatistics;
+	private ExecutionStatistics			executionStatistics;
+
+	/**
+	 * A concurrent task for evolving a single island for a number of generations.
+	 */
+	protected class IslandTask implements Callable<Void> {
+		private GeneticAlgorithm	island;
+		private int					generations;
+
+		public IslandTask(GeneticAlgorithm island, int generations) {
+			this.island = island;
+			this.generations = generations;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			for (int i = 0; i < generations && !stopRequested; i++) {
+				island.proceedWithNextGeneration();
+			}
+
+			return null;
+		}
+	}
+
+	public void evolveAutonomously() {
+		try {
+			initialize();
+
+			do {
+				proceedWithNextEpoch();
+			} while (!this.stopRequested && (getMaxGenerations() < 0 || this.generationCount < getMaxGenerations()));
+		} catch (InterruptedException ie) {
+			log.info(ie.getMessage());
+
+			for (GeneticAlgorithm island : islands) {
+				island.getPopulation().recoverFromBackup();
+			}
+		}
+
+		finish();
+	}
+
+	public void initialize() throws InterruptedException {
+		validateParameters();
+
+		this.generationCount = 0;
+		this.stopRequested = false;
+
+		for (GeneticAlgorithm island : islands) {
+			island.initialize();
+		}
+	}
+
+	protected void validateParameters() {
+		// With a migrationScheduler, the other islands may be in other processes
+		int minimumIslands = (migrationScheduler != null) ? 1 : 2;
+
+		if (islands == null || islands.size() < minimumIslands) {
+			throw new IllegalStateException("An island model requires at least " + minimumIslands + " islands, but "
+					+ ((islands == null) ? 0 : islands.size()) + " were configured.");
+		}
+
+		Set<FitnessEvaluator> fitnessCaches = Collections.newSetFromMap(new IdentityHashMap<FitnessEvaluator, Boolean>());
+
+		for (GeneticAlgorithm island : islands) {
+			if (!(island.getPopulation() instanceof StandardPopulation)) {
+				throw new IllegalStateException("Every island must have a StandardPopulation, but found "
+						+ ((island.getPopulation() == null) ? null : island.getPopulation().getClass().getSimpleName())
+						+ ".");
+			}
+
+			/*
+			 * Each island records the growth of its cache's counts as its own, so a cache shared between islands would
+			 * have its counts recorded once by each of them.
+			 */
+			FitnessEvaluator fitnessEvaluator = (island.getStrategy() == null) ? null
+					: island.getStrategy().getFitnessEvaluator();
+
+			if (fitnessEvaluator instanceof CachingFitnessEvaluator && !fitnessCaches.add(fitnessEvaluator)) {
+				throw new IllegalStateException("Every island must have its own " + CachingFitnessEvaluator.class
+						.getSimpleName() + ", but one is shared by more than one island.");
+			}
+		}
+	}
+
+	/**
+	 * Evolves every island concurrently until the next migration, and then migrates.
+	 * 
+	 * @throws InterruptedException
+	 *             if stop is requested during the epoch
+	 * @throws IllegalStateException
+	 *             if any island fails during the epoch
+	 */
+	public void proceedWithNextEpoch() throws InterruptedException {
+		int generations = migrationInterval;
+
+		if (getMaxGenerations() > 0) {
+			generations = Math.min(generations, getMaxGenerations() - this.generationCount);
+		}
+
+		List<FutureTask<Void>> futureTasks = new ArrayList<FutureTask<Void>>();
+		FutureTask<Void> futureTask = null;
+
+		for (GeneticAlgorithm island : islands) {
+			futureTask = new FutureTask<Void>(new IslandTask(island, generations));
+			futureTasks.add(futureTask);
+			this.taskExecutor.execute(futureTask);
+		}
+
+		Throwable failure = null;
+
+		// Every island is waited for before any failure is raised, so that none is still running afterwards
+		for (FutureTask<Void> future : futureTasks) {
+			try {
+				future.get();
+			} catch (InterruptedException ie) {
+				log.error("Caught InterruptedException while waiting for IslandTask ", ie);
+
+				requestStop();
+			} catch (ExecutionException ee) {
+				if (failure == null) {
+					failure = ee.getCause();
+				}
+			}
+		}
+
+		if (stopRequested || failure instanceof InterruptedException) {
+			throw new InterruptedException("Stop requested during island epoch");
+		}
+
+		if (failure != null) {
+			throw new IllegalStateException("An island failed during the epoch.", failure);
+		}
+
+		this.generationCount += generations;
+
+		migrate();
+	}
+
+	/**
+	 * Sends each island's emigrants to its destinations under the MigrationTopology. Every island's emigrants are
+	 * chosen before any immigrants arrive, so the order of the islands does not matter. If an AsyncMigrationScheduler
+	 * is set, the migration goes through it instead.
+	 */
+	public void migrate() {
+		int islandCount = islands.size();
+
+		if (migrantCount == 0) {
+			return;
+		}
+
+		if (migrationScheduler != null) {
+			migrationScheduler.migrate(this);
+
+			return;
+		}
+
+		List<List<Chromosome>> emigrants = new ArrayList<List<Chromosome>>(islandCount);
+
+		for (int i = 0; i < islandCount; i++) {
+			emigrants.add(selectEmigrants(i));
+		}
+
+		for (int i = 0; i < islandCount; i++) {
+			for (int destination : migrationTopology.getDestinations(i, islandCount)) {
+				immigrate(destination, emigrants.get(i));
+			}
+		}
+
+		log.info("Migrated up to " + migrantCount + " individuals from each of " + islandCount + " islands after "
+				+ generationCount + " generations using " + migrationTopology.getDisplayName() + " topology.");
+	}
+
+	/**
+	 * @param island
+	 *            the index of the island
+	 * @return the island's fittest individuals, which remain in its population
+	 */
+	public List<Chromosome> selectEmigrants(int island) {
+		StandardPopulation population = (StandardPopulation) islands.get(island).getPopulation();
+
+		// An island may still be breeding, and its population is the lock its workers hold while changing it
+		synchronized (population) {
+			int count = Math.min(migrantCount, population.size());
+			int size = population.size();
+
+			population.partitionTopIndividuals(count);
+
+			return new ArrayList<Chromosome>(population.getIndividuals().subList(size - count, size));
+		}
+	}
+
+	/**
+	 * Replaces the island's least fit individuals with clones of the immigrants.
+	 * 
+	 * @param island
+	 *            the index of the island
+	 * @param immigrants
+	 *            the individuals arriving from another island
+	 */
+	public void immigrate(int island, List<Chromosome> immigrants) {
+		StandardPopulation population = (StandardPopulation) islands.get(island).getPopulation();
+
+		synchronized (population) {
+			int count = Math.min(immigrants.size(), population.size());
+
+			// Moving all but count of the fittest to the end leaves the least fit at the front
+			population.partitionTopIndividuals(population.size() - count);
+
+			for (int i = 0; i < count; i++) {
+				population.replaceIndividual(i, immigrants.get(i).clone());
+			}
+		}
+	}
+
+	public void requestStop() {
+		this.stopRequested = true;
+
+		for (GeneticAlgorithm island : islands) {
+			island.requestStop();
+		}
+	}
+
+	/**
+	 * Finishes every island and merges their statistics.
+	 */
+	public void finish() {
+		this.islandExecutionStatistics = new ArrayList<ExecutionStatistics>(islands.size());
+
+		if (migrationScheduler != null) {
+			migrationScheduler.awaitPendingSends();
+		}
+
+		// Each island forgets its ExecutionStatistics when it finishes, so they are collected first
+		for (GeneticAlgorithm island : islands) {
+			this.islandExecutionStatistics.add(island.getExecutionStatistics());
+
+			island.finish();
+		}
+
+		// An island which was never initialized has nothing to merge
+		this.executionStatistics = this.islandExecutionStatistics.contains(null) ? null
+				: mergeStatistics(this.islandExecutionStatistics);
+	}
+
+	protected ExecutionStatistics mergeStatistics(List<ExecutionStatistics> islandStatistics) {
+		ExecutionStatistics merged = new ExecutionStatistics(islandStatistics.get(0).getStartDateTime(),
+				islands.get(0).getStrategy());
+		merged.setEndDateTime(new Date());
+
+		int populationSize = 0;
+		int generations = Integer.MAX_VALUE;
+
+		for (int i = 0; i < islandStatistics.size(); i++) {
+			if (islands.get(i).getStrategy() != null && islands.get(i).getStrategy().getPopulationSize() != null) {
+				populationSize += islands.get(i).getStrategy().getPopulationSize();
+			}
+
+			generations = Math.min(generations, islandStatistics.get(i).getGenerationStatisticsList().size());
+		}
+
+		merged.setPopulationSize(populationSize);
+
+		FitnessComparator fitnessComparator = ((StandardPopulation) islands.get(0).getPopulation())
+				.getFitnessComparator();
+		Comparator<BigDecimal> fitnessOrder = (fitnessComparator == null) ? Comparator.naturalOrder()
+				: fitnessComparator::compareFitness;
+
+		List<GenerationStatistics> generationStatistics = new ArrayList<GenerationStatistics>(islandStatistics.size());
+
+		for (int generation = 0; generation < generations; generation++) {
+			generationStatistics.clear();
+
+			for (ExecutionStatistics island : islandStatistics) {
+				generationStatistics.add(island.getGenerationStatisticsList().get(generation));
+			}
+
+			merged.addGenerationStatistics(GenerationStatistics.merge(merged, generationStatistics, fitnessOrder));
+		}
+
+		return merged;
+	}
+
+	protected int getMaxGenerations() {
+		Integer maxGenerations = islands.get(0).getStrategy().getMaxGenerations();
+
+		return (maxGenerations == null) ? -1 : maxGenerations;
+	}
+
+	/**
+	 * @return the number of generations each island has evolved
+	 */
+	public int getGenerationCount() {
+		return generationCount;
+	}
+
+	/**
+	 * @return the merged ExecutionStatistics of the last finished run
+	 */
+	public ExecutionStatistics getExecutionStatistics() {
+		return executionStatistics;
+	}
+
+	/**
+	 * @return the ExecutionStatistics of each island from the last finished run
+	 */
+	public List<ExecutionStatistics> getIslandExecutionStatistics() {
+		return islandExecutionStatistics;
+	}
+
+	/**
+	 * @return the islands
+	 */
+	public List<GeneticAlgorithm> getIslands() {
+		return islands;
+	}
+
+	/**
+	 * @param islands
+	 *            the islands to set, each with its own StandardPopulation
+	 */
+	@Required
+	public void setIslands(List<GeneticAlgorithm> islands) {
+		this.islands = islands;
+	}
+
+	/**
+	 * @param migrationTopology
+	 *            the migrationTopology to set
+	 */
+	@Required
+	public void setMigrationTopology(MigrationTopology migrationTopology) {
+		this.migrationTopology = migrationTopology;
+	}
+
+	/**
+	 * @return the migrationTopology
+	 */
+	public MigrationTopology getMigrationTopology() {
+		return migrationTopology;
+	}
+
+	/**
+	 * @param migrationScheduler
+	 *            the AsyncMigrationScheduler to migrate through, for islands spread across processes
+	 */
+	public void setMigrationScheduler(AsyncMigrationScheduler migrationScheduler) {
+		this.migrationScheduler = migrationScheduler;
+	}
+
+	/**
+	 * @param migrationInterval
+	 *            the number of generations between migrations
+	 */
+	public void setMigrationInterval(int migrationInterval) {
+		if (migrationInterval < 1) {
+			throw new IllegalArgumentException("Tried to set a migrationInterval of " + migrationInterval + ", but "
+					+ getClass().getSimpleName() + " requires a migrationInterval of at least 1.");
+		}
+
+		this.migrationInterval = migrationInterval;
+	}
+
+	/**
+	 * @param migrantCount
+	 *            the number of individuals each island sends to each of its destinations
+	 */
+	public void setMigrantCount(int migrantCount) {
+		if (migrantCount < 0) {
+			throw new IllegalArgumentException("Tried to set a migrantCount of " + migrantCount + ", but "
+					+ getClass().getSimpleName() + " requires a migrantCount of at least 0.");
+		}
+
+		this.migrantCount = migrantCount;
+	}
+
+	/**
+	 * @param taskExecutor
+	 *            the taskExecutor to set, which should have at least one thread per island
+	 */
+	@Required
+	public void setTaskExecutor(TaskExecutor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+}
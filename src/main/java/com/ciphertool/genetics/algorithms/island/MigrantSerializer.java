@@ -0,0 +1,45 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.island;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.ciphertool.genetics.entities.Chromosome;
+
+public interface MigrantSerializer {
+	/**
+	 * @param migrants
+	 *            the Chromosomes to serialize
+	 * @return the serialized batch
+	 * @throws IOException
+	 *             if the Chromosomes cannot be serialized
+	 */
+	public byte[] serialize(List<Chromosome> migrants) throws IOException;
+
+	/**
+	 * @param batch
+	 *            a batch produced by {@link #serialize(List)}
+	 * @return the deserialized Chromosomes
+	 * @throws IOException
+	 *             if the batch cannot be deserialized
+	 */
+	public List<Chromosome> deserialize(byte[] batch) throws IOException;
+}
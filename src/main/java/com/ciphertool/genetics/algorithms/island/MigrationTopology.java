@@ -0,0 +1,33 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.island;
+
+import com.ciphertool.genetics.Selectable;
+
+public interface MigrationTopology extends Selectable {
+	/**
+	 * @param island
+	 *            the index of the island sending emigrants
+	 * @param islandCount
+	 *            the number of islands, which is at least 2
+	 * @return the indices of the islands which receive the given island's emigrants
+	 */
+	public int[] getDestinations(int island, int islandCount);
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.island;
+
+import java.io.IOException;
+
+/**
+ * Carries batches of serialized migrants between islands, which may live in other processes or on other hosts. Islands
+ * are addressed by ids which are unique across every process taking part.
+ */
+public interface MigrationTransport {
+	/**
+	 * Sends a batch without waiting for it to be received.
+	 * 
+	 * @param destinationIsland
+	 *            the id of the island to send the batch to
+	 * @param batch
+	 *            the serialized migrants
+	 * @throws IOException
+	 *             if the batch could not be sent
+	 */
+	public void send(int destinationIsland, byte[] batch) throws IOException;
+
+	/**
+	 * Takes the next batch which has arrived for an island, without waiting for one to arrive.
+	 * 
+	 * @param island
+	 *            the id of the receiving island
+	 * @return the next batch, or null if none has arrived
+	 * @throws IOException
+	 *             if a batch could not be received
+	 */
+	public byte[] receive(int island) throws IOException;
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.island.impl;
+
+import com.ciphertool.genetics.algorithms.island.MigrationTopology;
+
+/**
+ * Each island sends its emigrants to every other island, which spreads good individuals fastest at the cost of
+ * diversity.
+ */
+public class FullyConnectedTopology implements MigrationTopology {
+	@Override
+	public int[] getDestinations(int island, int islandCount) {
+		int[] destinations = new int[islandCount - 1];
+
+		for (int i = 0, j = 0; i < islandCount; i++) {
+			if (i != island) {
+				destinations[j++] = i;
+			}
+		}
+
+		return destinations;
+	}
+
+	@Override
+	public String getDisplayName() {
+		return "Fully Connected";
+	}
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.island.impl;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import com.ciphertool.genetics.algorithms.island.MigrationTransport;
+
+/**
+ * A MigrationTransport which delivers batches through in-memory queues, standing in for a network transport when
+ * every island lives in the same JVM, such as in tests. Batches are copied on the way in so that senders and
+ * receivers never share an array.
+ */
+public class LoopbackMigrationTransport implements MigrationTransport {
+	private final ConcurrentMap<Integer, Queue<byte[]>> mailboxes = new ConcurrentHashMap<Integer, Queue<byte[]>>();
+
+	@Override
+	public void send(int destinationIsland, byte[] batch) {
+		mailboxes.computeIfAbsent(destinationIsland, island -> new ConcurrentLinkedQueue<byte[]>()).offer(batch.clone());
+	}
+
+	@Override
+	public byte[] receive(int island) {
+		Queue<byte[]> mailbox = mailboxes.get(island);
+
+		return (mailbox == null) ? null : mailbox.poll();
+	}
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.island.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.ciphertool.genetics.algorithms.island.MigrationTopology;
+
+/**
+ * Each island sends its emigrants to one other island chosen at random on every migration.
+ */
+public class RandomTopology implements MigrationTopology {
+	@Override
+	public int[] getDestinations(int island, int islandCount) {
+		int destination = ThreadLocalRandom.current().nextInt(islandCount - 1);
+
+		// Skip over the island itself
+		return new int[] { (destination >= island) ? destination + 1 : destination };
+	}
+
+	@Override
+	public String getDisplayName() {
+		return "Random";
+	}
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.island.impl;
+
+import com.ciphertool.genetics.algorithms.island.MigrationTopology;
+
+/**
+ * Each island sends its emigrants to the next, and the last to the first, so good individuals spread slowly and the
+ * islands stay diverse for longer.
+ */
+public class RingTopology implements MigrationTopology {
+	@Override
+	public int[] getDestinations(int island, int islandCount) {
+		return new int[] { (island + 1) % islandCount };
+	}
+
+	@Override
+	public String getDisplayName() {
+		return "Ring";
+	}
+}
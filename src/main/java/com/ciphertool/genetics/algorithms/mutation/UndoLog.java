@@ -0,0 +1,185 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.mutation;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.entities.KeyedChromosome;
+
+/**
+ * Records the Genes replaced during a trial mutation so that they can be rolled back if the mutation does not improve
+ * fitness. The key set of the Chromosome is captured once per mutation, so entries are recorded against primitive key
+ * indices, and all buffers are reused between attempts and Chromosomes. An UndoLog is not thread-safe, and is meant to
+ * be held per thread.
+ */
+public class UndoLog {
+	private Object[]			keys			= new Object[0];
+	private int					keyCount;
+	private int[]				order			= new int[0];
+	private int[]				indices			= new int[0];
+	private Gene[]				genes			= new Gene[0];
+	private int					size;
+
+	private final List<Object>	replacedKeys	= new AbstractList<Object>() {
+		@Override
+		public Object get(int index) {
+			return keys[indices[index]];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	};
+
+	/**
+	 * Captures the keys of the Chromosome about to be mutated and discards any recorded entries.
+	 * 
+	 * @param chromosome
+	 *            the Chromosome to be mutated
+	 */
+	public void reset(KeyedChromosome<Object> chromosome) {
+		clear();
+
+		keyCount = chromosome.getGenes().size();
+
+		if (keys.length < keyCount) {
+			keys = new Object[keyCount];
+			order = new int[keyCount];
+			indices = new int[keyCount];
+			genes = new Gene[keyCount];
+		}
+
+		int i = 0;
+		for (Object key : chromosome.getGenes().keySet()) {
+			keys[i] = key;
+			order[i] = i;
+			i++;
+		}
+	}
+
+	/**
+	 * @return the number of keys captured by the last reset
+	 */
+	public int getKeyCount() {
+		return keyCount;
+	}
+
+	/**
+	 * @param index
+	 *            the index of the key
+	 * @return the key at the given index
+	 */
+	public Object getKey(int index) {
+		return keys[index];
+	}
+
+	/**
+	 * Chooses distinct key indices uniformly at random with a partial Fisher-Yates shuffle of a reused buffer.
+	 * 
+	 * @param count
+	 *            the number of indices to choose, which must not exceed the key count
+	 * @return a buffer whose first count entries are the chosen indices, and which is only valid until the next call
+	 */
+	public int[] chooseDistinctIndices(int count) {
+		int swapIndex;
+		int temp;
+
+		for (int i = 0; i < count; i++) {
+			swapIndex = i + (int) (ThreadLocalRandom.current().nextDouble() * (keyCount - i));
+
+			temp = order[i];
+			order[i] = order[swapIndex];
+			order[swapIndex] = temp;
+		}
+
+		return order;
+	}
+
+	/**
+	 * Replaces the Gene at the given key index, recording the original so that it can be rolled back.
+	 * 
+	 * @param chromosome
+	 *            the Chromosome being mutated
+	 * @param index
+	 *            the index of the key whose Gene to replace
+	 * @param newGene
+	 *            the replacement Gene
+	 */
+	public void replaceGene(KeyedChromosome<Object> chromosome, int index, Gene newGene) {
+		Object key = keys[index];
+
+		if (size == indices.length) {
+			indices = Arrays.copyOf(indices, Math.max(1, size * 2));
+			genes = Arrays.copyOf(genes, Math.max(1, size * 2));
+		}
+
+		indices[size] = index;
+		genes[size] = chromosome.getGenes().get(key);
+		size++;
+
+		KeyedChromosome.replaceGene(chromosome, key, newGene);
+	}
+
+	/**
+	 * @return whether any replacements have been recorded since the last rollback or clear
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return a view of the keys whose Genes have been replaced since the last rollback or clear
+	 */
+	public List<Object> getReplacedKeys() {
+		return replacedKeys;
+	}
+
+	/**
+	 * Restores the recorded Genes in reverse order and discards the entries.
+	 * 
+	 * @param chromosome
+	 *            the Chromosome being mutated
+	 */
+	public void rollback(KeyedChromosome<Object> chromosome) {
+		for (int i = size - 1; i >= 0; i--) {
+			KeyedChromosome.replaceGene(chromosome, keys[indices[i]], genes[i]);
+
+			genes[i] = null;
+		}
+
+		size = 0;
+	}
+
+	/**
+	 * Discards the recorded entries and captured keys, keeping the buffers but not the references they held.
+	 */
+	public void clear() {
+		Arrays.fill(genes, 0, size, null);
+		Arrays.fill(keys, 0, keyCount, null);
+
+		size = 0;
+		keyCount = 0;
+	}
+}
@@ -20,11 +20,6 @@
 package com.ciphertool.genetics.algorithms.mutation.impl;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +27,7 @@ import org.springframework.beans.factory.annotation.Required;
 
 import com.ciphertool.genetics.algorithms.mutation.EvaluatedMutationAlgorithm;
 import com.ciphertool.genetics.algorithms.mutation.MutationHelper;
+import com.ciphertool.genetics.algorithms.mutation.UndoLog;
 import com.ciphertool.genetics.algorithms.mutation.UniformMutationAlgorithm;
 import com.ciphertool.genetics.dao.GeneDao;
 import com.ciphertool.genetics.entities.Gene;
@@ -40,80 +36,61 @@ import com.ciphertool.genetics.fitness.FitnessEvaluator;
 
 public class MultipleGuaranteedFitnessMutationAlgorithm implements UniformMutationAlgorithm<KeyedChromosome<Object>>,
 		EvaluatedMutationAlgorithm<KeyedChromosome<Object>> {
-	private Logger				log	= LoggerFactory.getLogger(getClass());
+	private Logger						log			= LoggerFactory.getLogger(getClass());
 
-	private int					maxAttempts;
+	private int							maxAttempts;
 
-	private GeneDao				geneDao;
+	private final ThreadLocal<UndoLog>	undoLogs	= ThreadLocal.withInitial(UndoLog::new);
 
-	private MutationHelper		mutationHelper;
+	private GeneDao						geneDao;
 
-	private FitnessEvaluator	fitnessEvaluator;
+	private MutationHelper				mutationHelper;
+
+	private FitnessEvaluator			fitnessEvaluator;
 
 	@Override
 	public boolean mutateChromosome(KeyedChromosome<Object> chromosome) {
 		BigDecimal originalFitness = chromosome.getFitness();
 
-		List<Object> availableKeys;
-		Map<Object, Gene> replaced = new HashMap<Object, Gene>();
-		List<Object> randomKeys = new ArrayList<Object>();
+		UndoLog undoLog = undoLogs.get();
+		undoLog.reset(chromosome);
+
+		int[] randomIndices;
 		int numMutations;
 		Gene originalGene;
 		Gene replacement;
 
-		boolean mutated;
 		int attempts = 0;
 		for (; attempts < maxAttempts; attempts++) {
-			mutated = false;
-
 			/*
 			 * Choose a random number of mutations constrained by the configurable max and the total number of genes
 			 */
-			numMutations = mutationHelper.getNumMutations(chromosome.getGenes().size());
+			numMutations = mutationHelper.getNumMutations(undoLog.getKeyCount());
 
-			availableKeys = new ArrayList<Object>(chromosome.getGenes().keySet());
-			replaced.clear();
-			randomKeys.clear();
+			// We don't want to reuse an index, so the indices are drawn without replacement
+			randomIndices = undoLog.chooseDistinctIndices(numMutations);
 
 			for (int i = 0; i < numMutations; i++) {
-				/*
-				 * We don't want to reuse an index, so we get one from the List of indices which are still available
-				 */
-				int randomIndex = (int) (ThreadLocalRandom.current().nextDouble() * availableKeys.size());
-
-				randomKeys.add(availableKeys.get(randomIndex));
-
-				availableKeys.remove(randomIndex);
-			}
-
-			for (Object key : randomKeys) {
-				originalGene = chromosome.getGenes().get(key);
+				originalGene = chromosome.getGenes().get(undoLog.getKey(randomIndices[i]));
 
 				// Replace that map value with a randomly generated Gene
 				replacement = geneDao.findRandomGene(chromosome);
 
 				if (!replacement.equals(originalGene)) {
-					replaced.put(key, chromosome.getGenes().get(key));
-
-					chromosome.replaceGene(key, replacement);
-
-					mutated = true;
+					undoLog.replaceGene(chromosome, randomIndices[i], replacement);
 				}
 			}
 
-			if (mutated) {
-				BigDecimal fitness = fitnessEvaluator.evaluate(chromosome);
+			if (!undoLog.isEmpty()) {
+				double previousFitness = originalFitness.doubleValue();
 
 				// Test if the replacement is better, otherwise continue looping
-				if (fitness.compareTo(originalFitness) > 0) {
-					chromosome.setFitness(fitness);
-
+				if (FitnessEvaluator.evaluateAndSetFitness(fitnessEvaluator, chromosome, undoLog.getReplacedKeys(),
+						previousFitness) > previousFitness) {
 					break;
 				} else {
 					// revert the mutations
-					for (Object key : replaced.keySet()) {
-						chromosome.replaceGene(key, replaced.get(key));
-					}
+					undoLog.rollback(chromosome);
 
 					// Make sure it doesn't get re-evaluated
 					chromosome.setFitness(originalFitness);
@@ -121,6 +98,8 @@ public class MultipleGuaranteedFitnessMutationAlgorithm implements UniformMutati
 			}
 		}
 
+		undoLog.clear();
+
 		if (attempts >= maxAttempts) {
 			log.debug("Unable to find guaranteed better fitness via mutation after " + attempts
 					+ " attempts.  Returning clone of parent.");
@@ -31,7 +31,6 @@ import com.ciphertool.genetics.algorithms.mutation.EvaluatedMutationAlgorithm;
 import com.ciphertool.genetics.algorithms.mutation.MutationHelper;
 import com.ciphertool.genetics.algorithms.mutation.UniformMutationAlgorithm;
 import com.ciphertool.genetics.dao.GeneDao;
-import com.ciphertool.genetics.entities.Chromosome;
 import com.ciphertool.genetics.entities.Gene;
 import com.ciphertool.genetics.entities.KeyedChromosome;
 import com.ciphertool.genetics.fitness.FitnessEvaluator;
@@ -44,7 +43,6 @@ public class MultipleMutationAlgorithm implements UniformMutationAlgorithm<Keyed
 
 	@Override
 	public boolean mutateChromosome(KeyedChromosome<Object> chromosome) {
-		Chromosome original = chromosome.clone();
 		int numMutations;
 
 		/*
@@ -65,12 +63,19 @@ public class MultipleMutationAlgorithm implements UniformMutationAlgorithm<Keyed
 			availableKeys.remove(randomIndex);
 		}
 
-		for (Object key : originalGenes.keySet()) {
+		boolean mutated = false;
+		Gene replacement;
+
+		for (Map.Entry<Object, Gene> entry : originalGenes.entrySet()) {
 			// Replace that map value with a randomly generated Gene
-			chromosome.replaceGene(key, geneDao.findRandomGene(chromosome));
+			replacement = geneDao.findRandomGene(chromosome);
+
+			mutated |= !replacement.equals(entry.getValue());
+
+			KeyedChromosome.replaceGene(chromosome, entry.getKey(), replacement);
 		}
 
-		return !original.equals(chromosome);
+		return mutated;
 	}
 
 	@Override
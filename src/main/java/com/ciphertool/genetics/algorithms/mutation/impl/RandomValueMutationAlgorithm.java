@@ -30,7 +30,7 @@ import org.springframework.beans.factory.annotation.Required;
 
 import com.ciphertool.genetics.algorithms.mutation.NonUniformMutationAlgorithm;
 import com.ciphertool.genetics.dao.GeneDao;
-import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.Gene;
 import com.ciphertool.genetics.entities.KeyedChromosome;
 
 public class RandomValueMutationAlgorithm implements NonUniformMutationAlgorithm<KeyedChromosome<Object>> {
@@ -45,8 +45,6 @@ public class RandomValueMutationAlgorithm implements NonUniformMutationAlgorithm
 			throw new IllegalStateException("The maxMutationsPerChromosome cannot be null.");
 		}
 
-		Chromosome original = chromosome.clone();
-
 		/*
 		 * Choose a random number of mutations constrained by the configurable max and the total number of genes
 		 */
@@ -60,12 +58,14 @@ public class RandomValueMutationAlgorithm implements NonUniformMutationAlgorithm
 			modifiableKeys.add(key);
 		}
 
+		boolean mutated = false;
+
 		for (int i = 0; i < numMutations; i++) {
 			// Keep track of the mutated keys
-			mutateRandomGene(chromosome, modifiableKeys);
+			mutated |= mutateRandomGene(chromosome, modifiableKeys);
 		}
 
-		return !original.equals(chromosome);
+		return mutated;
 	}
 
 	/**
@@ -75,12 +75,13 @@ public class RandomValueMutationAlgorithm implements NonUniformMutationAlgorithm
 	 *            the Chromosome to mutate
 	 * @param availableIndices
 	 *            the Set of available indices to mutate
+	 * @return whether the replacement Gene differs from the one it replaced
 	 */
-	protected void mutateRandomGene(KeyedChromosome<Object> chromosome, Set<Object> availableIndices) {
+	protected boolean mutateRandomGene(KeyedChromosome<Object> chromosome, Set<Object> availableIndices) {
 		if (availableIndices == null || availableIndices.isEmpty()) {
 			log.warn("List of available indices is null or empty.  Unable to find a Gene to mutate.  Returning null.");
 
-			return;
+			return false;
 		}
 
 		Random generator = new Random();
@@ -90,10 +91,15 @@ public class RandomValueMutationAlgorithm implements NonUniformMutationAlgorithm
 		Object randomKey = keys[generator.nextInt(keys.length)];
 
 		// Replace that map value with a randomly generated Gene
-		chromosome.replaceGene((Object) randomKey, geneDao.findRandomGene(chromosome));
+		Gene replacement = geneDao.findRandomGene(chromosome);
+		boolean changed = !replacement.equals(chromosome.getGenes().get(randomKey));
+
+		KeyedChromosome.replaceGene(chromosome, (Object) randomKey, replacement);
 
 		// Remove the key so that it is not used for mutation again
 		availableIndices.remove(randomKey);
+
+		return changed;
 	}
 
 	/**
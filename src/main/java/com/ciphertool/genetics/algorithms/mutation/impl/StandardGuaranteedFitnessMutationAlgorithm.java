@@ -20,9 +20,6 @@
 package com.ciphertool.genetics.algorithms.mutation.impl;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 
 import org.slf4j.Logger;
@@ -30,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Required;
 
 import com.ciphertool.genetics.algorithms.mutation.EvaluatedMutationAlgorithm;
+import com.ciphertool.genetics.algorithms.mutation.UndoLog;
 import com.ciphertool.genetics.algorithms.mutation.UniformMutationAlgorithm;
 import com.ciphertool.genetics.dao.GeneDao;
 import com.ciphertool.genetics.entities.Gene;
@@ -38,15 +36,17 @@ import com.ciphertool.genetics.fitness.FitnessEvaluator;
 
 public class StandardGuaranteedFitnessMutationAlgorithm implements UniformMutationAlgorithm<KeyedChromosome<Object>>,
 		EvaluatedMutationAlgorithm<KeyedChromosome<Object>> {
-	private Logger				log			= LoggerFactory.getLogger(getClass());
+	private Logger						log			= LoggerFactory.getLogger(getClass());
 
-	private int					maxAttempts	= 100;
+	private int							maxAttempts	= 100;
 
-	private Double				mutationRate;
+	private final ThreadLocal<UndoLog>	undoLogs	= ThreadLocal.withInitial(UndoLog::new);
 
-	private GeneDao				geneDao;
+	private Double						mutationRate;
 
-	private FitnessEvaluator	fitnessEvaluator;
+	private GeneDao						geneDao;
+
+	private FitnessEvaluator			fitnessEvaluator;
 
 	@Override
 	public boolean mutateChromosome(KeyedChromosome<Object> chromosome) {
@@ -54,49 +54,39 @@ public class StandardGuaranteedFitnessMutationAlgorithm implements UniformMutati
 			throw new IllegalStateException("The mutationRate cannot be null.");
 		}
 
-		Set<Object> keys = chromosome.getGenes().keySet();
-		Map<Object, Gene> replaced = new HashMap<Object, Gene>();
+		UndoLog undoLog = undoLogs.get();
+		undoLog.reset(chromosome);
+
 		BigDecimal originalFitness = chromosome.getFitness();
 		Gene originalGene;
 		Gene replacement;
 
-		boolean mutated;
 		int attempts = 0;
 		for (; attempts < maxAttempts; attempts++) {
-			mutated = false;
-			replaced.clear();
-
-			for (Object key : keys) {
+			for (int i = 0; i < undoLog.getKeyCount(); i++) {
 				if (ThreadLocalRandom.current().nextDouble() <= mutationRate) {
 
-					originalGene = chromosome.getGenes().get(key);
+					originalGene = chromosome.getGenes().get(undoLog.getKey(i));
 
 					// Replace that map value with a randomly generated Gene
 					replacement = geneDao.findRandomGene(chromosome);
 
 					if (!replacement.equals(originalGene)) {
-						replaced.put(key, originalGene);
-
-						chromosome.replaceGene(key, replacement);
-
-						mutated = true;
+						undoLog.replaceGene(chromosome, i, replacement);
 					}
 				}
 			}
 
-			if (mutated) {
-				BigDecimal fitness = fitnessEvaluator.evaluate(chromosome);
+			if (!undoLog.isEmpty()) {
+				double previousFitness = originalFitness.doubleValue();
 
 				// Test if the replacement is better, otherwise continue looping
-				if (fitness.compareTo(originalFitness) > 0) {
-					chromosome.setFitness(fitness);
-
+				if (FitnessEvaluator.evaluateAndSetFitness(fitnessEvaluator, chromosome, undoLog.getReplacedKeys(),
+						previousFitness) > previousFitness) {
 					break;
 				} else {
 					// Revert the mutation(s)
-					for (Object key : replaced.keySet()) {
-						chromosome.replaceGene(key, replaced.get(key));
-					}
+					undoLog.rollback(chromosome);
 
 					// Make sure it doesn't get re-evaluated
 					chromosome.setFitness(originalFitness);
@@ -104,6 +94,8 @@ public class StandardGuaranteedFitnessMutationAlgorithm implements UniformMutati
 			}
 		}
 
+		undoLog.clear();
+
 		if (attempts >= maxAttempts) {
 			log.debug("Unable to find guaranteed better fitness via mutation after " + maxAttempts
 					+ " attempts.  Returning clone of parent.");
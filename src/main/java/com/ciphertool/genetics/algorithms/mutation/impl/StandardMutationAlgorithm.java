@@ -26,7 +26,7 @@ import org.springframework.beans.factory.annotation.Required;
 
 import com.ciphertool.genetics.algorithms.mutation.UniformMutationAlgorithm;
 import com.ciphertool.genetics.dao.GeneDao;
-import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.Gene;
 import com.ciphertool.genetics.entities.KeyedChromosome;
 
 public class StandardMutationAlgorithm implements UniformMutationAlgorithm<KeyedChromosome<Object>> {
@@ -40,17 +40,23 @@ public class StandardMutationAlgorithm implements UniformMutationAlgorithm<Keyed
 			throw new IllegalStateException("The mutationRate cannot be null.");
 		}
 
-		Chromosome original = chromosome.clone();
 		Set<Object> keys = chromosome.getGenes().keySet();
+		boolean mutated = false;
+		Gene replacement;
 
 		for (Object key : keys) {
 			if (ThreadLocalRandom.current().nextDouble() <= mutationRate) {
 				// Replace that map value with a randomly generated Gene
-				chromosome.replaceGene(key, geneDao.findRandomGene(chromosome));
+				replacement = geneDao.findRandomGene(chromosome);
+
+				// Each key is visited once, so comparing against the Gene being replaced is enough to detect a change
+				mutated |= !replacement.equals(chromosome.getGenes().get(key));
+
+				KeyedChromosome.replaceGene(chromosome, key, replacement);
 			}
 		}
 
-		return !original.equals(chromosome);
+		return mutated;
 	}
 
 	@Override
@@ -1,9 +1,7 @@
 package com.ciphertool.genetics.algorithms.selection;
 
-import java.math.BigDecimal;
-
 public class BinaryRouletteNode {
-	private BigDecimal			value;
+	private double				value;
 	private int					index;
 	private BinaryRouletteNode	lessThan;
 	private BinaryRouletteNode	greaterThan;
@@ -15,7 +13,7 @@ public class BinaryRouletteNode {
 	 * @param value
 	 *            the value to set
 	 */
-	public BinaryRouletteNode(int index, BigDecimal value) {
+	public BinaryRouletteNode(int index, double value) {
 		this.index = index;
 		this.value = value;
 	}
@@ -23,7 +21,7 @@ public class BinaryRouletteNode {
 	/**
 	 * @return the value
 	 */
-	public BigDecimal getValue() {
+	public double getValue() {
 		return value;
 	}
 
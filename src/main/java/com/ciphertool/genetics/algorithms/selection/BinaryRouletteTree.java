@@ -1,7 +1,5 @@
 package com.ciphertool.genetics.algorithms.selection;
 
-import java.math.BigDecimal;
-
 public class BinaryRouletteTree {
 	private BinaryRouletteNode root;
 
@@ -19,7 +17,7 @@ public class BinaryRouletteTree {
 	}
 
 	protected void insertNode(BinaryRouletteNode parent, BinaryRouletteNode toInsert) {
-		if (toInsert.getValue().compareTo(parent.getValue()) < 0) {
+		if (toInsert.getValue() < parent.getValue()) {
 			if (parent.getLessThan() == null) {
 				parent.setLessThan(toInsert);
 
@@ -40,17 +38,17 @@ public class BinaryRouletteTree {
 		insertNode(parent.getGreaterThan(), toInsert);
 	}
 
-	public BinaryRouletteNode find(BigDecimal value) {
+	public BinaryRouletteNode find(double value) {
 		return findNode(this.root, value, null);
 	}
 
-	protected BinaryRouletteNode findNode(BinaryRouletteNode current, BigDecimal value, BinaryRouletteNode closestSoFar) {
-		if (value.compareTo(current.getValue()) <= 0) {
+	protected BinaryRouletteNode findNode(BinaryRouletteNode current, double value, BinaryRouletteNode closestSoFar) {
+		if (value <= current.getValue()) {
 			if (current.getLessThan() == null) {
 				return current;
 			}
 
-			if (value.compareTo(current.getLessThan().getValue()) > 0) {
+			if (value > current.getLessThan().getValue()) {
 				closestSoFar = current;
 			}
 
@@ -0,0 +1,172 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.ciphertool.genetics.algorithms.selection.modes;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ciphertool.genetics.entities.Chromosome;
+
+/**
+ * Fitness-proportionate selection using Vose's alias method. Indexing is O(n) and each selection is O(1) and
+ * allocation-free, as opposed to the O(log n) walk of the BigDecimal-based BinaryRouletteTree.
+ */
+public class AliasRouletteSelector implements Selector {
+	private Logger				log	= LoggerFactory.getLogger(getClass());
+
+	private List<Chromosome>	indexedIndividuals;
+	private double[]			probabilities;
+	private int[]				aliases;
+
+	@Override
+	public synchronized void reIndex(List<Chromosome> individuals) {
+		int size = individuals.size();
+		double[] weights = new double[size];
+		double totalFitness = 0.0;
+
+		for (int i = 0; i < size; i++) {
+			// Individuals with a non-positive fitness can never be selected
+			weights[i] = (individuals.get(i) == null) ? 0.0 : Math.max(0.0, individuals.get(i).getFitnessAsDouble());
+
+			totalFitness += weights[i];
+		}
+
+		if (totalFitness <= 0.0) {
+			this.indexedIndividuals = null;
+			this.probabilities = null;
+			this.aliases = null;
+
+			return;
+		}
+
+		double[] probabilities = new double[size];
+		int[] aliases = new int[size];
+
+		// Work lists of the indices whose scaled weight is below and above the average, used as stacks
+		int[] small = new int[size];
+		int[] large = new int[size];
+		int smallCount = 0;
+		int largeCount = 0;
+
+		for (int i = 0; i < size; i++) {
+			weights[i] = weights[i] * size / totalFitness;
+
+			if (weights[i] < 1.0) {
+				small[smallCount++] = i;
+			} else {
+				large[largeCount++] = i;
+			}
+		}
+
+		int less;
+		int more;
+		while (smallCount > 0 && largeCount > 0) {
+			less = small[--smallCount];
+			more = large[--largeCount];
+
+			probabilities[less] = weights[less];
+			aliases[less] = more;
+
+			weights[more] = (weights[more] + weights[less]) - 1.0;
+
+			if (weights[more] < 1.0) {
+				small[smallCount++] = more;
+			} else {
+				large[largeCount++] = more;
+			}
+		}
+
+		// Whatever remains is only short of 1.0 due to floating point error
+		while (largeCount > 0) {
+			probabilities[large[--largeCount]] = 1.0;
+		}
+
+		while (smallCount > 0) {
+			probabilities[small[--smallCount]] = 1.0;
+		}
+
+		this.indexedIndividuals = individuals;
+		this.probabilities = probabilities;
+		this.aliases = aliases;
+	}
+
+	@Override
+	public int getNextIndex(List<Chromosome> individuals, BigDecimal totalFitness) {
+		return getNextIndex(individuals, (totalFitness == null) ? 0.0 : totalFitness.doubleValue());
+	}
+
+	@Override
+	public int getNextIndex(List<Chromosome> individuals, double totalFitness) {
+		if (individuals == null || individuals.isEmpty()) {
+			log.warn("Attempted to select an individual from a null or empty population.  Unable to continue.");
+
+			return -1;
+		}
+
+		List<Chromosome> indexedIndividuals = this.indexedIndividuals;
+		double[] probabilities = this.probabilities;
+		int[] aliases = this.aliases;
+
+		// A neighborhood or sub-list may have the same size as the population, so only the indexed list qualifies
+		if (individuals != indexedIndividuals || probabilities == null || probabilities.length != individuals.size()) {
+			return spinWithoutIndex(individuals, totalFitness);
+		}
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int column = random.nextInt(probabilities.length);
+
+		return (random.nextDouble() < probabilities[column]) ? column : aliases[column];
+	}
+
+	protected static int spinWithoutIndex(List<Chromosome> individuals, double totalFitness) {
+		if (totalFitness <= 0.0) {
+			// If all the individuals have zero fitness, then pick one at random
+			return ThreadLocalRandom.current().nextInt(individuals.size());
+		}
+
+		double randomIndex = ThreadLocalRandom.current().nextDouble() * totalFitness;
+		double cumulativeFitness = 0.0;
+		int lastSelectable = -1;
+
+		for (int i = 0; i < individuals.size(); i++) {
+			if (individuals.get(i).getFitnessAsDouble() <= 0.0) {
+				continue;
+			}
+
+			cumulativeFitness += individuals.get(i).getFitnessAsDouble();
+			lastSelectable = i;
+
+			if (randomIndex < cumulativeFitness) {
+				return i;
+			}
+		}
+
+		// Guards against the supplied total being slightly larger than the actual sum
+		return (lastSelectable >= 0) ? lastSelectable : ThreadLocalRandom.current().nextInt(individuals.size());
+	}
+
+	@Override
+	public String getDisplayName() {
+		return "Alias Roulette";
+	}
+}
@@ -36,26 +36,31 @@ public class AlphaSelector implements Selector {
 
 	@Override
 	public int getNextIndex(List<Chromosome> individuals, BigDecimal totalFitness) {
+		return getNextIndex(individuals, (totalFitness == null) ? 0.0 : totalFitness.doubleValue());
+	}
+
+	@Override
+	public int getNextIndex(List<Chromosome> individuals, double totalFitness) {
 		if (individuals == null || individuals.isEmpty()) {
 			log.warn("Attempted to select an individual from a null or empty population.  Unable to continue.");
 
 			return -1;
 		}
 
-		Chromosome bestFitIndividual = null;
-		Integer bestFitIndex = null;
+		double bestFitness = 0.0;
+		int bestFitIndex = -1;
 
-		Chromosome currentIndividual = null;
+		double currentFitness;
 		for (int i = 0; i < individuals.size(); i++) {
-			currentIndividual = individuals.get(i);
+			currentFitness = individuals.get(i).getFitnessAsDouble();
 
-			if (bestFitIndex == null || currentIndividual.getFitness().compareTo(bestFitIndividual.getFitness()) > 0) {
-				bestFitIndividual = currentIndividual;
+			if (bestFitIndex == -1 || currentFitness > bestFitness) {
+				bestFitness = currentFitness;
 				bestFitIndex = i;
 			}
 		}
 
-		return (bestFitIndex != null) ? bestFitIndex : -1;
+		return bestFitIndex;
 	}
 
 	@Override
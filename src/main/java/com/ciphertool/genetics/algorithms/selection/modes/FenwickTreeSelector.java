@@ -0,0 +1,179 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.ciphertool.genetics.algorithms.selection.modes;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ciphertool.genetics.entities.Chromosome;
+
+/**
+ * Fitness-proportionate selection backed by a Fenwick (binary indexed) tree of primitive fitness values. Both
+ * selection and single-individual updates are O(log n), which makes this suitable for steady-state runs where only a
+ * few individuals change between selections.
+ */
+public class FenwickTreeSelector implements IncrementalSelector {
+	private Logger				log		= LoggerFactory.getLogger(getClass());
+
+	private final ReadWriteLock	lock	= new ReentrantReadWriteLock();
+
+	private List<Chromosome>	indexedIndividuals;
+	private double[]			weights;
+	private double[]			tree;
+	private int					highestPowerOfTwo;
+
+	@Override
+	public void reIndex(List<Chromosome> individuals) {
+		int size = individuals.size();
+		double[] weights = new double[size];
+		double[] tree = new double[size + 1];
+
+		for (int i = 0; i < size; i++) {
+			weights[i] = weightOf(individuals.get(i));
+
+			tree[i + 1] += weights[i];
+
+			// Linear-time construction: push each partial sum up to its immediate parent
+			int parent = (i + 1) + ((i + 1) & -(i + 1));
+			if (parent <= size) {
+				tree[parent] += tree[i + 1];
+			}
+		}
+
+		lock.writeLock().lock();
+
+		try {
+			this.indexedIndividuals = individuals;
+			this.weights = weights;
+			this.tree = tree;
+			this.highestPowerOfTwo = (size == 0) ? 0 : Integer.highestOneBit(size);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void update(int index, double fitness) {
+		lock.writeLock().lock();
+
+		try {
+			if (this.weights == null || index < 0 || index >= this.weights.length) {
+				log.warn("Attempted to update index " + index + " of a roulette wheel which has "
+						+ ((this.weights == null) ? 0 : this.weights.length)
+						+ " entries.  Please make a call to reIndex() first.");
+
+				return;
+			}
+
+			double weight = Math.max(0.0, fitness);
+			double delta = weight - this.weights[index];
+			this.weights[index] = weight;
+
+			for (int i = index + 1; i < this.tree.length; i += i & -i) {
+				this.tree[i] += delta;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public int getNextIndex(List<Chromosome> individuals, BigDecimal totalFitness) {
+		return getNextIndex(individuals, (totalFitness == null) ? 0.0 : totalFitness.doubleValue());
+	}
+
+	@Override
+	public int getNextIndex(List<Chromosome> individuals, double totalFitness) {
+		if (individuals == null || individuals.isEmpty()) {
+			log.warn("Attempted to select an individual from a null or empty population.  Unable to continue.");
+
+			return -1;
+		}
+
+		lock.readLock().lock();
+
+		try {
+			// A neighborhood or sub-list may have the same size as the population, so only the indexed list qualifies
+			if (individuals != this.indexedIndividuals || this.weights.length != individuals.size()) {
+				return AliasRouletteSelector.spinWithoutIndex(individuals, totalFitness);
+			}
+
+			// The tree total is authoritative, since the supplied total may predate incremental updates
+			double indexedTotal = prefixSum(this.weights.length);
+
+			if (indexedTotal <= 0.0) {
+				// If all the individuals have zero fitness, then pick one at random
+				return ThreadLocalRandom.current().nextInt(individuals.size());
+			}
+
+			return find(ThreadLocalRandom.current().nextDouble() * indexedTotal);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/*
+	 * Finds the first index whose cumulative fitness exceeds the value by descending the implicit tree.
+	 */
+	protected int find(double value) {
+		int position = 0;
+
+		for (int step = this.highestPowerOfTwo; step > 0; step >>= 1) {
+			if (position + step < this.tree.length && this.tree[position + step] <= value) {
+				position += step;
+				value -= this.tree[position];
+			}
+		}
+
+		// Guards against floating point error placing the value beyond the last non-empty slot
+		position = Math.min(position, this.weights.length - 1);
+
+		while (position > 0 && this.weights[position] == 0.0) {
+			position--;
+		}
+
+		return position;
+	}
+
+	protected double prefixSum(int count) {
+		double sum = 0.0;
+
+		for (int i = count; i > 0; i -= i & -i) {
+			sum += this.tree[i];
+		}
+
+		return sum;
+	}
+
+	private static double weightOf(Chromosome individual) {
+		// Individuals with a non-positive fitness can never be selected
+		return (individual == null) ? 0.0 : Math.max(0.0, individual.getFitnessAsDouble());
+	}
+
+	@Override
+	public String getDisplayName() {
+		return "Fenwick Tree Roulette";
+	}
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.ciphertool.genetics.algorithms.selection.modes;
+
+/**
+ * A Selector whose index can be updated in place when the fitness of a single individual changes, rather than
+ * requiring a full {@link #reIndex(java.util.List)}.
+ */
+public interface IncrementalSelector extends Selector {
+	/**
+	 * Implementations must be safe to call concurrently with {@link #getNextIndex(java.util.List, double)}.
+	 * 
+	 * @param index
+	 *            the index of the individual within the population which was last indexed
+	 * @param fitness
+	 *            the new fitness of that individual
+	 */
+	public void update(int index, double fitness);
+}
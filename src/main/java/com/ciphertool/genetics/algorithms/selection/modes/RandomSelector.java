@@ -37,6 +37,11 @@ public class RandomSelector implements Selector {
 
 	@Override
 	public int getNextIndex(List<Chromosome> individuals, BigDecimal totalFitness) {
+		return getNextIndex(individuals, (totalFitness == null) ? 0.0 : totalFitness.doubleValue());
+	}
+
+	@Override
+	public int getNextIndex(List<Chromosome> individuals, double totalFitness) {
 		if (individuals == null || individuals.isEmpty()) {
 			log.warn("Attempted to select an individual from a null or empty population.  Unable to continue.");
 
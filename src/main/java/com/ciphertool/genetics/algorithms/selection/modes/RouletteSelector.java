@@ -19,8 +19,6 @@
 package com.ciphertool.genetics.algorithms.selection.modes;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
-import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
@@ -43,26 +41,26 @@ public class RouletteSelector implements Selector {
 
 		List<BinaryRouletteNode> nodes = new ArrayList<BinaryRouletteNode>();
 
-		BigDecimal totalFitness = BigDecimal.ZERO;
+		double totalFitness = 0.0;
+		double fitness;
 
 		for (int i = 0; i < individuals.size(); i++) {
-			if (individuals.get(i) == null || individuals.get(i).getFitness().compareTo(BigDecimal.ZERO) == 0) {
+			if (individuals.get(i) == null) {
 				continue;
 			}
 
-			if (individuals.get(i).getFitness() == null) {
-				log.warn("Attempted to spin roulette wheel but an individual was found with a null fitness value.  Please make a call to evaluateFitness() before attempting to spin the roulette wheel. "
-						+ individuals.get(i));
+			fitness = individuals.get(i).getFitnessAsDouble();
 
+			if (fitness == 0.0) {
 				continue;
 			}
 
-			totalFitness = totalFitness.add(individuals.get(i).getFitness(), new MathContext(10, RoundingMode.HALF_UP));
+			totalFitness += fitness;
 
 			nodes.add(new BinaryRouletteNode(i, totalFitness));
 		}
 
-		if (totalFitness.compareTo(BigDecimal.ZERO) > 0) {
+		if (totalFitness > 0.0) {
 			addToTreeBalanced(nodes);
 		}
 	}
@@ -87,24 +85,29 @@ public class RouletteSelector implements Selector {
 
 	@Override
 	public int getNextIndex(List<Chromosome> individuals, BigDecimal totalFitness) {
-		if (individuals == null || individuals.isEmpty()) {
-			log.warn("Attempted to select an individual from a null or empty population.  Unable to continue.");
+		if (totalFitness == null) {
+			log.warn("This Selector implementation requires a non-null total fitness.  Unable to continue.");
 
 			return -1;
 		}
 
-		if (totalFitness == null) {
-			log.warn("This Selector implementation requires a non-null total fitness.  Unable to continue.");
+		return getNextIndex(individuals, totalFitness.doubleValue());
+	}
+
+	@Override
+	public int getNextIndex(List<Chromosome> individuals, double totalFitness) {
+		if (individuals == null || individuals.isEmpty()) {
+			log.warn("Attempted to select an individual from a null or empty population.  Unable to continue.");
 
 			return -1;
 		}
 
-		if (totalFitness.compareTo(BigDecimal.ZERO) == 0) {
+		if (totalFitness == 0.0) {
 			// If all the individuals have zero fitness, then pick one at random
 			return ThreadLocalRandom.current().nextInt(0, individuals.size());
 		}
 
-		BigDecimal randomIndex = BigDecimal.valueOf(ThreadLocalRandom.current().nextDouble()).multiply(totalFitness);
+		double randomIndex = ThreadLocalRandom.current().nextDouble() * totalFitness;
 
 		BinaryRouletteNode winner = this.rouletteWheel.find(randomIndex);
 
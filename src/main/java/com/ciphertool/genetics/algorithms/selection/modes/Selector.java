@@ -46,4 +46,41 @@ public interface Selector extends Selectable {
 	 * @return the indice of the chosen individual within the population
 	 */
 	public int getNextIndex(List<Chromosome> individuals, BigDecimal totalFitness);
+
+	/**
+	 * The primitive counterpart of {@link #getNextIndex(List, BigDecimal)}, which is what the populations call.
+	 * Implementations should override this to avoid BigDecimal arithmetic altogether.
+	 * 
+	 * @param individuals
+	 *            the List of individuals to select from
+	 * @param totalFitness
+	 *            the total fitness of the population of individuals
+	 * @return the indice of the chosen individual within the population
+	 */
+	default int getNextIndex(List<Chromosome> individuals, double totalFitness) {
+		return getNextIndex(individuals, BigDecimal.valueOf(totalFitness));
+	}
+
+	/**
+	 * Selects several individuals at once, such as all of the parents for a generation. The default implementation
+	 * simply makes one call to {@link #getNextIndex(List, double)} per individual, but implementations may select all
+	 * of them in a single pass.
+	 * 
+	 * @param individuals
+	 *            the List of individuals to select from
+	 * @param totalFitness
+	 *            the total fitness of the population of individuals
+	 * @param count
+	 *            the number of individuals to select
+	 * @return the indices of the chosen individuals within the population, in no particular order
+	 */
+	default int[] getNextIndices(List<Chromosome> individuals, double totalFitness, int count) {
+		int[] indices = new int[count];
+
+		for (int i = 0; i < count; i++) {
+			indices[i] = getNextIndex(individuals, totalFitness);
+		}
+
+		return indices;
+	}
 }
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.ciphertool.genetics.algorithms.selection.modes;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ciphertool.genetics.entities.Chromosome;
+
+/**
+ * Stochastic universal sampling: rather than spinning a roulette wheel once per selection, a single spin places
+ * evenly-spaced pointers around the wheel, so that all of the selections are made in one sweep over the cumulative
+ * fitness. Each individual is selected within one of its expected number of times, which makes it lower-variance than
+ * repeated spins.
+ */
+public class StochasticUniversalSamplingSelector implements Selector {
+	private Logger log = LoggerFactory.getLogger(getClass());
+
+	@Override
+	public void reIndex(List<Chromosome> individuals) {
+		// Nothing to do
+	}
+
+	@Override
+	public int getNextIndex(List<Chromosome> individuals, BigDecimal totalFitness) {
+		return getNextIndex(individuals, (totalFitness == null) ? 0.0 : totalFitness.doubleValue());
+	}
+
+	@Override
+	public int getNextIndex(List<Chromosome> individuals, double totalFitness) {
+		if (individuals == null || individuals.isEmpty()) {
+			log.warn("Attempted to select an individual from a null or empty population.  Unable to continue.");
+
+			return -1;
+		}
+
+		// A single selection is no different from an ordinary spin of the wheel
+		return AliasRouletteSelector.spinWithoutIndex(individuals, totalFitness);
+	}
+
+	@Override
+	public int[] getNextIndices(List<Chromosome> individuals, double totalFitness, int count) {
+		int[] indices = new int[count];
+
+		if (individuals == null || individuals.isEmpty()) {
+			log.warn("Attempted to select individuals from a null or empty population.  Unable to continue.");
+
+			Arrays.fill(indices, -1);
+
+			return indices;
+		}
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		// Individuals with a non-positive fitness can never be selected, so the total is recalculated without them
+		double total = 0.0;
+		for (Chromosome individual : individuals) {
+			total += Math.max(0.0, individual.getFitnessAsDouble());
+		}
+
+		if (total <= 0.0) {
+			// If all the individuals have zero fitness, then pick at random
+			for (int i = 0; i < count; i++) {
+				indices[i] = random.nextInt(individuals.size());
+			}
+
+			return indices;
+		}
+
+		double step = total / count;
+		double start = random.nextDouble() * step;
+		double cumulativeFitness = 0.0;
+		double fitness = Math.max(0.0, individuals.get(0).getFitnessAsDouble());
+		int current = 0;
+		int last = individuals.size() - 1;
+
+		for (int i = 0; i < count; i++) {
+			double pointer = start + (i * step);
+
+			while (current < last && cumulativeFitness + fitness <= pointer) {
+				cumulativeFitness += fitness;
+				current++;
+				fitness = Math.max(0.0, individuals.get(current).getFitnessAsDouble());
+			}
+
+			indices[i] = current;
+		}
+
+		/*
+		 * The sweep produces the indices in population order, so they are shuffled to prevent callers which pair
+		 * consecutive selections from always pairing neighbors.
+		 */
+		for (int i = count - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int temp = indices[i];
+			indices[i] = indices[j];
+			indices[j] = temp;
+		}
+
+		return indices;
+	}
+
+	@Override
+	public String getDisplayName() {
+		return "Stochastic Universal Sampling";
+	}
+}
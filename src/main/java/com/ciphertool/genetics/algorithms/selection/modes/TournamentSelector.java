@@ -19,7 +19,6 @@
 package com.ciphertool.genetics.algorithms.selection.modes;
 
 import java.math.BigDecimal;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -28,13 +27,18 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Required;
 
 import com.ciphertool.genetics.entities.Chromosome;
-import com.ciphertool.genetics.fitness.DescendingFitnessComparator;
-import com.ciphertool.genetics.fitness.FitnessComparator;
 
+/**
+ * A k-way tournament: samples tournamentSize individuals at random (with replacement) and awards the win to the
+ * fittest of them with probability selectionAccuracy, otherwise to the next fittest, and so on. Nothing is sorted and
+ * the List of individuals is never modified, so it is safe to share across concurrent selections.
+ */
 public class TournamentSelector implements Selector {
-	private Logger						log					= LoggerFactory.getLogger(getClass());
-	private Double						selectionAccuracy;
-	private static FitnessComparator	fitnessComparator	= new DescendingFitnessComparator();
+	private static final int	TOURNAMENT_SIZE_DEFAULT	= 2;
+
+	private Logger				log						= LoggerFactory.getLogger(getClass());
+	private Double				selectionAccuracy;
+	private int					tournamentSize			= TOURNAMENT_SIZE_DEFAULT;
 
 	@Override
 	public synchronized void reIndex(List<Chromosome> individuals) {
@@ -43,22 +47,56 @@ public class TournamentSelector implements Selector {
 
 	@Override
 	public int getNextIndex(List<Chromosome> individuals, BigDecimal totalFitness) {
+		return getNextIndex(individuals, (totalFitness == null) ? 0.0 : totalFitness.doubleValue());
+	}
+
+	@Override
+	public int getNextIndex(List<Chromosome> individuals, double totalFitness) {
 		if (individuals == null || individuals.isEmpty()) {
 			log.warn("Attempted to select an individual from a null or empty population.  Unable to continue.");
 
 			return -1;
 		}
 
-		Collections.sort(individuals, fitnessComparator);
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		int[] contestants = new int[tournamentSize];
+		for (int i = 0; i < tournamentSize; i++) {
+			contestants[i] = random.nextInt(individuals.size());
+		}
+
+		/*
+		 * Each round finds the fittest remaining contestant, which wins with probability selectionAccuracy. A losing
+		 * round eliminates it by swapping it past the end of the remaining contestants. The first round usually
+		 * decides the tournament, so the expected cost is O(tournamentSize).
+		 */
+		int remaining = tournamentSize;
+		int best;
+		double bestFitness;
+		double fitness;
+		while (remaining > 1) {
+			best = 0;
+			bestFitness = individuals.get(contestants[0]).getFitnessAsDouble();
+
+			for (int i = 1; i < remaining; i++) {
+				fitness = individuals.get(contestants[i]).getFitnessAsDouble();
 
-		for (int i = 0; i < individuals.size(); i++) {
-			if (ThreadLocalRandom.current().nextDouble() <= selectionAccuracy) {
-				return i;
+				if (fitness > bestFitness) {
+					best = i;
+					bestFitness = fitness;
+				}
 			}
+
+			if (random.nextDouble() <= selectionAccuracy) {
+				return contestants[best];
+			}
+
+			remaining--;
+			contestants[best] = contestants[remaining];
 		}
 
-		// return the least fit individual since it won the tournament
-		return individuals.size() - 1;
+		// return the least fit contestant since it won the tournament
+		return contestants[0];
 	}
 
 	/**
@@ -75,6 +113,19 @@ public class TournamentSelector implements Selector {
 		this.selectionAccuracy = selectionAccuracy;
 	}
 
+	/**
+	 * @param tournamentSize
+	 *            the tournamentSize to set
+	 */
+	public void setTournamentSize(int tournamentSize) {
+		if (tournamentSize < 1) {
+			throw new IllegalArgumentException("Tried to set a tournamentSize of " + tournamentSize
+					+ ", but TournamentSelector requires a tournamentSize of at least 1.");
+		}
+
+		this.tournamentSize = tournamentSize;
+	}
+
 	@Override
 	public String getDisplayName() {
 		return "Tournament";
@@ -0,0 +1,51 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import com.ciphertool.genetics.entities.Gene;
+
+/**
+ * Writes and reads the value of a single Gene, which only the application knows how to do. The
+ * {@link KeyedChromosomeCodec} takes care of keys, repeated values and everything else.
+ */
+public interface GeneSerializer {
+	/**
+	 * @param gene
+	 *            the Gene to write
+	 * @param out
+	 *            the output to write it to
+	 * @throws IOException
+	 *             if the Gene cannot be written
+	 */
+	public void write(Gene gene, DataOutput out) throws IOException;
+
+	/**
+	 * @param in
+	 *            the input to read from
+	 * @return a new Gene equal to the one written
+	 * @throws IOException
+	 *             if the Gene cannot be read
+	 */
+	public Gene read(DataInput in) throws IOException;
+}
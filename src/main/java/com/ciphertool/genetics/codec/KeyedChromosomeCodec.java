@@ -0,0 +1,366 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.beans.factory.annotation.Required;
+
+import com.ciphertool.genetics.algorithms.island.MigrantSerializer;
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.entities.GeneIndex;
+import com.ciphertool.genetics.entities.ImmutableGene;
+import com.ciphertool.genetics.entities.KeyedChromosome;
+import com.ciphertool.genetics.population.Population;
+
+/**
+ * A compact binary format for lists of KeyedChromosomes, such as a whole population for a checkpoint or a batch of
+ * migrants. Keys are written as varints, either as their position in a {@link GeneIndex} or, without one, as Integer
+ * keys themselves. Gene values are dictionary encoded: the first occurrence of each distinct value is written in full
+ * by the {@link GeneSerializer}, and every later occurrence as a varint reference to it, which suits converged
+ * populations where most individuals share most values. The body may optionally be deflated.
+ * 
+ * <pre>
+ * header:     'G' 'C' version flags
+ * body:       varint chromosomeCount, chromosome*
+ * chromosome: state [fitness as 8 byte double] varint geneCount, gene*
+ * gene:       varint key, varint reference (0 for a new value, which follows, otherwise 1 + its dictionary index)
+ * </pre>
+ */
+public class KeyedChromosomeCodec implements MigrantSerializer {
+	private static final byte							MAGIC_FIRST			= 'G';
+	private static final byte							MAGIC_SECOND		= 'C';
+	private static final byte							VERSION				= 1;
+	private static final int							FLAG_COMPRESSED		= 1;
+	private static final int							STATE_EVALUATION	= 1;
+	private static final int							STATE_FITNESS		= 2;
+	// The counts in the bytes are not trusted to size anything up front beyond this
+	private static final int							MAXIMUM_PRESIZE		= 1024;
+
+	private GeneSerializer								geneSerializer;
+	private Supplier<? extends KeyedChromosome<Object>>	chromosomeFactory;
+	private GeneIndex<Object>							geneIndex;
+	private boolean										compressed			= false;
+
+	/**
+	 * @param chromosomes
+	 *            the KeyedChromosomes to encode
+	 * @return the encoded bytes
+	 * @throws IOException
+	 *             if a Chromosome is not a KeyedChromosome, or has a key which cannot be encoded
+	 */
+	public byte[] encode(List<? extends Chromosome> chromosomes) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		bytes.write(MAGIC_FIRST);
+		bytes.write(MAGIC_SECOND);
+		bytes.write(VERSION);
+		bytes.write(compressed ? FLAG_COMPRESSED : 0);
+
+		OutputStream body = compressed ? new DeflaterOutputStream(bytes) : bytes;
+
+		try (DataOutputStream out = new DataOutputStream(body)) {
+			writeBody(chromosomes, out);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * @param population
+	 *            the Population whose individuals to encode, for example as a checkpoint
+	 * @return the encoded bytes
+	 * @throws IOException
+	 *             if an individual cannot be encoded
+	 */
+	public byte[] encodePopulation(Population population) throws IOException {
+		return encode(population.getIndividuals());
+	}
+
+	@SuppressWarnings("unchecked")
+	protected void writeBody(List<? extends Chromosome> chromosomes, DataOutput out) throws IOException {
+		Map<Gene, Integer> dictionary = new HashMap<Gene, Integer>();
+
+		writeVarint(out, chromosomes.size());
+
+		for (Chromosome chromosome : chromosomes) {
+			if (!(chromosome instanceof KeyedChromosome)) {
+				throw new IOException("Only KeyedChromosomes can be encoded, but found "
+						+ chromosome.getClass().getSimpleName() + ".");
+			}
+
+			boolean hasFitness = chromosome.getFitness() != null;
+
+			out.writeByte((chromosome.isEvaluationNeeded() ? STATE_EVALUATION : 0) | (hasFitness ? STATE_FITNESS : 0));
+
+			if (hasFitness) {
+				out.writeDouble(chromosome.getFitnessAsDouble());
+			}
+
+			Map<Object, Gene> genes = ((KeyedChromosome<Object>) chromosome).getGenes();
+
+			writeVarint(out, genes.size());
+
+			for (Map.Entry<Object, Gene> entry : genes.entrySet()) {
+				writeVarint(out, encodeKey(entry.getKey()));
+
+				Integer reference = dictionary.get(entry.getValue());
+
+				if (reference != null) {
+					writeVarint(out, reference + 1);
+				} else {
+					writeVarint(out, 0);
+					geneSerializer.write(entry.getValue(), out);
+
+					dictionary.put(entry.getValue(), dictionary.size());
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param bytes
+	 *            bytes produced by {@link #encode(List)}
+	 * @return new KeyedChromosomes equal to those encoded
+	 * @throws IOException
+	 *             if the bytes are not in this format, or are malformed
+	 */
+	public List<Chromosome> decode(byte[] bytes) throws IOException {
+		if (bytes.length < 4 || bytes[0] != MAGIC_FIRST || bytes[1] != MAGIC_SECOND) {
+			throw new IOException("Unable to decode Chromosomes, since the bytes do not start with the expected header.");
+		}
+
+		if (bytes[2] != VERSION) {
+			throw new IOException("Unable to decode Chromosomes of version " + bytes[2] + ", since only version "
+					+ VERSION + " is supported.");
+		}
+
+		InputStream body = new ByteArrayInputStream(bytes, 4, bytes.length - 4);
+
+		if ((bytes[3] & FLAG_COMPRESSED) != 0) {
+			body = new InflaterInputStream(body);
+		}
+
+		try (DataInputStream in = new DataInputStream(body)) {
+			return readBody(in);
+		}
+	}
+
+	protected List<Chromosome> readBody(DataInput in) throws IOException {
+		List<Gene> dictionary = new ArrayList<Gene>();
+
+		int chromosomeCount = readCount(in, "Chromosomes");
+		List<Chromosome> chromosomes = new ArrayList<Chromosome>(Math.min(chromosomeCount, MAXIMUM_PRESIZE));
+
+		for (int i = 0; i < chromosomeCount; i++) {
+			KeyedChromosome<Object> chromosome = chromosomeFactory.get();
+
+			int state = in.readUnsignedByte();
+
+			if ((state & STATE_FITNESS) != 0) {
+				chromosome.setFitnessAsDouble(in.readDouble());
+			}
+
+			int geneCount = readCount(in, "Genes");
+
+			for (int j = 0; j < geneCount; j++) {
+				Object key = decodeKey(readVarint(in));
+				int reference = readVarint(in);
+				Gene gene;
+
+				if (reference == 0) {
+					gene = geneSerializer.read(in);
+
+					dictionary.add(gene);
+				} else {
+					if (reference < 0 || reference > dictionary.size()) {
+						throw new IOException("Unable to decode Gene reference " + reference + ", since only "
+								+ dictionary.size() + " Gene values have been read.");
+					}
+
+					gene = dictionary.get(reference - 1);
+
+					// Only immutable Genes may be shared, since the others belong to a single Chromosome
+					if (!(gene instanceof ImmutableGene)) {
+						gene = gene.clone();
+					}
+				}
+
+				chromosome.putGene(key, gene);
+			}
+
+			// Restored last, since setting the fitness and Genes may change it
+			chromosome.setEvaluationNeeded((state & STATE_EVALUATION) != 0);
+
+			chromosomes.add(chromosome);
+		}
+
+		return chromosomes;
+	}
+
+	private static int readCount(DataInput in, String counted) throws IOException {
+		int count = readVarint(in);
+
+		if (count < 0) {
+			throw new IOException("Unable to decode a negative count of " + counted + ": " + count + ".");
+		}
+
+		return count;
+	}
+
+	protected int encodeKey(Object key) throws IOException {
+		if (geneIndex != null) {
+			int position = geneIndex.indexOf(key);
+
+			if (position < 0) {
+				throw new IOException("Unable to encode key " + key + ", since it is not in the GeneIndex.");
+			}
+
+			return position;
+		}
+
+		if (!(key instanceof Integer)) {
+			throw new IOException("Unable to encode key " + key
+					+ ", since keys must be Integers unless a GeneIndex is set.");
+		}
+
+		// Zigzag encoding keeps small negative keys short as well
+		int value = (Integer) key;
+
+		return (value << 1) ^ (value >> 31);
+	}
+
+	protected Object decodeKey(int encoded) throws IOException {
+		if (geneIndex != null) {
+			if (encoded < 0 || encoded >= geneIndex.size()) {
+				throw new IOException("Unable to decode key position " + encoded + ", since the GeneIndex has only "
+						+ geneIndex.size() + " keys.");
+			}
+
+			return geneIndex.keyAt(encoded);
+		}
+
+		return (encoded >>> 1) ^ -(encoded & 1);
+	}
+
+	/**
+	 * Writes an int as an unsigned LEB128 varint, taking one byte for values under 128.
+	 * 
+	 * @param out
+	 *            the output to write to
+	 * @param value
+	 *            the value to write, which is treated as unsigned
+	 * @throws IOException
+	 *             if the value cannot be written
+	 */
+	static void writeVarint(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+
+		out.writeByte(value);
+	}
+
+	/**
+	 * @param in
+	 *            the input to read from
+	 * @return the value of a varint written by {@link #writeVarint(DataOutput, int)}
+	 * @throws IOException
+	 *             if the varint cannot be read
+	 */
+	static int readVarint(DataInput in) throws IOException {
+		int value = 0;
+
+		for (int shift = 0; shift < 35; shift += 7) {
+			int next = in.readUnsignedByte();
+
+			value |= (next & 0x7F) << shift;
+
+			if ((next & 0x80) == 0) {
+				return value;
+			}
+		}
+
+		throw new IOException("Encountered a varint longer than 5 bytes.");
+	}
+
+	@Override
+	public byte[] serialize(List<Chromosome> migrants) throws IOException {
+		return encode(migrants);
+	}
+
+	@Override
+	public List<Chromosome> deserialize(byte[] batch) throws IOException {
+		return decode(batch);
+	}
+
+	/**
+	 * @param geneSerializer
+	 *            the GeneSerializer to write and read Gene values with
+	 */
+	@Required
+	public void setGeneSerializer(GeneSerializer geneSerializer) {
+		this.geneSerializer = geneSerializer;
+	}
+
+	/**
+	 * @param chromosomeFactory
+	 *            the factory for the empty KeyedChromosomes to decode into
+	 */
+	@Required
+	public void setChromosomeFactory(Supplier<? extends KeyedChromosome<Object>> chromosomeFactory) {
+		this.chromosomeFactory = chromosomeFactory;
+	}
+
+	/**
+	 * This is NOT required. Without a GeneIndex, every key must be an Integer.
+	 * 
+	 * @param geneIndex
+	 *            the GeneIndex to encode keys as positions in
+	 */
+	public void setGeneIndex(GeneIndex<Object> geneIndex) {
+		this.geneIndex = geneIndex;
+	}
+
+	/**
+	 * @param compressed
+	 *            whether to deflate the encoded body
+	 */
+	public void setCompressed(boolean compressed) {
+		this.compressed = compressed;
+	}
+}
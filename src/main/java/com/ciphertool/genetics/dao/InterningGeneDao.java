@@ -0,0 +1,82 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.dao;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Required;
+
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.entities.ImmutableGene;
+
+/**
+ * A GeneDao which interns the {@link ImmutableGene}s found by another, so that every equal-valued Gene in the
+ * population is the same instance. Since ImmutableGenes clone to themselves, the sharing carries through crossover
+ * and cloning without further work. Genes which are not ImmutableGenes are passed straight through.
+ */
+public class InterningGeneDao implements GeneDao {
+	private GeneDao							geneDao;
+	private final ConcurrentMap<Gene, Gene>	internedGenes	= new ConcurrentHashMap<Gene, Gene>();
+
+	@Override
+	public Gene findRandomGene(Chromosome chromosome) {
+		return intern(geneDao.findRandomGene(chromosome));
+	}
+
+	/**
+	 * @param gene
+	 *            the Gene to intern
+	 * @return the canonical instance equal to the given Gene if it is an ImmutableGene, or the Gene itself otherwise
+	 */
+	public Gene intern(Gene gene) {
+		if (!(gene instanceof ImmutableGene)) {
+			return gene;
+		}
+
+		Gene existing = internedGenes.putIfAbsent(gene, gene);
+
+		return (existing != null) ? existing : gene;
+	}
+
+	/**
+	 * @return the number of distinct Genes interned
+	 */
+	public int getInternedCount() {
+		return internedGenes.size();
+	}
+
+	/**
+	 * Forgets all interned Genes, for example when the genetic structure changes between runs.
+	 */
+	public void clear() {
+		internedGenes.clear();
+	}
+
+	/**
+	 * @param geneDao
+	 *            the GeneDao to delegate to
+	 */
+	@Required
+	public void setGeneDao(GeneDao geneDao) {
+		this.geneDao = geneDao;
+	}
+}
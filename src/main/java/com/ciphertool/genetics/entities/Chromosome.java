@@ -38,6 +38,29 @@ public interface Chromosome extends Cloneable {
 	 */
 	public void setFitness(BigDecimal fitness);
 
+	/**
+	 * Implementations which are evaluated in tight loops should override this to return a cached primitive rather
+	 * than converting the BigDecimal on every call.
+	 * 
+	 * @return the fitness as a primitive double, or zero if the fitness has not been set
+	 */
+	default double getFitnessAsDouble() {
+		BigDecimal fitness = getFitness();
+
+		return (fitness == null) ? 0.0 : fitness.doubleValue();
+	}
+
+	/**
+	 * Implementations which are evaluated in tight loops should override this to store the primitive directly. Like
+	 * {@link #setFitness(BigDecimal)}, this is expected to mark the Chromosome as no longer needing evaluation.
+	 * 
+	 * @param fitness
+	 *            the fitness to set
+	 */
+	default void setFitnessAsDouble(double fitness) {
+		setFitness(BigDecimal.valueOf(fitness));
+	}
+
 	/**
 	 * @return the age of this individual Chromosome
 	 */
@@ -0,0 +1,180 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.entities;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A base class for KeyedChromosomes whose clone() is O(1). A clone shares its parent's Gene map until either of them
+ * changes it, at which point the writer takes a shallow copy. The Genes themselves stay shared until they are replaced,
+ * so a crossover child which replaces a few Genes only allocates those.
+ * 
+ * Shared Genes must be treated as immutable. Code which modifies a Gene in place should obtain it through
+ * {@link #getGeneForUpdate(Object)}, which gives this Chromosome its own copy the first time it is called for a shared
+ * Gene. A shared Gene's back-pointer still refers to the Chromosome which created it.
+ * 
+ * Changes are tracked through {@link VersionedChromosome}, so subclasses should call {@link #markEvaluated()} from
+ * their fitness setters. Subclasses which override clone() should call super.clone() and then reset any fields which
+ * the child should not inherit, copying any mutable ones.
+ * 
+ * @param <K>
+ *            the type of the Gene keys
+ */
+public abstract class CopyOnWriteKeyedChromosome<K> implements KeyedChromosome<K>, VersionedChromosome {
+	private Map<K, Gene>	genes				= new HashMap<K, Gene>();
+	private Map<K, Gene>	unmodifiableGenes	= Collections.unmodifiableMap(genes);
+	private boolean			sharedGenes;
+	private Set<Gene>		ownedGenes;
+	private long			modificationCount;
+	private long			evaluatedModificationCount;
+
+	@Override
+	public Map<K, Gene> getGenes() {
+		return unmodifiableGenes;
+	}
+
+	@Override
+	public void putGene(K key, Gene gene) {
+		ensureOwnMap();
+
+		gene.setChromosome(this);
+
+		disown(genes.put(key, gene));
+		own(gene);
+
+		markModified();
+	}
+
+	@Override
+	public Gene removeGene(K key) {
+		ensureOwnMap();
+
+		markModified();
+
+		Gene removed = genes.remove(key);
+		disown(removed);
+
+		return removed;
+	}
+
+	@Override
+	public void replaceGene(K key, Gene newGene) {
+		putGene(key, newGene);
+	}
+
+	/**
+	 * @param key
+	 *            the key of the Gene to modify
+	 * @return the Gene at the given key, copied first if it is still shared with another Chromosome, or null if there
+	 *         is no such Gene
+	 */
+	public Gene getGeneForUpdate(K key) {
+		Gene gene = genes.get(key);
+
+		if (gene == null || (ownedGenes != null && ownedGenes.contains(gene))) {
+			return gene;
+		}
+
+		Gene copy = gene.clone();
+		putGene(key, copy);
+
+		return copy;
+	}
+
+	/**
+	 * @return whether the Gene map is currently shared with another Chromosome
+	 */
+	protected boolean isSharingGenes() {
+		return sharedGenes;
+	}
+
+	private void ensureOwnMap() {
+		if (!sharedGenes) {
+			return;
+		}
+
+		genes = new HashMap<K, Gene>(genes);
+		unmodifiableGenes = Collections.unmodifiableMap(genes);
+		sharedGenes = false;
+	}
+
+	private void own(Gene gene) {
+		if (ownedGenes == null) {
+			ownedGenes = Collections.newSetFromMap(new IdentityHashMap<Gene, Boolean>());
+		}
+
+		ownedGenes.add(gene);
+	}
+
+	private void disown(Gene gene) {
+		if (gene != null && ownedGenes != null) {
+			ownedGenes.remove(gene);
+		}
+	}
+
+	@Override
+	public Integer actualSize() {
+		return genes.size();
+	}
+
+	@Override
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
+	@Override
+	public long getEvaluatedModificationCount() {
+		return evaluatedModificationCount;
+	}
+
+	@Override
+	public void setEvaluatedModificationCount(long evaluatedModificationCount) {
+		this.evaluatedModificationCount = evaluatedModificationCount;
+	}
+
+	@Override
+	public void markModified() {
+		modificationCount++;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public CopyOnWriteKeyedChromosome<K> clone() {
+		CopyOnWriteKeyedChromosome<K> copy;
+
+		try {
+			copy = (CopyOnWriteKeyedChromosome<K>) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException("Unable to clone " + getClass().getSimpleName() + ".", e);
+		}
+
+		// From here on both Chromosomes share the map and every Gene in it, so neither may write to them in place
+		this.sharedGenes = true;
+		this.ownedGenes = null;
+		copy.sharedGenes = true;
+		copy.ownedGenes = null;
+
+		return copy;
+	}
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.entities;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable mapping between Gene keys and dense int positions. A single GeneIndex is meant to be shared by every
+ * {@link IndexedChromosome} in a population, so operators can tell with one identity check that two Chromosomes lay
+ * out their Genes the same way, and then walk them with index loops.
+ * 
+ * @param <K>
+ *            the type of the Gene keys
+ */
+public final class GeneIndex<K> {
+	private final Object[]				keys;
+	private final Map<K, Integer>		positions;
+
+	/**
+	 * @param keys
+	 *            the keys to index, in the order of their positions
+	 */
+	public GeneIndex(Collection<? extends K> keys) {
+		this.keys = keys.toArray();
+		this.positions = new HashMap<K, Integer>(keys.size() * 2);
+
+		int position = 0;
+		for (K key : keys) {
+			if (this.positions.put(key, position++) != null) {
+				throw new IllegalArgumentException("Tried to create a GeneIndex with duplicate key " + key + ".");
+			}
+		}
+	}
+
+	/**
+	 * @return the number of positions
+	 */
+	public int size() {
+		return keys.length;
+	}
+
+	/**
+	 * @param position
+	 *            the position
+	 * @return the key at the given position
+	 */
+	@SuppressWarnings("unchecked")
+	public K keyAt(int position) {
+		return (K) keys[position];
+	}
+
+	/**
+	 * @param key
+	 *            the key
+	 * @return the position of the given key, or -1 if it is not indexed
+	 */
+	public int indexOf(K key) {
+		Integer position = positions.get(key);
+
+		return (position == null) ? -1 : position;
+	}
+}
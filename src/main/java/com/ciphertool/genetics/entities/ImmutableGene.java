@@ -0,0 +1,54 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.entities;
+
+/**
+ * A Gene whose value never changes once created, so that a single instance can be shared by every Chromosome, and
+ * every key, holding an equal value. Implementations must base equals() and hashCode() on the value alone and must
+ * return this from clone(). Since a shared instance has no single owner, the Chromosome back-reference is not stored:
+ * setChromosome() is ignored and getChromosome() returns null, leaving the owning Chromosome to whoever holds the Gene.
+ * Likewise a match flag would leak between every individual sharing the instance, so hasMatch() is always false and
+ * setHasMatch() throws.
+ */
+public interface ImmutableGene extends Gene {
+	@Override
+	default void setChromosome(Chromosome chromosome) {
+	}
+
+	@Override
+	default Chromosome getChromosome() {
+		return null;
+	}
+
+	@Override
+	default boolean hasMatch() {
+		return false;
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             always, since the flag would apply to every individual sharing this instance
+	 */
+	@Override
+	default void setHasMatch(boolean hasMatch) {
+		throw new UnsupportedOperationException("Cannot set hasMatch on a shared " + getClass().getSimpleName()
+				+ ".  Track matches on the Chromosome instead.");
+	}
+}
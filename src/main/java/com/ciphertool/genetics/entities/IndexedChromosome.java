@@ -0,0 +1,64 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.entities;
+
+/**
+ * A KeyedChromosome which also stores its Genes at dense int positions given by a {@link GeneIndex}. The Map returned
+ * by getGenes() remains the canonical view, but operators and statistics which find that two Chromosomes share a
+ * GeneIndex can loop over positions instead of hashing keys.
+ * 
+ * @param <K>
+ *            the type of the Gene keys
+ */
+public interface IndexedChromosome<K> extends KeyedChromosome<K> {
+	/**
+	 * @return the GeneIndex shared by this Chromosome's population
+	 */
+	public GeneIndex<K> getGeneIndex();
+
+	/**
+	 * @param position
+	 *            the position of the Gene
+	 * @return the Gene at the given position, or null if there is none
+	 */
+	public Gene getGeneAt(int position);
+
+	/**
+	 * Replaces the Gene at the given position, exactly as {@link #replaceGene(Object, Gene)} would for its key.
+	 * 
+	 * @param position
+	 *            the position of the Gene to replace
+	 * @param newGene
+	 *            the replacement Gene
+	 */
+	public void replaceGeneAt(int position, Gene newGene);
+
+	/**
+	 * @param first
+	 *            the first Chromosome
+	 * @param second
+	 *            the second Chromosome
+	 * @return whether both Chromosomes are IndexedChromosomes sharing the same GeneIndex
+	 */
+	static boolean sharesGeneIndex(Chromosome first, Chromosome second) {
+		return first instanceof IndexedChromosome && second instanceof IndexedChromosome
+				&& ((IndexedChromosome<?>) first).getGeneIndex() == ((IndexedChromosome<?>) second).getGeneIndex();
+	}
+}
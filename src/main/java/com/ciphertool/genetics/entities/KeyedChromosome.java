@@ -21,6 +21,8 @@ package com.ciphertool.genetics.entities;
 
 import java.util.Map;
 
+import com.ciphertool.genetics.population.Population;
+
 public interface KeyedChromosome<T> extends Chromosome {
 	/**
 	 * @return an unmodifiable Map of this Chromosome's Genes
@@ -50,4 +52,31 @@ public interface KeyedChromosome<T> extends Chromosome {
 	 * @param newGene
 	 */
 	public void replaceGene(T key, Gene newGene);
+
+	/**
+	 * Replaces a Gene at the specified key of a Chromosome which is already part of a Population, and notifies that
+	 * Population so that any statistics it maintains incrementally remain accurate.
+	 * 
+	 * @param chromosome
+	 *            the Chromosome whose Gene to replace
+	 * @param key
+	 *            the key of the Gene to replace
+	 * @param newGene
+	 *            the replacement Gene
+	 */
+	static <T> void replaceGene(KeyedChromosome<T> chromosome, T key, Gene newGene) {
+		Population population = chromosome.getPopulation();
+
+		if (population == null) {
+			chromosome.replaceGene(key, newGene);
+
+			return;
+		}
+
+		Gene oldGene = chromosome.getGenes().get(key);
+
+		chromosome.replaceGene(key, newGene);
+
+		population.geneReplaced(key, oldGene, newGene);
+	}
 }
@@ -0,0 +1,74 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.entities;
+
+/**
+ * A Chromosome which tracks changes with a modification counter instead of relying on the @Dirty and @Clean aspects.
+ * The Chromosome needs evaluation whenever the counter has moved on since the last evaluation, so change tracking
+ * costs an increment rather than a join point, and the aspectj-maven-plugin weaving can be skipped entirely.
+ * 
+ * Implementations are expected to call {@link #markModified()} from every method which would otherwise be annotated
+ * with @Dirty, and {@link #markEvaluated()} from their fitness setters in place of @Clean. Genes and Sequences can
+ * call markModified() on their Chromosome directly rather than walking back-pointers from an aspect. A clone should
+ * copy both counters, so that it needs evaluation only if its parent did.
+ */
+public interface VersionedChromosome extends Chromosome {
+	/**
+	 * @return the number of modifications made to this Chromosome
+	 */
+	public long getModificationCount();
+
+	/**
+	 * @return the modification count at which this Chromosome was last evaluated
+	 */
+	public long getEvaluatedModificationCount();
+
+	/**
+	 * @param evaluatedModificationCount
+	 *            the evaluatedModificationCount to set
+	 */
+	public void setEvaluatedModificationCount(long evaluatedModificationCount);
+
+	/**
+	 * Increments the modification count.
+	 */
+	public void markModified();
+
+	/**
+	 * Records that the fitness is up to date with the current modification count.
+	 */
+	default void markEvaluated() {
+		setEvaluatedModificationCount(getModificationCount());
+	}
+
+	@Override
+	default boolean isEvaluationNeeded() {
+		return getModificationCount() != getEvaluatedModificationCount();
+	}
+
+	@Override
+	default void setEvaluationNeeded(boolean evaluationNeeded) {
+		if (evaluationNeeded) {
+			markModified();
+		} else {
+			markEvaluated();
+		}
+	}
+}
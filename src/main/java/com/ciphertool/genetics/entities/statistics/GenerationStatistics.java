@@ -21,6 +21,8 @@ package com.ciphertool.genetics.entities.statistics;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
 
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
@@ -47,6 +49,8 @@ public class GenerationStatistics implements Serializable {
 
 	private BigDecimal				entropy;
 
+	private Integer					entropySampleSize;
+
 	private BigDecimal				knownSolutionProximity;
 
 	private int						numberOfCrossovers;
@@ -61,6 +65,10 @@ public class GenerationStatistics implements Serializable {
 
 	private int						numberSelectedOut;
 
+	private Long					fitnessCacheHits;
+
+	private Long					fitnessCacheMisses;
+
 	private PerformanceStatistics	performanceStatistics;
 
 	/**
@@ -162,6 +170,22 @@ public class GenerationStatistics implements Serializable {
 		this.entropy = entropy;
 	}
 
+	/**
+	 * @return the number of individuals the entropy was estimated from, or null if it was calculated over the whole
+	 *         population
+	 */
+	public Integer getEntropySampleSize() {
+		return entropySampleSize;
+	}
+
+	/**
+	 * @param entropySampleSize
+	 *            the entropySampleSize to set
+	 */
+	public void setEntropySampleSize(Integer entropySampleSize) {
+		this.entropySampleSize = entropySampleSize;
+	}
+
 	/**
 	 * @return the knownSolutionProximity
 	 */
@@ -286,6 +310,138 @@ public class GenerationStatistics implements Serializable {
 		this.performanceStatistics = performanceStatistics;
 	}
 
+	/**
+	 * @return the number of fitness evaluations answered from the cache, or null if no cache is in use
+	 */
+	public Long getFitnessCacheHits() {
+		return fitnessCacheHits;
+	}
+
+	/**
+	 * @param fitnessCacheHits
+	 *            the fitnessCacheHits to set
+	 */
+	public void setFitnessCacheHits(Long fitnessCacheHits) {
+		this.fitnessCacheHits = fitnessCacheHits;
+	}
+
+	/**
+	 * @return the number of fitness evaluations which missed the cache, or null if no cache is in use
+	 */
+	public Long getFitnessCacheMisses() {
+		return fitnessCacheMisses;
+	}
+
+	/**
+	 * @param fitnessCacheMisses
+	 *            the fitnessCacheMisses to set
+	 */
+	public void setFitnessCacheMisses(Long fitnessCacheMisses) {
+		this.fitnessCacheMisses = fitnessCacheMisses;
+	}
+
+	/**
+	 * Merges the statistics of several islands for the same generation into one. Counts are summed, the best fitness
+	 * and known solution proximity are the best of any island, the average fitness and entropy are the means over the
+	 * islands which reported them, and the performance times are the longest of any island, since islands run side by
+	 * side.
+	 * 
+	 * @param executionStatistics
+	 *            the merged ExecutionStatistics
+	 * @param islandStatistics
+	 *            the GenerationStatistics of each island, which must not be empty
+	 * @return the merged GenerationStatistics, taking a higher fitness to be fitter
+	 */
+	public static GenerationStatistics merge(ExecutionStatistics executionStatistics,
+			List<GenerationStatistics> islandStatistics) {
+		return merge(executionStatistics, islandStatistics, Comparator.naturalOrder());
+	}
+
+	/**
+	 * Merges the statistics of several islands for the same generation into one, as
+	 * {@link #merge(ExecutionStatistics, List)} does, but choosing the best fitness by the given order.
+	 * 
+	 * @param executionStatistics
+	 *            the merged ExecutionStatistics
+	 * @param islandStatistics
+	 *            the GenerationStatistics of each island, which must not be empty
+	 * @param fitnessOrder
+	 *            orders fitness values so that the fitter is the greater
+	 * @return the merged GenerationStatistics
+	 */
+	public static GenerationStatistics merge(ExecutionStatistics executionStatistics,
+			List<GenerationStatistics> islandStatistics, Comparator<BigDecimal> fitnessOrder) {
+		GenerationStatistics merged = new GenerationStatistics(executionStatistics, islandStatistics.get(0).generation);
+		PerformanceStatistics performance = new PerformanceStatistics();
+
+		BigDecimal totalAverageFitness = BigDecimal.ZERO;
+		int averageFitnessCount = 0;
+		BigDecimal totalEntropy = BigDecimal.ZERO;
+		int entropyCount = 0;
+
+		for (GenerationStatistics island : islandStatistics) {
+			if (island.bestFitness != null
+					&& (merged.bestFitness == null || fitnessOrder.compare(island.bestFitness, merged.bestFitness) > 0)) {
+				merged.bestFitness = island.bestFitness;
+			}
+
+			if (island.knownSolutionProximity != null && (merged.knownSolutionProximity == null
+					|| island.knownSolutionProximity.compareTo(merged.knownSolutionProximity) > 0)) {
+				merged.knownSolutionProximity = island.knownSolutionProximity;
+			}
+
+			if (island.averageFitness != null) {
+				totalAverageFitness = totalAverageFitness.add(island.averageFitness);
+				averageFitnessCount++;
+			}
+
+			if (island.entropy != null) {
+				totalEntropy = totalEntropy.add(island.entropy);
+				entropyCount++;
+			}
+
+			merged.numberOfCrossovers += island.numberOfCrossovers;
+			merged.numberOfMutations += island.numberOfMutations;
+			merged.numberOfEvaluations += island.numberOfEvaluations;
+			merged.numberOfMajorEvaluations += island.numberOfMajorEvaluations;
+			merged.numberRandomlyGenerated += island.numberRandomlyGenerated;
+			merged.numberSelectedOut += island.numberSelectedOut;
+
+			if (island.fitnessCacheHits != null) {
+				merged.fitnessCacheHits = ((merged.fitnessCacheHits == null) ? 0L : merged.fitnessCacheHits)
+						+ island.fitnessCacheHits;
+				merged.fitnessCacheMisses = ((merged.fitnessCacheMisses == null) ? 0L : merged.fitnessCacheMisses)
+						+ island.fitnessCacheMisses;
+			}
+
+			if (island.performanceStatistics != null) {
+				PerformanceStatistics stats = island.performanceStatistics;
+
+				performance.setTotalMillis(Math.max(performance.getTotalMillis(), stats.getTotalMillis()));
+				performance.setSelectionMillis(Math.max(performance.getSelectionMillis(), stats.getSelectionMillis()));
+				performance.setCrossoverMillis(Math.max(performance.getCrossoverMillis(), stats.getCrossoverMillis()));
+				performance.setMutationMillis(Math.max(performance.getMutationMillis(), stats.getMutationMillis()));
+				performance.setEvaluationMillis(Math.max(performance.getEvaluationMillis(), stats.getEvaluationMillis()));
+				performance.setMajorEvaluationMillis(Math.max(performance.getMajorEvaluationMillis(),
+						stats.getMajorEvaluationMillis()));
+				performance.setEntropyMillis(Math.max(performance.getEntropyMillis(), stats.getEntropyMillis()));
+			}
+		}
+
+		if (averageFitnessCount > 0) {
+			merged.averageFitness = totalAverageFitness.divide(BigDecimal.valueOf(averageFitnessCount),
+					MathConstants.PREC_10_HALF_UP);
+		}
+
+		if (entropyCount > 0) {
+			merged.entropy = totalEntropy.divide(BigDecimal.valueOf(entropyCount), MathConstants.PREC_10_HALF_UP);
+		}
+
+		merged.performanceStatistics = performance;
+
+		return merged;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -293,7 +449,10 @@ public class GenerationStatistics implements Serializable {
 		result = prime * result + ((averageFitness == null) ? 0 : averageFitness.hashCode());
 		result = prime * result + ((bestFitness == null) ? 0 : bestFitness.hashCode());
 		result = prime * result + ((entropy == null) ? 0 : entropy.hashCode());
+		result = prime * result + ((entropySampleSize == null) ? 0 : entropySampleSize.hashCode());
 		result = prime * result + ((executionStatistics == null) ? 0 : executionStatistics.hashCode());
+		result = prime * result + ((fitnessCacheHits == null) ? 0 : fitnessCacheHits.hashCode());
+		result = prime * result + ((fitnessCacheMisses == null) ? 0 : fitnessCacheMisses.hashCode());
 		result = prime * result + generation;
 		result = prime * result + ((id == null) ? 0 : id.hashCode());
 		result = prime * result + ((knownSolutionProximity == null) ? 0 : knownSolutionProximity.hashCode());
@@ -340,6 +499,13 @@ public class GenerationStatistics implements Serializable {
 		} else if (!entropy.equals(other.entropy)) {
 			return false;
 		}
+		if (entropySampleSize == null) {
+			if (other.entropySampleSize != null) {
+				return false;
+			}
+		} else if (!entropySampleSize.equals(other.entropySampleSize)) {
+			return false;
+		}
 		if (executionStatistics == null) {
 			if (other.executionStatistics != null) {
 				return false;
@@ -347,6 +513,20 @@ public class GenerationStatistics implements Serializable {
 		} else if (!executionStatistics.equals(other.executionStatistics)) {
 			return false;
 		}
+		if (fitnessCacheHits == null) {
+			if (other.fitnessCacheHits != null) {
+				return false;
+			}
+		} else if (!fitnessCacheHits.equals(other.fitnessCacheHits)) {
+			return false;
+		}
+		if (fitnessCacheMisses == null) {
+			if (other.fitnessCacheMisses != null) {
+				return false;
+			}
+		} else if (!fitnessCacheMisses.equals(other.fitnessCacheMisses)) {
+			return false;
+		}
 		if (generation != other.generation) {
 			return false;
 		}
@@ -392,10 +572,12 @@ public class GenerationStatistics implements Serializable {
 
 		return "[generation=" + generation + (averageFitness == null ? "" : ", averageFitness="
 				+ averageFitness.round(MathConstants.PREC_10_HALF_UP)) + (bestFitness == null ? "" : ", bestFitness="
-						+ bestFitness.round(MathConstants.PREC_10_HALF_UP)) + proximity + ", entropy="
-				+ String.format("%1$,.4f", entropy) + ", crossovers=" + numberOfCrossovers + ", evals="
+						+ bestFitness.round(MathConstants.PREC_10_HALF_UP)) + proximity + (entropy == null ? "" : ", entropy="
+								+ String.format("%1$,.4f", entropy)) + (entropySampleSize == null ? "" : ", entropySampleSize="
+										+ entropySampleSize) + ", crossovers=" + numberOfCrossovers + ", evals="
 				+ numberOfEvaluations + ", majorEvals=" + numberOfMajorEvaluations + ", mutations=" + numberOfMutations
-				+ ", deaths=" + numberSelectedOut + ", births=" + numberRandomlyGenerated + ", performance="
+				+ ", deaths=" + numberSelectedOut + ", births=" + numberRandomlyGenerated + (fitnessCacheHits == null ? ""
+						: ", cacheHits=" + fitnessCacheHits + ", cacheMisses=" + fitnessCacheMisses) + ", performance="
 				+ performanceStatistics.toString() + "]";
 	}
 }
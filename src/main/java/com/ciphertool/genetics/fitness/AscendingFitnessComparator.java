@@ -25,12 +25,6 @@ public class AscendingFitnessComparator implements FitnessComparator {
 
 	@Override
 	public int compare(Chromosome c1, Chromosome c2) {
-		if (c1.getFitness().compareTo(c2.getFitness()) > 0) {
-			return 1;
-		} else if (c1.getFitness().compareTo(c2.getFitness()) < 0) {
-			return -1;
-		}
-
-		return 0;
+		return Double.compare(c1.getFitnessAsDouble(), c2.getFitnessAsDouble());
 	}
 }
@@ -0,0 +1,231 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.fitness;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Required;
+
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.entities.KeyedChromosome;
+
+/**
+ * A FitnessEvaluator which memoizes the fitness of another, keyed by a 64-bit hash of the Chromosome's Genes, so that
+ * genetic duplicates in a converged population are only evaluated once. The cache is split into segments which are
+ * each a bounded LRU map under their own lock, so concurrent evaluations rarely contend. Two distinct Chromosomes
+ * whose hashes collide would share a fitness, which with a 64-bit hash is unlikely enough to accept for a cache.
+ * Chromosomes which are not KeyedChromosomes are passed straight through.
+ * 
+ * Fitness values are cached in whichever form the underlying FitnessEvaluator produces them, so a
+ * {@link DoubleFitnessEvaluator} stays on the primitive channel, and cache misses are passed on to an
+ * {@link IncrementalFitnessEvaluator} incrementally when the underlying FitnessEvaluator is one.
+ */
+public class CachingFitnessEvaluator implements DoubleFitnessEvaluator, IncrementalFitnessEvaluator {
+	private static final int			SEGMENTS_DEFAULT		= 16;
+	private static final int			MAXIMUM_SIZE_DEFAULT	= 10000;
+
+	private FitnessEvaluator			fitnessEvaluator;
+	private int							maximumSize				= MAXIMUM_SIZE_DEFAULT;
+	private List<Map<Long, Number>>		segments;
+	private final AtomicLong			hits					= new AtomicLong(0);
+	private final AtomicLong			misses					= new AtomicLong(0);
+
+	public CachingFitnessEvaluator() {
+		createSegments();
+	}
+
+	private void createSegments() {
+		int segmentSize = Math.max(1, maximumSize / SEGMENTS_DEFAULT);
+
+		List<Map<Long, Number>> segments = new ArrayList<Map<Long, Number>>(SEGMENTS_DEFAULT);
+
+		for (int i = 0; i < SEGMENTS_DEFAULT; i++) {
+			segments.add(new LinkedHashMap<Long, Number>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Long, Number> eldest) {
+					return size() > segmentSize;
+				}
+			});
+		}
+
+		this.segments = segments;
+	}
+
+	@Override
+	public BigDecimal evaluate(Chromosome chromosome) {
+		Number fitness = evaluateCached(chromosome, this::evaluateUncached);
+
+		return (fitness instanceof BigDecimal) ? (BigDecimal) fitness : BigDecimal.valueOf(fitness.doubleValue());
+	}
+
+	@Override
+	public double evaluateAsDouble(Chromosome chromosome) {
+		return evaluateCached(chromosome, this::evaluateUncached).doubleValue();
+	}
+
+	@Override
+	public double evaluateIncrementally(Chromosome chromosome, Collection<Object> changedKeys, double previousFitness) {
+		if (!(fitnessEvaluator instanceof IncrementalFitnessEvaluator)) {
+			return evaluateAsDouble(chromosome);
+		}
+
+		IncrementalFitnessEvaluator incrementalFitnessEvaluator = (IncrementalFitnessEvaluator) fitnessEvaluator;
+
+		return evaluateCached(chromosome, evaluated -> incrementalFitnessEvaluator.evaluateIncrementally(evaluated,
+				changedKeys, previousFitness)).doubleValue();
+	}
+
+	private Number evaluateUncached(Chromosome chromosome) {
+		if (fitnessEvaluator instanceof DoubleFitnessEvaluator) {
+			return ((DoubleFitnessEvaluator) fitnessEvaluator).evaluateAsDouble(chromosome);
+		}
+
+		return fitnessEvaluator.evaluate(chromosome);
+	}
+
+	private Number evaluateCached(Chromosome chromosome, Function<Chromosome, Number> evaluation) {
+		if (!(chromosome instanceof KeyedChromosome)) {
+			return evaluation.apply(chromosome);
+		}
+
+		long hash = contentHash((KeyedChromosome<?>) chromosome);
+		Map<Long, Number> segment = segments.get((int) (hash >>> 32) & (SEGMENTS_DEFAULT - 1));
+		Long key = hash;
+		Number fitness;
+
+		synchronized (segment) {
+			fitness = segment.get(key);
+		}
+
+		if (fitness != null) {
+			hits.incrementAndGet();
+
+			return fitness;
+		}
+
+		misses.incrementAndGet();
+
+		// Evaluated outside of the lock, so at worst a duplicate is evaluated twice concurrently
+		fitness = evaluation.apply(chromosome);
+
+		synchronized (segment) {
+			segment.put(key, fitness);
+		}
+
+		return fitness;
+	}
+
+	/**
+	 * @param chromosome
+	 *            the KeyedChromosome to hash
+	 * @return a 64-bit hash of the Chromosome's keys and Genes, which is independent of the iteration order
+	 */
+	protected static long contentHash(KeyedChromosome<?> chromosome) {
+		long hash = 0L;
+
+		for (Map.Entry<?, Gene> entry : chromosome.getGenes().entrySet()) {
+			hash += mix(((long) entry.getKey().hashCode() << 32) ^ (entry.getValue().hashCode() & 0xFFFFFFFFL));
+		}
+
+		return mix(hash + chromosome.getGenes().size());
+	}
+
+	// The SplitMix64 finalizer, which spreads the bits of each entry across the whole word before they are summed
+	private static long mix(long value) {
+		value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+
+		return value ^ (value >>> 31);
+	}
+
+	/**
+	 * Discards every cached fitness.
+	 */
+	public void clear() {
+		for (Map<Long, Number> segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of evaluations answered from the cache
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * @return the number of evaluations passed to the underlying FitnessEvaluator
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * Clears the cache, since fitness values computed against the previous structure no longer apply.
+	 */
+	@Override
+	public void setGeneticStructure(Object obj) {
+		fitnessEvaluator.setGeneticStructure(obj);
+
+		clear();
+	}
+
+	/**
+	 * @param fitnessEvaluator
+	 *            the FitnessEvaluator whose results to cache
+	 */
+	@Required
+	public void setFitnessEvaluator(FitnessEvaluator fitnessEvaluator) {
+		this.fitnessEvaluator = fitnessEvaluator;
+	}
+
+	/**
+	 * @param maximumSize
+	 *            the approximate maximum number of fitness values to keep, which is divided evenly among the segments
+	 */
+	public void setMaximumSize(int maximumSize) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("Tried to set a maximumSize of " + maximumSize + ", but "
+					+ getClass().getSimpleName() + " requires a maximumSize of at least 1.");
+		}
+
+		this.maximumSize = maximumSize;
+
+		createSegments();
+	}
+
+	@Override
+	public String getDisplayName() {
+		return "Cached " + fitnessEvaluator.getDisplayName();
+	}
+}
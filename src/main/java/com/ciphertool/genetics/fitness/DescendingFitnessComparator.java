@@ -19,18 +19,19 @@
 
 package com.ciphertool.genetics.fitness;
 
+import java.math.BigDecimal;
+
 import com.ciphertool.genetics.entities.Chromosome;
 
 public class DescendingFitnessComparator implements FitnessComparator {
 
 	@Override
 	public int compare(Chromosome c1, Chromosome c2) {
-		if (c1.getFitness().compareTo(c2.getFitness()) < 0) {
-			return 1;
-		} else if (c1.getFitness().compareTo(c2.getFitness()) > 0) {
-			return -1;
-		}
+		return Double.compare(c2.getFitnessAsDouble(), c1.getFitnessAsDouble());
+	}
 
-		return 0;
+	@Override
+	public int compareFitness(BigDecimal fitness1, BigDecimal fitness2) {
+		return fitness2.compareTo(fitness1);
 	}
 }
@@ -0,0 +1,43 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.fitness;
+
+import java.math.BigDecimal;
+
+import com.ciphertool.genetics.entities.Chromosome;
+
+/**
+ * A FitnessEvaluator which produces its fitness natively as a primitive double. The populations, selectors and
+ * guaranteed-fitness algorithms detect this interface and stay on the primitive channel end to end, so no BigDecimal is
+ * allocated per evaluation.
+ */
+public interface DoubleFitnessEvaluator extends FitnessEvaluator {
+	/**
+	 * @param chromosome
+	 *            the Chromosome to evaluate
+	 * @return the fitness of the Chromosome
+	 */
+	public double evaluateAsDouble(Chromosome chromosome);
+
+	@Override
+	default BigDecimal evaluate(Chromosome chromosome) {
+		return BigDecimal.valueOf(evaluateAsDouble(chromosome));
+	}
+}
@@ -19,10 +19,24 @@
 
 package com.ciphertool.genetics.fitness;
 
+import java.math.BigDecimal;
 import java.util.Comparator;
 
 import com.ciphertool.genetics.entities.Chromosome;
 
 public interface FitnessComparator extends Comparator<Chromosome> {
-
+	/**
+	 * Compares two fitness values in the same direction as {@link #compare(Object, Object)} compares the individuals
+	 * holding them, so that the fitter value is the greater. By default a higher fitness is fitter.
+	 * 
+	 * @param fitness1
+	 *            the first fitness value
+	 * @param fitness2
+	 *            the second fitness value
+	 * @return a negative integer, zero, or a positive integer as the first fitness is less fit than, as fit as, or
+	 *         fitter than the second
+	 */
+	default int compareFitness(BigDecimal fitness1, BigDecimal fitness2) {
+		return fitness1.compareTo(fitness2);
+	}
 }
\ No newline at end of file
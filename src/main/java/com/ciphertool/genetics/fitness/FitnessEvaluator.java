@@ -20,6 +20,7 @@
 package com.ciphertool.genetics.fitness;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 
 import com.ciphertool.genetics.Selectable;
 import com.ciphertool.genetics.entities.Chromosome;
@@ -34,4 +35,56 @@ public interface FitnessEvaluator extends Selectable {
 	 *            the Object
 	 */
 	public void setGeneticStructure(Object obj);
+
+	/**
+	 * Evaluates the Chromosome and sets its fitness, staying on the primitive double channel when the evaluator is a
+	 * {@link DoubleFitnessEvaluator}.
+	 * 
+	 * @param fitnessEvaluator
+	 *            the FitnessEvaluator to use
+	 * @param chromosome
+	 *            the Chromosome to evaluate
+	 * @return the fitness which was set on the Chromosome
+	 */
+	static double evaluateAndSetFitness(FitnessEvaluator fitnessEvaluator, Chromosome chromosome) {
+		if (fitnessEvaluator instanceof DoubleFitnessEvaluator) {
+			double fitness = ((DoubleFitnessEvaluator) fitnessEvaluator).evaluateAsDouble(chromosome);
+
+			chromosome.setFitnessAsDouble(fitness);
+
+			return fitness;
+		}
+
+		chromosome.setFitness(fitnessEvaluator.evaluate(chromosome));
+
+		return chromosome.getFitnessAsDouble();
+	}
+
+	/**
+	 * Re-evaluates the Chromosome after some of its Genes have changed, using an {@link IncrementalFitnessEvaluator}
+	 * when available and falling back to a full evaluation otherwise.
+	 * 
+	 * @param fitnessEvaluator
+	 *            the FitnessEvaluator to use
+	 * @param chromosome
+	 *            the Chromosome to evaluate
+	 * @param changedKeys
+	 *            the keys of the Genes which changed since previousFitness was computed
+	 * @param previousFitness
+	 *            the fitness of the Chromosome before the changes
+	 * @return the fitness which was set on the Chromosome
+	 */
+	static double evaluateAndSetFitness(FitnessEvaluator fitnessEvaluator, Chromosome chromosome,
+			Collection<Object> changedKeys, double previousFitness) {
+		if (fitnessEvaluator instanceof IncrementalFitnessEvaluator) {
+			double fitness = ((IncrementalFitnessEvaluator) fitnessEvaluator).evaluateIncrementally(chromosome,
+					changedKeys, previousFitness);
+
+			chromosome.setFitnessAsDouble(fitness);
+
+			return fitness;
+		}
+
+		return evaluateAndSetFitness(fitnessEvaluator, chromosome);
+	}
 }
@@ -0,0 +1,42 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.fitness;
+
+import java.util.Collection;
+
+import com.ciphertool.genetics.entities.Chromosome;
+
+/**
+ * A FitnessEvaluator which can update a fitness from the keys of the Genes which changed since it was computed, rather
+ * than re-evaluating every Gene. The guaranteed-fitness mutation and crossover algorithms detect this interface and
+ * use it for their trial evaluations.
+ */
+public interface IncrementalFitnessEvaluator extends FitnessEvaluator {
+	/**
+	 * @param chromosome
+	 *            the Chromosome to evaluate, which already contains the changed Genes
+	 * @param changedKeys
+	 *            the keys of the Genes which changed since previousFitness was computed
+	 * @param previousFitness
+	 *            the fitness of the Chromosome before the changes
+	 * @return the fitness of the Chromosome after the changes
+	 */
+	public double evaluateIncrementally(Chromosome chromosome, Collection<Object> changedKeys, double previousFitness);
+}
@@ -0,0 +1,213 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.population;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.entities.KeyedChromosome;
+
+/**
+ * Maintains the per-key symbol counts needed by {@link Population#calculateEntropy()} incrementally, so that entropy
+ * costs O(changes) rather than a rescan of every Gene of every individual. Counts are kept in primitive arrays indexed
+ * by a dictionary of symbols, along with a running sum of count * ln(count) for each key, from which the entropy can
+ * be derived without visiting any individual.
+ * 
+ * Each key's counts are guarded separately, so that mutation threads replacing Genes at different keys do not contend
+ * with one another.
+ * 
+ * The tracker is only accurate if it is told about every individual added to or removed from the population, and
+ * every Gene replaced in place (see {@link KeyedChromosome#replaceGene(KeyedChromosome, Object, Gene)}).
+ */
+public class EntropyTracker {
+	private static final int						INITIAL_CAPACITY		= 16;
+
+	private Logger									log						= LoggerFactory.getLogger(getClass());
+
+	private final ConcurrentMap<Object, KeyCounts>	keyCounts				= new ConcurrentHashMap<Object, KeyCounts>();
+	private final LongAdder							untrackedIndividuals	= new LongAdder();
+
+	/*
+	 * The symbol counts of a single key, guarded by its own monitor.
+	 */
+	private static class KeyCounts {
+		private Map<Object, Integer>	symbolIndices	= new HashMap<Object, Integer>();
+		private int[]					counts			= new int[INITIAL_CAPACITY];
+		private int						occurrences;
+		private double					countLogCount;
+
+		/**
+		 * @return false if the count would have become negative, in which case nothing is changed
+		 */
+		synchronized boolean increment(Gene gene, int delta) {
+			Integer symbolIndex = this.symbolIndices.get(gene);
+
+			if (symbolIndex == null) {
+				symbolIndex = this.symbolIndices.size();
+				this.symbolIndices.put(gene, symbolIndex);
+			}
+
+			if (symbolIndex >= this.counts.length) {
+				this.counts = Arrays.copyOf(this.counts, Math.max(symbolIndex + 1, this.counts.length * 2));
+			}
+
+			int previousCount = this.counts[symbolIndex];
+			int count = previousCount + delta;
+
+			if (count < 0) {
+				return false;
+			}
+
+			this.counts[symbolIndex] = count;
+			this.countLogCount += countLogCount(count) - countLogCount(previousCount);
+			this.occurrences += delta;
+
+			return true;
+		}
+	}
+
+	/**
+	 * @param chromosome
+	 *            the individual which has been added to the population
+	 */
+	@SuppressWarnings("unchecked")
+	public void add(Chromosome chromosome) {
+		if (!(chromosome instanceof KeyedChromosome)) {
+			untrackedIndividuals.increment();
+
+			return;
+		}
+
+		for (Map.Entry<Object, Gene> entry : ((KeyedChromosome<Object>) chromosome).getGenes().entrySet()) {
+			increment(entry.getKey(), entry.getValue(), 1);
+		}
+	}
+
+	/**
+	 * @param chromosome
+	 *            the individual which has been removed from the population
+	 */
+	@SuppressWarnings("unchecked")
+	public void remove(Chromosome chromosome) {
+		if (!(chromosome instanceof KeyedChromosome)) {
+			untrackedIndividuals.decrement();
+
+			return;
+		}
+
+		for (Map.Entry<Object, Gene> entry : ((KeyedChromosome<Object>) chromosome).getGenes().entrySet()) {
+			increment(entry.getKey(), entry.getValue(), -1);
+		}
+	}
+
+	/**
+	 * @param key
+	 *            the key of the Gene which was replaced
+	 * @param oldGene
+	 *            the Gene which was replaced, or null if there was none
+	 * @param newGene
+	 *            the replacement Gene
+	 */
+	public void replace(Object key, Gene oldGene, Gene newGene) {
+		if (oldGene != null) {
+			increment(key, oldGene, -1);
+		}
+
+		increment(key, newGene, 1);
+	}
+
+	/**
+	 * This must not be called concurrently with any other method.
+	 */
+	public void clear() {
+		this.keyCounts.clear();
+		this.untrackedIndividuals.reset();
+	}
+
+	/**
+	 * Equivalent to {@link Population#calculateEntropy()} for the tracked individuals.
+	 * 
+	 * @param populationSize
+	 *            the number of individuals in the population
+	 * @return the average Shannon entropy among the Gene keys
+	 */
+	public BigDecimal calculateEntropy(int populationSize) {
+		if (this.untrackedIndividuals.sum() > 0) {
+			throw new UnsupportedOperationException(
+					"Calculation of entropy is currently only supported for KeyedChromosome types.");
+		}
+
+		double logPopulationSize = Math.log(populationSize);
+		double totalEntropy = 0.0;
+		int activeKeys = 0;
+
+		/*
+		 * With p = count / populationSize, the sum of p * ln(p) for a key reduces to (sum of count * ln(count) -
+		 * occurrences * ln(populationSize)) / populationSize.
+		 */
+		for (KeyCounts counts : this.keyCounts.values()) {
+			synchronized (counts) {
+				if (counts.occurrences > 0) {
+					activeKeys++;
+
+					totalEntropy += (counts.countLogCount - (counts.occurrences * logPopulationSize)) / populationSize;
+				}
+			}
+		}
+
+		if (activeKeys == 0) {
+			return BigDecimal.ZERO;
+		}
+
+		// Convert to the same base as the full calculation, which is the number of keys
+		totalEntropy /= Math.log(activeKeys);
+
+		totalEntropy *= -1.0;
+
+		// return the average entropy among the symbols
+		return BigDecimal.valueOf(totalEntropy / (double) activeKeys);
+	}
+
+	private void increment(Object key, Gene gene, int delta) {
+		KeyCounts counts = this.keyCounts.get(key);
+
+		if (counts == null) {
+			counts = this.keyCounts.computeIfAbsent(key, k -> new KeyCounts());
+		}
+
+		if (!counts.increment(gene, delta)) {
+			log.warn("Attempted to remove a Gene from the entropy tracker which was never added.  Ignoring.");
+		}
+	}
+
+	private static double countLogCount(int count) {
+		return (count == 0) ? 0.0 : count * Math.log(count);
+	}
+}
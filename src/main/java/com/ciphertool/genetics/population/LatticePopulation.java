@@ -20,7 +20,9 @@
 package com.ciphertool.genetics.population;
 
 import java.math.BigDecimal;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -36,6 +38,7 @@ import com.ciphertool.genetics.Breeder;
 import com.ciphertool.genetics.ChromosomePrinter;
 import com.ciphertool.genetics.algorithms.selection.modes.Selector;
 import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.Gene;
 import com.ciphertool.genetics.entities.SpatialChromosome;
 import com.ciphertool.genetics.entities.statistics.GenerationStatistics;
 import com.ciphertool.genetics.fitness.FitnessComparator;
@@ -46,10 +49,13 @@ public class LatticePopulation implements Population {
 	private Breeder					breeder;
 	private SpatialChromosome[][]	individuals;
 	private SpatialChromosome[][]	backup;
+	private boolean					backupCurrent;
+	private SpatialChromosome[][]	nextGeneration;
 	private FitnessEvaluator		fitnessEvaluator;
 	private FitnessComparator		fitnessComparator;
 	private Selector				selector;
-	private BigDecimal				totalFitness						= BigDecimal.ZERO;
+	private double					totalFitness						= 0.0;
+	private BigDecimal				exactTotalFitness					= BigDecimal.ZERO;
 	private TaskExecutor			taskExecutor;
 	private ChromosomePrinter		chromosomePrinter;
 	private FitnessEvaluator		knownSolutionFitnessEvaluator;
@@ -59,8 +65,26 @@ public class LatticePopulation implements Population {
 	private int						latticeRows;
 	private int						latticeColumns;
 	private int						maxToPrint;
+	private EntropyTracker			entropyTracker;
+	private static final boolean	TOROIDAL_DEFAULT					= false;
+	private boolean					toroidal							= TOROIDAL_DEFAULT;
+	private NeighborhoodShape		neighborhoodShape					= NeighborhoodShape.MOORE;
+	private static final int		NEIGHBORHOOD_RADIUS_DEFAULT			= 1;
+	private int						neighborhoodRadius					= NEIGHBORHOOD_RADIUS_DEFAULT;
+
+	/*
+	 * These are precomputed whenever the lattice dimensions or the neighborhood change. The wrapped lookups map a row
+	 * or column offset by up to the radius in either direction back onto the torus, so that no boundary checks are
+	 * needed when the lattice is toroidal.
+	 */
+	private int[]					neighborRowOffsets					= new int[0];
+	private int[]					neighborColumnOffsets				= new int[0];
+	private int[]					wrappedRows							= new int[0];
+	private int[]					wrappedColumns						= new int[0];
+	private final ThreadLocal<Neighborhood>	neighborhoods				= ThreadLocal.withInitial(Neighborhood::new);
 
 	public LatticePopulation() {
+		computeNeighborhood();
 	}
 
 	/**
@@ -88,6 +112,10 @@ public class LatticePopulation implements Population {
 	public int breed() {
 		individuals = new SpatialChromosome[latticeRows][latticeColumns];
 
+		if (this.entropyTracker != null) {
+			this.entropyTracker.clear();
+		}
+
 		List<FutureTask<SpatialChromosome>> futureTasks = new ArrayList<FutureTask<SpatialChromosome>>();
 		FutureTask<SpatialChromosome> futureTask = null;
 
@@ -136,7 +164,7 @@ public class LatticePopulation implements Population {
 
 		@Override
 		public Void call() throws Exception {
-			this.chromosome.setFitness(fitnessEvaluator.evaluate(this.chromosome));
+			FitnessEvaluator.evaluateAndSetFitness(fitnessEvaluator, this.chromosome);
 
 			return null;
 		}
@@ -192,28 +220,30 @@ public class LatticePopulation implements Population {
 	public Chromosome evaluateFitness(GenerationStatistics generationStatistics) throws InterruptedException {
 		this.doConcurrentFitnessEvaluations();
 
-		this.totalFitness = BigDecimal.ZERO;
+		this.totalFitness = 0.0;
+		this.exactTotalFitness = null;
 
 		Chromosome bestFitIndividual = null;
 		Chromosome individual = null;
+		double bestFitness = 0.0;
+		double fitness;
 
 		for (int x = 0; x < latticeRows; x++) {
 			for (int y = 0; y < latticeColumns; y++) {
 				individual = this.individuals[x][y];
+				fitness = individual.getFitnessAsDouble();
 
-				this.totalFitness = this.totalFitness.add(individual.getFitness());
+				this.totalFitness += fitness;
 
-				if (bestFitIndividual == null
-						|| individual.getFitness().compareTo(bestFitIndividual.getFitness()) > 0) {
+				if (bestFitIndividual == null || fitness > bestFitness) {
 					bestFitIndividual = individual;
+					bestFitness = fitness;
 				}
 			}
 		}
 
-		BigDecimal averageFitness = this.totalFitness.divide(BigDecimal.valueOf(latticeRows * latticeColumns));
-
 		if (generationStatistics != null) {
-			generationStatistics.setAverageFitness(averageFitness);
+			generationStatistics.setAverageFitness(BigDecimal.valueOf(this.totalFitness / (latticeRows * latticeColumns)));
 			generationStatistics.setBestFitness(bestFitIndividual.getFitness());
 
 			if (this.compareToKnownSolution) {
@@ -229,123 +259,129 @@ public class LatticePopulation implements Population {
 		return bestFitIndividual;
 	}
 
-	/*
-	 * This method depends on the totalFitness and individuals' fitness being accurately maintained. Returns the chosen
-	 * Chromosome.
+	/**
+	 * A reusable view of the individuals surrounding a cell, so that selecting from a neighborhood does not allocate.
+	 * An individual can be excluded from the view once chosen, so that subsequent selections are distinct.
 	 */
-	public Chromosome selectIndex(int row, int column) {
-		List<Chromosome> nearbyIndividuals = new ArrayList<Chromosome>();
+	protected class Neighborhood extends AbstractList<Chromosome> {
+		private int[]	rows	= new int[0];
+		private int[]	columns	= new int[0];
+		private int		size;
+		private double	totalFitness;
+
+		protected void reset(int row, int column) {
+			if (this.rows.length != neighborRowOffsets.length) {
+				this.rows = new int[neighborRowOffsets.length];
+				this.columns = new int[neighborRowOffsets.length];
+			}
 
-		// immediately above
-		if (row > 0) {
-			nearbyIndividuals.add(this.individuals[row - 1][column]);
-		}
+			this.size = 0;
+			this.totalFitness = 0.0;
 
-		// top-right diagonal
-		if (row > 0 && column < this.individuals[row - 1].length - 1) {
-			nearbyIndividuals.add(this.individuals[row - 1][column + 1]);
-		}
+			int neighborRow;
+			int neighborColumn;
 
-		// immediate right
-		if (column < this.individuals[row].length - 1) {
-			nearbyIndividuals.add(this.individuals[row][column + 1]);
-		}
+			if (toroidal) {
+				for (int i = 0; i < neighborRowOffsets.length; i++) {
+					neighborRow = wrappedRows[row + neighborRowOffsets[i] + neighborhoodRadius];
+					neighborColumn = wrappedColumns[column + neighborColumnOffsets[i] + neighborhoodRadius];
 
-		// bottom-right diagonal
-		if (row < this.individuals.length - 1 && column < this.individuals[row + 1].length - 1) {
-			nearbyIndividuals.add(this.individuals[row + 1][column + 1]);
-		}
+					this.rows[i] = neighborRow;
+					this.columns[i] = neighborColumn;
+					this.totalFitness += individuals[neighborRow][neighborColumn].getFitnessAsDouble();
+				}
 
-		// immediately below
-		if (row < this.individuals.length - 1) {
-			nearbyIndividuals.add(this.individuals[row + 1][column]);
-		}
+				this.size = neighborRowOffsets.length;
 
-		// bottom-left diagonal
-		if (row < this.individuals.length - 1 && column > 0) {
-			nearbyIndividuals.add(this.individuals[row + 1][column - 1]);
-		}
+				return;
+			}
 
-		// immediate left
-		if (column > 0) {
-			nearbyIndividuals.add(this.individuals[row][column - 1]);
-		}
+			for (int i = 0; i < neighborRowOffsets.length; i++) {
+				neighborRow = row + neighborRowOffsets[i];
+				neighborColumn = column + neighborColumnOffsets[i];
 
-		// top-left diagonal
-		if (row > 0 && column > 0) {
-			nearbyIndividuals.add(this.individuals[row - 1][column - 1]);
-		}
+				if (neighborRow < 0 || neighborRow >= latticeRows || neighborColumn < 0
+						|| neighborColumn >= latticeColumns) {
+					continue;
+				}
 
-		BigDecimal subsetFitness = BigDecimal.ZERO;
-		for (Chromosome individual : nearbyIndividuals) {
-			subsetFitness = subsetFitness.add(individual.getFitness());
+				this.rows[this.size] = neighborRow;
+				this.columns[this.size] = neighborColumn;
+				this.totalFitness += individuals[neighborRow][neighborColumn].getFitnessAsDouble();
+				this.size++;
+			}
 		}
 
-		int index = this.selector.getNextIndex(nearbyIndividuals, subsetFitness);
-
-		return nearbyIndividuals.get(index);
-	}
+		protected SpatialChromosome exclude(int index) {
+			SpatialChromosome excluded = get(index);
 
-	public List<SpatialChromosome> selectIndices(int row, int column) {
-		List<SpatialChromosome> selectedIndividuals = new ArrayList<SpatialChromosome>();
-		List<Chromosome> nearbyIndividuals = new ArrayList<Chromosome>();
+			this.totalFitness -= excluded.getFitnessAsDouble();
+			this.size--;
 
-		// immediately above
-		if (row > 0) {
-			nearbyIndividuals.add(this.individuals[row - 1][column]);
-		}
+			// Order is irrelevant to the Selector, so the last neighbor simply takes the place of the excluded one
+			this.rows[index] = this.rows[this.size];
+			this.columns[index] = this.columns[this.size];
 
-		// top-right diagonal
-		if (row > 0 && column < this.individuals[row - 1].length - 1) {
-			nearbyIndividuals.add(this.individuals[row - 1][column + 1]);
+			return excluded;
 		}
 
-		// immediate right
-		if (column < this.individuals[row].length - 1) {
-			nearbyIndividuals.add(this.individuals[row][column + 1]);
-		}
-
-		// bottom-right diagonal
-		if (row < this.individuals.length - 1 && column < this.individuals[row + 1].length - 1) {
-			nearbyIndividuals.add(this.individuals[row + 1][column + 1]);
-		}
+		@Override
+		public SpatialChromosome get(int index) {
+			if (index < 0 || index >= this.size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+			}
 
-		// immediately below
-		if (row < this.individuals.length - 1) {
-			nearbyIndividuals.add(this.individuals[row + 1][column]);
+			return individuals[this.rows[index]][this.columns[index]];
 		}
 
-		// bottom-left diagonal
-		if (row < this.individuals.length - 1 && column > 0) {
-			nearbyIndividuals.add(this.individuals[row + 1][column - 1]);
+		@Override
+		public int size() {
+			return this.size;
 		}
 
-		// immediate left
-		if (column > 0) {
-			nearbyIndividuals.add(this.individuals[row][column - 1]);
+		/**
+		 * @return the total fitness of the individuals in this view
+		 */
+		public double getTotalFitness() {
+			return this.totalFitness;
 		}
+	}
 
-		// top-left diagonal
-		if (row > 0 && column > 0) {
-			nearbyIndividuals.add(this.individuals[row - 1][column - 1]);
-		}
+	/*
+	 * This method depends on the totalFitness and individuals' fitness being accurately maintained. Returns the chosen
+	 * Chromosome.
+	 */
+	public Chromosome selectIndex(int row, int column) {
+		Neighborhood neighborhood = this.neighborhoods.get();
+		neighborhood.reset(row, column);
 
-		BigDecimal subsetFitness = BigDecimal.ZERO;
-		for (Chromosome individual : nearbyIndividuals) {
-			subsetFitness = subsetFitness.add(individual.getFitness());
-		}
+		return neighborhood.get(this.selector.getNextIndex(neighborhood, neighborhood.getTotalFitness()));
+	}
 
-		int index = this.selector.getNextIndex(nearbyIndividuals, subsetFitness);
+	public List<SpatialChromosome> selectIndices(int row, int column) {
+		SpatialChromosome[] parents = new SpatialChromosome[2];
 
-		selectedIndividuals.add((SpatialChromosome) nearbyIndividuals.get(index));
+		selectParents(row, column, parents);
 
-		subsetFitness = subsetFitness.subtract(nearbyIndividuals.get(index).getFitness());
-		nearbyIndividuals.remove(index);
+		return Arrays.asList(parents);
+	}
 
-		index = this.selector.getNextIndex(nearbyIndividuals, subsetFitness);
-		selectedIndividuals.add((SpatialChromosome) nearbyIndividuals.get(index));
+	/**
+	 * Selects two distinct neighbors of the given cell without allocating.
+	 * 
+	 * @param row
+	 *            the row of the cell
+	 * @param column
+	 *            the column of the cell
+	 * @param parents
+	 *            an array of at least two elements into which the selected individuals are written
+	 */
+	public void selectParents(int row, int column, SpatialChromosome[] parents) {
+		Neighborhood neighborhood = this.neighborhoods.get();
+		neighborhood.reset(row, column);
 
-		return selectedIndividuals;
+		parents[0] = neighborhood.exclude(this.selector.getNextIndex(neighborhood, neighborhood.getTotalFitness()));
+		parents[1] = neighborhood.get(this.selector.getNextIndex(neighborhood, neighborhood.getTotalFitness()));
 	}
 
 	/**
@@ -376,13 +412,84 @@ public class LatticePopulation implements Population {
 			return null;
 		}
 
-		this.totalFitness = this.totalFitness.subtract(this.individuals[row][column].getFitness());
+		this.totalFitness -= this.individuals[row][column].getFitnessAsDouble();
+		this.exactTotalFitness = null;
+
+		if (this.entropyTracker != null) {
+			this.entropyTracker.remove(this.individuals[row][column]);
+		}
 
 		return this.individuals[row][column] = null;
 	}
 
+	/**
+	 * @param incrementalEntropy
+	 *            whether to maintain the symbol counts needed for entropy incrementally, rather than rescanning the
+	 *            whole population each time it is calculated
+	 */
+	public void setIncrementalEntropy(boolean incrementalEntropy) {
+		if (!incrementalEntropy) {
+			this.entropyTracker = null;
+
+			return;
+		}
+
+		this.entropyTracker = new EntropyTracker();
+
+		if (this.individuals != null) {
+			for (int x = 0; x < latticeRows; x++) {
+				for (int y = 0; y < latticeColumns; y++) {
+					if (this.individuals[x][y] != null) {
+						this.entropyTracker.add(this.individuals[x][y]);
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public BigDecimal calculateEntropy() {
+		if (this.entropyTracker == null) {
+			return Population.super.calculateEntropy();
+		}
+
+		return this.entropyTracker.calculateEntropy(this.size());
+	}
+
+	@Override
+	public BigDecimal estimateEntropy(int sampleSize) {
+		int cells = latticeRows * latticeColumns;
+
+		if (this.entropyTracker != null || sampleSize >= cells) {
+			return calculateEntropy();
+		}
+
+		// Sample the cells directly rather than going through getIndividuals(), which copies and sorts the lattice
+		List<Chromosome> sample = new ArrayList<Chromosome>(sampleSize);
+
+		for (int cell : Population.sampleIndices(cells, sampleSize)) {
+			sample.add(this.individuals[cell / latticeColumns][cell % latticeColumns]);
+		}
+
+		return Population.calculateEntropy(sample);
+	}
+
+	@Override
+	public void geneReplaced(Object key, Gene oldGene, Gene newGene) {
+		if (this.entropyTracker != null) {
+			this.entropyTracker.replace(key, oldGene, newGene);
+		}
+	}
+
 	@Override
 	public void recoverFromBackup() {
+		if (!this.backupCurrent) {
+			// The generation was built in the next generation buffer, so the individuals are still complete
+			log.info("Attempted to recover from backup, but no backup was taken this generation.  Nothing to do.");
+
+			return;
+		}
+
 		if (this.backup == null || this.backup.length == 0 || this.backup[0].length == 0) {
 			log.info("Attempted to recover from backup, but backup was empty.  Nothing to do.");
 
@@ -396,20 +503,100 @@ public class LatticePopulation implements Population {
 
 	@Override
 	public void backupIndividuals() {
-		this.backup = new SpatialChromosome[latticeRows][latticeColumns];
+		if (!fitsLattice(this.backup)) {
+			this.backup = new SpatialChromosome[latticeRows][latticeColumns];
+		}
+
+		for (int x = 0; x < latticeRows; x++) {
+			System.arraycopy(this.individuals[x], 0, this.backup[x], 0, latticeColumns);
+		}
+
+		this.backupCurrent = true;
+	}
+
+	/**
+	 * Marks any earlier backup as no longer applying. This is for generations which are built in
+	 * {@link #getNextGeneration()}, since the individuals are left untouched until {@link #swapGenerations()}, so a
+	 * recovery must keep them rather than restore an older generation.
+	 */
+	public void discardBackup() {
+		this.backupCurrent = false;
+	}
+
+	private boolean fitsLattice(SpatialChromosome[][] buffer) {
+		return buffer != null && buffer.length == latticeRows
+				&& (latticeRows == 0 || buffer[0].length == latticeColumns);
+	}
+
+	/**
+	 * The second buffer of the lattice, kept apart from the backup. It is allocated once and then reused, so it still
+	 * contains whatever it held previously.
+	 * 
+	 * @return the buffer into which the next generation can be written
+	 */
+	public SpatialChromosome[][] getNextGeneration() {
+		if (!fitsLattice(this.nextGeneration)) {
+			this.nextGeneration = new SpatialChromosome[latticeRows][latticeColumns];
+		}
+
+		return this.nextGeneration;
+	}
+
+	/**
+	 * Swaps in the next generation once it has been completely written into {@link #getNextGeneration()}, so that no
+	 * copy is necessary. The previous generation's buffer is then reused for the generation after.
+	 */
+	public void swapGenerations() {
+		SpatialChromosome[][] previous = this.individuals;
+		this.individuals = getNextGeneration();
+		this.nextGeneration = previous;
+
+		this.totalFitness = 0.0;
+		this.exactTotalFitness = null;
+
+		// Every cell holds a new individual, so the entropy counts are rebuilt rather than updated
+		if (this.entropyTracker != null) {
+			this.entropyTracker.clear();
+		}
 
 		for (int x = 0; x < latticeRows; x++) {
 			for (int y = 0; y < latticeColumns; y++) {
-				backup[x][y] = this.individuals[x][y];
+				this.totalFitness += this.individuals[x][y].getFitnessAsDouble();
+
+				if (this.entropyTracker != null) {
+					this.entropyTracker.add(this.individuals[x][y]);
+				}
 			}
 		}
 	}
 
+	/**
+	 * Evaluates a single individual on the calling thread, if it needs evaluation.
+	 * 
+	 * @param individual
+	 *            the individual to evaluate
+	 * @return whether an evaluation was carried out
+	 */
+	public boolean evaluateIndividual(Chromosome individual) {
+		if (!individual.isEvaluationNeeded()) {
+			return false;
+		}
+
+		FitnessEvaluator.evaluateAndSetFitness(this.fitnessEvaluator, individual);
+
+		return true;
+	}
+
 	@Override
 	public void clearIndividuals() {
 		this.individuals = new SpatialChromosome[latticeRows][latticeColumns];
 
-		this.totalFitness = BigDecimal.ZERO;
+		this.totalFitness = 0.0;
+		this.exactTotalFitness = BigDecimal.ZERO;
+
+		if (this.entropyTracker != null) {
+			this.entropyTracker.clear();
+		}
 	}
 
 	public void addAllIndividuals(SpatialChromosome[][] individuals) {
@@ -424,11 +611,22 @@ public class LatticePopulation implements Population {
 	 * @param individual
 	 */
 	public boolean addIndividual(SpatialChromosome individual) {
+		SpatialChromosome previous = this.individuals[individual.getXPos()][individual.getYPos()];
+
 		this.individuals[individual.getXPos()][individual.getYPos()] = individual;
 
 		individual.setPopulation(this);
 
-		this.totalFitness = this.totalFitness.add(individual.getFitness());
+		this.totalFitness += individual.getFitnessAsDouble();
+		this.exactTotalFitness = null;
+
+		if (this.entropyTracker != null) {
+			if (previous != null) {
+				this.entropyTracker.remove(previous);
+			}
+
+			this.entropyTracker.add(individual);
+		}
 
 		return individual.isEvaluationNeeded();
 	}
@@ -491,10 +689,39 @@ public class LatticePopulation implements Population {
 		// Nothing to do
 	}
 
+	private static BigDecimal fitnessOf(Chromosome individual) {
+		return individual.getFitness() == null ? BigDecimal.ZERO : individual.getFitness();
+	}
+
 	/**
+	 * The exact total is summed again on demand after any change to the individuals or their fitness, so that adding,
+	 * removing and evaluating individuals stay on the primitive channel. Use {@link #getTotalFitnessAsDouble()} on hot
+	 * paths.
+	 * 
 	 * @return the totalFitness
 	 */
 	public BigDecimal getTotalFitness() {
+		if (this.exactTotalFitness == null) {
+			BigDecimal total = BigDecimal.ZERO;
+
+			for (int x = 0; x < latticeRows; x++) {
+				for (int y = 0; y < latticeColumns; y++) {
+					if (this.individuals[x][y] != null) {
+						total = total.add(fitnessOf(this.individuals[x][y]));
+					}
+				}
+			}
+
+			this.exactTotalFitness = total;
+		}
+
+		return this.exactTotalFitness;
+	}
+
+	/**
+	 * @return the totalFitness as a primitive double
+	 */
+	public double getTotalFitnessAsDouble() {
 		return this.totalFitness;
 	}
 
@@ -593,6 +820,91 @@ public class LatticePopulation implements Population {
 
 		this.latticeColumns = sqrt;
 		this.latticeRows = sqrt;
+
+		computeNeighborhood();
+	}
+
+	protected void computeNeighborhood() {
+		if (this.toroidal && this.latticeRows > 0 && (this.latticeRows <= this.neighborhoodRadius * 2
+				|| this.latticeColumns <= this.neighborhoodRadius * 2)) {
+			throw new IllegalArgumentException("A toroidal lattice of " + this.latticeRows + "x" + this.latticeColumns
+					+ " is too small for a neighborhood radius of " + this.neighborhoodRadius
+					+ ", as the neighborhood would wrap onto itself.");
+		}
+
+		int diameter = (this.neighborhoodRadius * 2) + 1;
+		int[] rowOffsets = new int[diameter * diameter];
+		int[] columnOffsets = new int[diameter * diameter];
+		int count = 0;
+
+		for (int rowOffset = -this.neighborhoodRadius; rowOffset <= this.neighborhoodRadius; rowOffset++) {
+			for (int columnOffset = -this.neighborhoodRadius; columnOffset <= this.neighborhoodRadius; columnOffset++) {
+				if (this.neighborhoodShape.contains(rowOffset, columnOffset, this.neighborhoodRadius)) {
+					rowOffsets[count] = rowOffset;
+					columnOffsets[count] = columnOffset;
+					count++;
+				}
+			}
+		}
+
+		this.neighborRowOffsets = Arrays.copyOf(rowOffsets, count);
+		this.neighborColumnOffsets = Arrays.copyOf(columnOffsets, count);
+		this.wrappedRows = wrap(this.latticeRows, this.neighborhoodRadius);
+		this.wrappedColumns = wrap(this.latticeColumns, this.neighborhoodRadius);
+	}
+
+	private static int[] wrap(int length, int radius) {
+		if (length == 0) {
+			return new int[0];
+		}
+
+		int[] wrapped = new int[length + (radius * 2)];
+
+		for (int i = 0; i < wrapped.length; i++) {
+			wrapped[i] = Math.floorMod(i - radius, length);
+		}
+
+		return wrapped;
+	}
+
+	/**
+	 * @param toroidal
+	 *            whether the edges of the lattice wrap around to the opposite side
+	 */
+	public void setToroidal(boolean toroidal) {
+		this.toroidal = toroidal;
+
+		computeNeighborhood();
+	}
+
+	/**
+	 * @param neighborhoodShape
+	 *            the neighborhoodShape to set
+	 */
+	public void setNeighborhoodShape(NeighborhoodShape neighborhoodShape) {
+		if (neighborhoodShape == null) {
+			throw new IllegalArgumentException("The neighborhoodShape for " + getClass().getSimpleName()
+					+ " cannot be null.");
+		}
+
+		this.neighborhoodShape = neighborhoodShape;
+
+		computeNeighborhood();
+	}
+
+	/**
+	 * @param neighborhoodRadius
+	 *            the neighborhoodRadius to set
+	 */
+	public void setNeighborhoodRadius(int neighborhoodRadius) {
+		if (neighborhoodRadius < 1) {
+			throw new IllegalArgumentException("Tried to set a neighborhoodRadius of " + neighborhoodRadius
+					+ ", but " + getClass().getSimpleName() + " requires a neighborhoodRadius of at least 1.");
+		}
+
+		this.neighborhoodRadius = neighborhoodRadius;
+
+		computeNeighborhood();
 	}
 
 	/**
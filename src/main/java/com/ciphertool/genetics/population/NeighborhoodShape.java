@@ -0,0 +1,47 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.population;
+
+/**
+ * The shape of the neighborhood from which an individual in a LatticePopulation selects its parents.
+ */
+public enum NeighborhoodShape {
+	/**
+	 * Every cell within the radius in both dimensions, i.e. the square surrounding the cell.
+	 */
+	MOORE,
+
+	/**
+	 * Every cell within the radius in Manhattan distance, i.e. the diamond surrounding the cell.
+	 */
+	VON_NEUMANN;
+
+	protected boolean contains(int rowOffset, int columnOffset, int radius) {
+		if (rowOffset == 0 && columnOffset == 0) {
+			return false;
+		}
+
+		if (this == VON_NEUMANN) {
+			return Math.abs(rowOffset) + Math.abs(columnOffset) <= radius;
+		}
+
+		return Math.abs(rowOffset) <= radius && Math.abs(columnOffset) <= radius;
+	}
+}
@@ -20,13 +20,18 @@
 package com.ciphertool.genetics.population;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 import com.ciphertool.genetics.algorithms.selection.modes.Selector;
 import com.ciphertool.genetics.entities.Chromosome;
 import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.entities.IndexedChromosome;
 import com.ciphertool.genetics.entities.KeyedChromosome;
 import com.ciphertool.genetics.entities.statistics.GenerationStatistics;
 import com.ciphertool.genetics.fitness.FitnessEvaluator;
@@ -123,13 +128,88 @@ public interface Population {
 	 */
 	public void setSelector(Selector selector);
 
-	@SuppressWarnings({ "unchecked" })
+	/**
+	 * Called when a Gene of one of this Population's individuals has been replaced in place, so that any statistics
+	 * maintained incrementally can be updated. The default implementation does nothing.
+	 * 
+	 * @param key
+	 *            the key of the Gene which was replaced
+	 * @param oldGene
+	 *            the Gene which was replaced
+	 * @param newGene
+	 *            the replacement Gene
+	 */
+	default void geneReplaced(Object key, Gene oldGene, Gene newGene) {
+	}
+
 	default BigDecimal calculateEntropy() {
-		if (!(this.getIndividuals().get(0) instanceof KeyedChromosome)) {
+		return calculateEntropy(this.getIndividuals());
+	}
+
+	/**
+	 * Estimates the entropy from a random sample of individuals rather than the whole population, which is much
+	 * cheaper for large populations when only the trend is of interest.
+	 * 
+	 * @param sampleSize
+	 *            the number of individuals to sample
+	 * @return the estimated entropy, which is exact if the sample size is at least the size of the population
+	 */
+	default BigDecimal estimateEntropy(int sampleSize) {
+		List<Chromosome> individuals = this.getIndividuals();
+
+		if (sampleSize >= individuals.size()) {
+			return calculateEntropy(individuals);
+		}
+
+		List<Chromosome> sample = new ArrayList<Chromosome>(sampleSize);
+
+		for (int index : sampleIndices(individuals.size(), sampleSize)) {
+			sample.add(individuals.get(index));
+		}
+
+		return calculateEntropy(sample);
+	}
+
+	/**
+	 * Chooses distinct indices uniformly at random using Floyd's algorithm, which takes time proportional to the
+	 * sample size rather than the population size.
+	 * 
+	 * @param populationSize
+	 *            the number of indices to choose from
+	 * @param sampleSize
+	 *            the number of indices to choose, which must not exceed the populationSize
+	 * @return the chosen indices, in no particular order
+	 */
+	static int[] sampleIndices(int populationSize, int sampleSize) {
+		Set<Integer> chosen = new HashSet<Integer>();
+		int[] indices = new int[sampleSize];
+		int count = 0;
+
+		for (int i = populationSize - sampleSize; i < populationSize; i++) {
+			int candidate = ThreadLocalRandom.current().nextInt(i + 1);
+
+			if (!chosen.add(candidate)) {
+				chosen.add(i);
+				candidate = i;
+			}
+
+			indices[count++] = candidate;
+		}
+
+		return indices;
+	}
+
+	@SuppressWarnings({ "unchecked" })
+	static BigDecimal calculateEntropy(List<Chromosome> individuals) {
+		if (!(individuals.get(0) instanceof KeyedChromosome)) {
 			throw new UnsupportedOperationException(
 					"Calculation of entropy is currently only supported for KeyedChromosome types.");
 		}
 
+		if (sharesGeneIndex(individuals)) {
+			return calculateIndexedEntropy(individuals);
+		}
+
 		Map<Object, Map<Object, Integer>> symbolCounts = new HashMap<Object, Map<Object, Integer>>();
 
 		Object geneKey;
@@ -138,7 +218,7 @@ public interface Population {
 		Map<Object, Integer> symbolCountMap;
 
 		// Count occurrences of each Gene value
-		for (Chromosome chromosome : this.getIndividuals()) {
+		for (Chromosome chromosome : individuals) {
 			for (Map.Entry<Object, Gene> entry : ((KeyedChromosome<Object>) chromosome).getGenes().entrySet()) {
 				geneKey = entry.getKey();
 
@@ -159,7 +239,7 @@ public interface Population {
 
 		Map<Object, Map<Object, Double>> symbolProbabilities = new HashMap<Object, Map<Object, Double>>();
 
-		double populationSize = (double) this.size();
+		double populationSize = (double) individuals.size();
 
 		Map<Object, Double> probabilityMap;
 
@@ -191,6 +271,80 @@ public interface Population {
 		return BigDecimal.valueOf(totalEntropy / (double) symbolProbabilities.size());
 	}
 
+	static boolean sharesGeneIndex(List<Chromosome> individuals) {
+		Chromosome first = individuals.get(0);
+
+		for (Chromosome chromosome : individuals) {
+			if (!IndexedChromosome.sharesGeneIndex(first, chromosome)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Calculates the same entropy as {@link #calculateEntropy(List)}, but walks the Genes by position so that no key
+	 * is hashed and no entry set is iterated.
+	 * 
+	 * @param individuals
+	 *            the individuals, all of which must share a GeneIndex
+	 * @return the average entropy among the Gene positions
+	 */
+	static BigDecimal calculateIndexedEntropy(List<Chromosome> individuals) {
+		int positions = ((IndexedChromosome<?>) individuals.get(0)).getGeneIndex().size();
+
+		List<Map<Gene, Integer>> symbolCounts = new ArrayList<Map<Gene, Integer>>(positions);
+
+		for (int i = 0; i < positions; i++) {
+			symbolCounts.add(new HashMap<Gene, Integer>());
+		}
+
+		Gene gene;
+		Integer currentCount;
+
+		// Count occurrences of each Gene value
+		for (Chromosome chromosome : individuals) {
+			IndexedChromosome<?> indexed = (IndexedChromosome<?>) chromosome;
+
+			for (int i = 0; i < positions; i++) {
+				gene = indexed.getGeneAt(i);
+
+				if (gene != null) {
+					currentCount = symbolCounts.get(i).get(gene);
+
+					symbolCounts.get(i).put(gene, (currentCount != null) ? (currentCount + 1) : 1);
+				}
+			}
+		}
+
+		int base = 0;
+
+		for (Map<Gene, Integer> symbolCountMap : symbolCounts) {
+			if (!symbolCountMap.isEmpty()) {
+				base++;
+			}
+		}
+
+		double populationSize = (double) individuals.size();
+		double totalEntropy = 0.0;
+		double probability;
+
+		// Calculate the Shannon entropy of each Gene independently, and add it to the total entropy value
+		for (Map<Gene, Integer> symbolCountMap : symbolCounts) {
+			for (Integer count : symbolCountMap.values()) {
+				probability = (double) count / populationSize;
+
+				totalEntropy += (probability * logBase(probability, base));
+			}
+		}
+
+		totalEntropy *= -1.0;
+
+		// return the average entropy among the symbols
+		return BigDecimal.valueOf(totalEntropy / (double) base);
+	}
+
 	// Use the change of base formula to calculate the logarithm with an arbitrary base
 	static double logBase(double num, int base) {
 		return (Math.log(num) / Math.log(base));
@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,8 +35,10 @@ import org.springframework.core.task.TaskExecutor;
 
 import com.ciphertool.genetics.Breeder;
 import com.ciphertool.genetics.ChromosomePrinter;
+import com.ciphertool.genetics.algorithms.selection.modes.IncrementalSelector;
 import com.ciphertool.genetics.algorithms.selection.modes.Selector;
 import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.Gene;
 import com.ciphertool.genetics.entities.statistics.GenerationStatistics;
 import com.ciphertool.genetics.fitness.FitnessComparator;
 import com.ciphertool.genetics.fitness.FitnessEvaluator;
@@ -49,15 +52,20 @@ public class StandardPopulation implements Population {
 	private FitnessEvaluator		majorFitnessEvaluator;
 	private FitnessComparator		fitnessComparator;
 	private Selector				selector;
-	private BigDecimal				totalFitness						= BigDecimal.ZERO;
+	private double					totalFitness						= 0.0;
+	private BigDecimal				exactTotalFitness					= BigDecimal.ZERO;
 	private TaskExecutor			taskExecutor;
 	private ChromosomePrinter		chromosomePrinter;
 	private FitnessEvaluator		knownSolutionFitnessEvaluator;
 	private static final boolean	COMPARE_TO_KNOWN_SOLUTION_DEFAULT	= false;
 	private Boolean					compareToKnownSolution				= COMPARE_TO_KNOWN_SOLUTION_DEFAULT;
-	private boolean					stopRequested;
+	private static final int		BATCH_COUNT_DEFAULT					= Runtime.getRuntime().availableProcessors();
+	private int						batchCount							= BATCH_COUNT_DEFAULT;
+	private boolean					batchExecution;
+	private volatile boolean		stopRequested;
 	private int						targetSize;
 	private int						maxToPrint;
+	private EntropyTracker			entropyTracker;
 
 	public StandardPopulation() {
 	}
@@ -75,7 +83,37 @@ public class StandardPopulation implements Population {
 		}
 	}
 
+	/**
+	 * A concurrent task for generating a contiguous batch of brand new Chromosomes.
+	 */
+	protected class BatchGeneratorTask implements Callable<List<Chromosome>> {
+		private int count;
+
+		public BatchGeneratorTask(int count) {
+			this.count = count;
+		}
+
+		@Override
+		public List<Chromosome> call() throws Exception {
+			List<Chromosome> generated = new ArrayList<Chromosome>(count);
+
+			for (int i = 0; i < count; i++) {
+				if (stopRequested) {
+					break;
+				}
+
+				generated.add(breeder.breed());
+			}
+
+			return generated;
+		}
+	}
+
 	public int breed() {
+		if (batchExecution) {
+			return breedInBatches();
+		}
+
 		List<FutureTask<Chromosome>> futureTasks = new ArrayList<FutureTask<Chromosome>>();
 		FutureTask<Chromosome> futureTask = null;
 
@@ -110,6 +148,48 @@ public class StandardPopulation implements Population {
 		return individualsAdded;
 	}
 
+	protected int breedInBatches() {
+		int toGenerate = Math.max(0, targetSize - this.individuals.size());
+		int batches = Math.min(batchCount, toGenerate);
+
+		List<FutureTask<List<Chromosome>>> futureTasks = new ArrayList<FutureTask<List<Chromosome>>>(batches);
+		FutureTask<List<Chromosome>> futureTask = null;
+
+		for (int i = 0; i < batches; i++) {
+			// Spread the remainder across the first batches so that no batch differs in size by more than one
+			futureTask = new FutureTask<List<Chromosome>>(new BatchGeneratorTask((toGenerate / batches)
+					+ ((i < toGenerate % batches) ? 1 : 0)));
+			futureTasks.add(futureTask);
+
+			this.taskExecutor.execute(futureTask);
+		}
+
+		int individualsAdded = 0;
+		for (FutureTask<List<Chromosome>> future : futureTasks) {
+			if (stopRequested) {
+				return individualsAdded;
+			}
+
+			try {
+				for (Chromosome individual : future.get()) {
+					this.addIndividual(individual);
+
+					individualsAdded++;
+				}
+			} catch (InterruptedException ie) {
+				log.error("Caught InterruptedException while waiting for BatchGeneratorTask ", ie);
+			} catch (ExecutionException ee) {
+				log.error("Caught ExecutionException while waiting for BatchGeneratorTask ", ee);
+			}
+		}
+
+		if (log.isDebugEnabled()) {
+			log.debug("Added " + individualsAdded + " individuals to the population in " + batches + " batches.");
+		}
+
+		return individualsAdded;
+	}
+
 	/**
 	 * A concurrent task for evaluating the fitness of a Chromosome.
 	 */
@@ -124,7 +204,33 @@ public class StandardPopulation implements Population {
 
 		@Override
 		public Void call() throws Exception {
-			this.chromosome.setFitness(this.fitnessEvaluator.evaluate(this.chromosome));
+			FitnessEvaluator.evaluateAndSetFitness(this.fitnessEvaluator, this.chromosome);
+
+			return null;
+		}
+	}
+
+	/**
+	 * A concurrent task for evaluating the fitness of a contiguous batch of Chromosomes.
+	 */
+	protected class BatchEvaluationTask implements Callable<Void> {
+		private List<Chromosome>	chromosomes;
+		private FitnessEvaluator	fitnessEvaluator;
+
+		public BatchEvaluationTask(List<Chromosome> chromosomes, FitnessEvaluator fitnessEvaluator) {
+			this.chromosomes = chromosomes;
+			this.fitnessEvaluator = fitnessEvaluator;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			for (Chromosome chromosome : this.chromosomes) {
+				if (stopRequested) {
+					break;
+				}
+
+				FitnessEvaluator.evaluateAndSetFitness(this.fitnessEvaluator, chromosome);
+			}
 
 			return null;
 		}
@@ -138,12 +244,18 @@ public class StandardPopulation implements Population {
 	 */
 	protected int doConcurrentFitnessEvaluations(FitnessEvaluator fitnessEvaluator, Integer top, Boolean force)
 			throws InterruptedException {
+		if (batchExecution) {
+			return doBatchFitnessEvaluations(fitnessEvaluator, top, force);
+		}
+
 		List<FutureTask<Void>> futureTasks = new ArrayList<FutureTask<Void>>();
 		FutureTask<Void> futureTask = null;
 
 		int evaluationCount = 0;
 
 		int stop = (top == null || top <= 0) ? 0 : (this.individuals.size() - top);
+		int[] evaluatedIndices = (this.selector instanceof IncrementalSelector) ? new int[this.individuals.size()
+				- stop] : null;
 		Chromosome individual;
 
 		for (int i = this.individuals.size() - 1; i >= stop; i--) {
@@ -153,6 +265,10 @@ public class StandardPopulation implements Population {
 			 * Only evaluate individuals that have changed since the last evaluation.
 			 */
 			if (individual.isEvaluationNeeded() || (force != null && force)) {
+				if (evaluatedIndices != null) {
+					evaluatedIndices[evaluationCount] = i;
+				}
+
 				evaluationCount++;
 				futureTask = new FutureTask<Void>(new EvaluationTask(individual, fitnessEvaluator));
 				futureTasks.add(futureTask);
@@ -174,9 +290,103 @@ public class StandardPopulation implements Population {
 			}
 		}
 
+		updateSelector(evaluatedIndices, evaluationCount);
+
 		return evaluationCount;
 	}
 
+	/**
+	 * This method executes all the fitness evaluations concurrently, with each task evaluating a contiguous batch of
+	 * individuals rather than a single one.
+	 * 
+	 * @throws InterruptedException
+	 *             if stop is requested
+	 */
+	protected int doBatchFitnessEvaluations(FitnessEvaluator fitnessEvaluator, Integer top, Boolean force)
+			throws InterruptedException {
+		int stop = (top == null || top <= 0) ? 0 : (this.individuals.size() - top);
+		List<Chromosome> toEvaluate = new ArrayList<Chromosome>(this.individuals.size() - stop);
+		int[] evaluatedIndices = (this.selector instanceof IncrementalSelector) ? new int[this.individuals.size()
+				- stop] : null;
+		Chromosome individual;
+
+		for (int i = this.individuals.size() - 1; i >= stop; i--) {
+			individual = this.individuals.get(i);
+
+			/*
+			 * Only evaluate individuals that have changed since the last evaluation.
+			 */
+			if (individual.isEvaluationNeeded() || (force != null && force)) {
+				if (evaluatedIndices != null) {
+					evaluatedIndices[toEvaluate.size()] = i;
+				}
+
+				toEvaluate.add(individual);
+			}
+		}
+
+		int evaluationCount = toEvaluate.size();
+		int batches = Math.min(batchCount, evaluationCount);
+
+		List<FutureTask<Void>> futureTasks = new ArrayList<FutureTask<Void>>(batches);
+		FutureTask<Void> futureTask = null;
+
+		int begin = 0;
+		int end;
+		for (int i = 0; i < batches; i++) {
+			// Spread the remainder across the first batches so that no batch differs in size by more than one
+			end = begin + (evaluationCount / batches) + ((i < evaluationCount % batches) ? 1 : 0);
+
+			futureTask = new FutureTask<Void>(new BatchEvaluationTask(toEvaluate.subList(begin, end), fitnessEvaluator));
+			futureTasks.add(futureTask);
+			this.taskExecutor.execute(futureTask);
+
+			begin = end;
+		}
+
+		for (FutureTask<Void> future : futureTasks) {
+			if (stopRequested) {
+				throw new InterruptedException("Stop requested during concurrent fitness evaluations.");
+			}
+
+			try {
+				future.get();
+			} catch (InterruptedException ie) {
+				log.error("Caught InterruptedException while waiting for BatchEvaluationTask ", ie);
+			} catch (ExecutionException ee) {
+				log.error("Caught ExecutionException while waiting for BatchEvaluationTask ", ee);
+			}
+		}
+
+		if (stopRequested) {
+			throw new InterruptedException("Stop requested during concurrent fitness evaluations.");
+		}
+
+		updateSelector(evaluatedIndices, evaluationCount);
+
+		return evaluationCount;
+	}
+
+	/*
+	 * Pushes the new fitness of each evaluated individual to the Selector when it supports incremental updates, so
+	 * that it stays consistent without a full reIndex.
+	 */
+	protected void updateSelector(int[] indices, int count) {
+		if (indices == null) {
+			return;
+		}
+
+		for (int i = 0; i < count; i++) {
+			updateSelector(indices[i]);
+		}
+	}
+
+	protected void updateSelector(int index) {
+		if (this.selector instanceof IncrementalSelector) {
+			((IncrementalSelector) this.selector).update(index, this.individuals.get(index).getFitnessAsDouble());
+		}
+	}
+
 	@Override
 	public Chromosome evaluateFitness(GenerationStatistics generationStatistics) throws InterruptedException {
 		generationStatistics.setNumberOfEvaluations(this.doConcurrentFitnessEvaluations(this.fitnessEvaluator, -1, false));
@@ -187,32 +397,36 @@ public class StandardPopulation implements Population {
 	@Override
 	public Chromosome performMajorEvaluation(GenerationStatistics generationStatistics, Double percentageToEvaluate)
 			throws InterruptedException {
-		this.sortIndividuals();
-
 		int top = Math.round((int) (this.size() * percentageToEvaluate));
 
+		this.partitionTopIndividuals(top);
+
 		generationStatistics.setNumberOfMajorEvaluations(this.doConcurrentFitnessEvaluations(this.majorFitnessEvaluator, top, true));
 
 		return updateFitness(generationStatistics);
 	}
 
 	protected Chromosome updateFitness(GenerationStatistics generationStatistics) {
-		this.totalFitness = BigDecimal.ZERO;
+		this.totalFitness = 0.0;
+		this.exactTotalFitness = null;
 
 		Chromosome bestFitIndividual = null;
+		double bestFitness = 0.0;
+		double fitness;
 
 		for (Chromosome individual : individuals) {
-			this.totalFitness = this.totalFitness.add(individual.getFitness());
+			fitness = individual.getFitnessAsDouble();
 
-			if (bestFitIndividual == null || individual.getFitness().compareTo(bestFitIndividual.getFitness()) > 0) {
+			this.totalFitness += fitness;
+
+			if (bestFitIndividual == null || fitness > bestFitness) {
 				bestFitIndividual = individual;
+				bestFitness = fitness;
 			}
 		}
 
-		BigDecimal averageFitness = this.totalFitness.divide(BigDecimal.valueOf(individuals.size()));
-
 		if (generationStatistics != null) {
-			generationStatistics.setAverageFitness(averageFitness);
+			generationStatistics.setAverageFitness(BigDecimal.valueOf(this.totalFitness / individuals.size()));
 			generationStatistics.setBestFitness(bestFitIndividual.getFitness());
 
 			if (this.compareToKnownSolution) {
@@ -236,6 +450,14 @@ public class StandardPopulation implements Population {
 		return this.selector.getNextIndex(individuals, totalFitness);
 	}
 
+	/*
+	 * Selects count individuals at once, which lets the Selector make all of the selections in a single pass. Returns
+	 * the indices of the Chromosomes chosen.
+	 */
+	public int[] selectIndices(int count) {
+		return this.selector.getNextIndices(individuals, totalFitness, count);
+	}
+
 	/**
 	 * @return the individuals
 	 */
@@ -258,11 +480,96 @@ public class StandardPopulation implements Population {
 			return null;
 		}
 
-		this.totalFitness = this.totalFitness.subtract(this.individuals.get(indexToRemove).getFitness());
+		this.totalFitness -= this.individuals.get(indexToRemove).getFitnessAsDouble();
+		this.exactTotalFitness = null;
+
+		if (this.entropyTracker != null) {
+			this.entropyTracker.remove(this.individuals.get(indexToRemove));
+		}
 
 		return this.individuals.remove(indexToRemove);
 	}
 
+	/**
+	 * Replaces the individual at the given index in place. Unlike a remove followed by an add, this preserves the
+	 * indices of all other individuals, so an {@link IncrementalSelector} only needs to update a single entry.
+	 * 
+	 * @param index
+	 *            the index of the individual to replace
+	 * @param individual
+	 *            the replacement individual
+	 * @return the individual which was replaced
+	 */
+	public Chromosome replaceIndividual(int index, Chromosome individual) {
+		if (index < 0 || index > this.individuals.size() - 1) {
+			log.error("Tried to replace individual by invalid index " + index + " in population of size "
+					+ this.size() + ".  Returning.");
+
+			return null;
+		}
+
+		Chromosome replaced = this.individuals.set(index, individual);
+
+		individual.setPopulation(this);
+
+		if (this.entropyTracker != null) {
+			this.entropyTracker.remove(replaced);
+			this.entropyTracker.add(individual);
+		}
+
+		this.totalFitness += individual.getFitnessAsDouble() - replaced.getFitnessAsDouble();
+		this.exactTotalFitness = null;
+
+		updateSelector(index);
+
+		return replaced;
+	}
+
+	/**
+	 * @param incrementalEntropy
+	 *            whether to maintain the symbol counts needed for entropy incrementally, rather than rescanning the
+	 *            whole population each time it is calculated
+	 */
+	public void setIncrementalEntropy(boolean incrementalEntropy) {
+		if (!incrementalEntropy) {
+			this.entropyTracker = null;
+
+			return;
+		}
+
+		this.entropyTracker = new EntropyTracker();
+
+		for (Chromosome individual : this.individuals) {
+			this.entropyTracker.add(individual);
+		}
+	}
+
+	@Override
+	public BigDecimal calculateEntropy() {
+		if (this.entropyTracker == null) {
+			return Population.super.calculateEntropy();
+		}
+
+		return this.entropyTracker.calculateEntropy(this.size());
+	}
+
+	@Override
+	public BigDecimal estimateEntropy(int sampleSize) {
+		// The tracked entropy is already exact and cheaper than any sample
+		if (this.entropyTracker != null) {
+			return calculateEntropy();
+		}
+
+		return Population.super.estimateEntropy(sampleSize);
+	}
+
+	@Override
+	public void geneReplaced(Object key, Gene oldGene, Gene newGene) {
+		if (this.entropyTracker != null) {
+			this.entropyTracker.replace(key, oldGene, newGene);
+		}
+	}
+
 	@Override
 	public void recoverFromBackup() {
 		if (this.backup == null || this.backup.isEmpty()) {
@@ -287,7 +594,12 @@ public class StandardPopulation implements Population {
 	public void clearIndividuals() {
 		this.individuals.clear();
 
-		this.totalFitness = BigDecimal.ZERO;
+		this.totalFitness = 0.0;
+		this.exactTotalFitness = BigDecimal.ZERO;
+
+		if (this.entropyTracker != null) {
+			this.entropyTracker.clear();
+		}
 	}
 
 	public void addAllIndividuals(List<Chromosome> individuals) {
@@ -304,7 +616,12 @@ public class StandardPopulation implements Population {
 
 		individual.setPopulation(this);
 
-		this.totalFitness = this.totalFitness.add(individual.getFitness() == null ? BigDecimal.ZERO : individual.getFitness());
+		this.totalFitness += individual.getFitnessAsDouble();
+		this.exactTotalFitness = null;
+
+		if (this.entropyTracker != null) {
+			this.entropyTracker.add(individual);
+		}
 
 		return individual.isEvaluationNeeded();
 	}
@@ -317,6 +634,55 @@ public class StandardPopulation implements Population {
 		Collections.sort(individuals, this.fitnessComparator);
 	}
 
+	/**
+	 * Rearranges the individuals so that the count fittest occupy the last count positions, in no particular order
+	 * among themselves, which is all that elitism and major evaluation need. This is a quickselect with a three-way
+	 * partition, so it takes linear time on average even when a converged population has many equal fitness values.
+	 * 
+	 * @param count
+	 *            the number of fittest individuals to move to the end
+	 */
+	public void partitionTopIndividuals(int count) {
+		int size = this.individuals.size();
+
+		if (count <= 0 || count >= size) {
+			return;
+		}
+
+		int target = size - count;
+		int left = 0;
+		int right = size - 1;
+
+		while (left < right) {
+			Chromosome pivot = individuals.get(left + ThreadLocalRandom.current().nextInt(right - left + 1));
+
+			// Partition into [left, lessThan) < pivot, [lessThan, i) == pivot and (greaterThan, right] > pivot
+			int lessThan = left;
+			int greaterThan = right;
+			int i = left;
+
+			while (i <= greaterThan) {
+				int comparison = this.fitnessComparator.compare(individuals.get(i), pivot);
+
+				if (comparison < 0) {
+					Collections.swap(individuals, lessThan++, i++);
+				} else if (comparison > 0) {
+					Collections.swap(individuals, i, greaterThan--);
+				} else {
+					i++;
+				}
+			}
+
+			if (target < lessThan) {
+				right = lessThan - 1;
+			} else if (target > greaterThan) {
+				left = greaterThan + 1;
+			} else {
+				return;
+			}
+		}
+	}
+
 	/**
 	 * Prints every Chromosome in this population in ascending order by fitness. Note that a lower fitness value can be
 	 * a better value depending on the strategy.
@@ -337,10 +703,35 @@ public class StandardPopulation implements Population {
 		this.selector.reIndex(this.individuals);
 	}
 
+	private static BigDecimal fitnessOf(Chromosome individual) {
+		return individual.getFitness() == null ? BigDecimal.ZERO : individual.getFitness();
+	}
+
 	/**
+	 * The exact total is summed again on demand after any change to the individuals or their fitness, so that adding,
+	 * removing and evaluating individuals stay on the primitive channel. Use {@link #getTotalFitnessAsDouble()} on hot
+	 * paths.
+	 * 
 	 * @return the totalFitness
 	 */
 	public BigDecimal getTotalFitness() {
+		if (this.exactTotalFitness == null) {
+			BigDecimal total = BigDecimal.ZERO;
+
+			for (Chromosome individual : this.individuals) {
+				total = total.add(fitnessOf(individual));
+			}
+
+			this.exactTotalFitness = total;
+		}
+
+		return this.exactTotalFitness;
+	}
+
+	/**
+	 * @return the totalFitness as a primitive double
+	 */
+	public double getTotalFitnessAsDouble() {
 		return totalFitness;
 	}
 
@@ -379,6 +770,13 @@ public class StandardPopulation implements Population {
 		this.majorFitnessEvaluator = majorFitnessEvaluator;
 	}
 
+	/**
+	 * @return the fitnessComparator, which orders the least fit individuals first
+	 */
+	public FitnessComparator getFitnessComparator() {
+		return fitnessComparator;
+	}
+
 	/**
 	 * @param fitnessComparator
 	 *            the fitnessComparator to set
@@ -426,6 +824,27 @@ public class StandardPopulation implements Population {
 		this.targetSize = targetSize;
 	}
 
+	/**
+	 * @param batchExecution
+	 *            whether to breed and evaluate the population in per-core batches rather than one task per individual
+	 */
+	public void setBatchExecution(boolean batchExecution) {
+		this.batchExecution = batchExecution;
+	}
+
+	/**
+	 * @param batchCount
+	 *            the number of batches to split the population into when batchExecution is enabled
+	 */
+	public void setBatchCount(int batchCount) {
+		if (batchCount <= 0) {
+			throw new IllegalArgumentException("Tried to set a batchCount of " + batchCount
+					+ ", but StandardPopulation requires a batchCount greater than zero.");
+		}
+
+		this.batchCount = batchCount;
+	}
+
 	/**
 	 * @param maxToPrint
 	 *            the maxToPrint to set
@@ -0,0 +1,270 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.util.ReflectionUtils;
+
+import com.ciphertool.genetics.algorithms.crossover.CrossoverAlgorithm;
+import com.ciphertool.genetics.algorithms.mutation.MutationAlgorithm;
+import com.ciphertool.genetics.algorithms.selection.modes.AliasRouletteSelector;
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.statistics.GenerationStatistics;
+import com.ciphertool.genetics.entities.statistics.PerformanceStatistics;
+import com.ciphertool.genetics.fitness.FitnessEvaluator;
+import com.ciphertool.genetics.mocks.MockSpatialChromosome;
+import com.ciphertool.genetics.population.LatticePopulation;
+
+public class LatticeGeneticAlgorithmTest {
+	private static LatticePopulation createPopulation(int rows, int columns, FitnessEvaluator fitnessEvaluator) {
+		LatticePopulation population = new LatticePopulation();
+		population.setTargetSize(rows * columns);
+		population.setSelector(new AliasRouletteSelector());
+		population.setFitnessEvaluator(fitnessEvaluator);
+		population.clearIndividuals();
+
+		for (int x = 0; x < rows; x++) {
+			for (int y = 0; y < columns; y++) {
+				MockSpatialChromosome individual = new MockSpatialChromosome(x, y);
+				individual.setFitness(BigDecimal.valueOf(1.0));
+				population.addIndividual(individual);
+			}
+		}
+
+		return population;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static LatticeGeneticAlgorithm createTiledAlgorithm(LatticePopulation population,
+			CrossoverAlgorithm crossoverAlgorithm) {
+		LatticeGeneticAlgorithm latticeGeneticAlgorithm = new LatticeGeneticAlgorithm();
+		latticeGeneticAlgorithm.setPopulation(population);
+		latticeGeneticAlgorithm.setTiledExecution(true);
+		latticeGeneticAlgorithm.setTileSize(3);
+
+		TaskExecutor taskExecutorMock = mock(TaskExecutor.class);
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				((FutureTask) invocation.getArguments()[0]).run();
+
+				return null;
+			}
+		}).when(taskExecutorMock).execute(any(FutureTask.class));
+		latticeGeneticAlgorithm.setTaskExecutor(taskExecutorMock);
+
+		Field crossoverAlgorithmField = ReflectionUtils.findField(LatticeGeneticAlgorithm.class, "crossoverAlgorithm");
+		ReflectionUtils.makeAccessible(crossoverAlgorithmField);
+		ReflectionUtils.setField(crossoverAlgorithmField, latticeGeneticAlgorithm, crossoverAlgorithm);
+
+		MutationAlgorithm mutationAlgorithmMock = mock(MutationAlgorithm.class);
+		when(mutationAlgorithmMock.mutateChromosome(any(Chromosome.class))).thenReturn(true);
+
+		Field mutationAlgorithmField = ReflectionUtils.findField(LatticeGeneticAlgorithm.class, "mutationAlgorithm");
+		ReflectionUtils.makeAccessible(mutationAlgorithmField);
+		ReflectionUtils.setField(mutationAlgorithmField, latticeGeneticAlgorithm, mutationAlgorithmMock);
+
+		return latticeGeneticAlgorithm;
+	}
+
+	private static List<Chromosome> createChild() {
+		MockSpatialChromosome child = new MockSpatialChromosome(-1, -1);
+		child.setEvaluationNeeded(true);
+
+		return Arrays.asList(child);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testDoTiledGeneration() throws InterruptedException {
+		int rows = 4;
+		int columns = 4;
+
+		FitnessEvaluator fitnessEvaluatorMock = mock(FitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluate(any(Chromosome.class))).thenReturn(BigDecimal.valueOf(2.0));
+
+		LatticePopulation population = createPopulation(rows, columns, fitnessEvaluatorMock);
+
+		Chromosome[][] original = population.getIndividualsAsArray();
+
+		CrossoverAlgorithm crossoverAlgorithmMock = mock(CrossoverAlgorithm.class);
+		when(crossoverAlgorithmMock.crossover(any(Chromosome.class), any(Chromosome.class))).thenAnswer(new Answer<List<Chromosome>>() {
+			@Override
+			public List<Chromosome> answer(InvocationOnMock invocation) throws Throwable {
+				return createChild();
+			}
+		});
+
+		LatticeGeneticAlgorithm latticeGeneticAlgorithm = createTiledAlgorithm(population, crossoverAlgorithmMock);
+
+		GenerationStatistics generationStatistics = new GenerationStatistics();
+		latticeGeneticAlgorithm.doTiledGeneration(generationStatistics, new PerformanceStatistics());
+
+		Field numberOfCrossoversField = ReflectionUtils.findField(GenerationStatistics.class, "numberOfCrossovers");
+		ReflectionUtils.makeAccessible(numberOfCrossoversField);
+		assertEquals(rows * columns, ReflectionUtils.getField(numberOfCrossoversField, generationStatistics));
+
+		Field numberOfMutationsField = ReflectionUtils.findField(GenerationStatistics.class, "numberOfMutations");
+		ReflectionUtils.makeAccessible(numberOfMutationsField);
+		assertEquals(rows * columns, ReflectionUtils.getField(numberOfMutationsField, generationStatistics));
+
+		// The current generation must be left untouched until the buffers are swapped
+		assertSame(original, population.getIndividualsAsArray());
+
+		population.swapGenerations();
+
+		Chromosome[][] children = population.getIndividualsAsArray();
+		for (int x = 0; x < rows; x++) {
+			for (int y = 0; y < columns; y++) {
+				MockSpatialChromosome child = (MockSpatialChromosome) children[x][y];
+
+				assertEquals(x, child.getXPos());
+				assertEquals(y, child.getYPos());
+				assertSame(population, child.getPopulation());
+				assertTrue(child.getFitness().compareTo(BigDecimal.valueOf(2.0)) == 0);
+			}
+		}
+
+		assertEquals(rows * columns * 2.0, population.getTotalFitnessAsDouble(), 0.0);
+
+		// The previous generation's buffer is reused for the generation after
+		assertSame(original, population.getNextGeneration());
+
+		verify(crossoverAlgorithmMock, times(rows * columns)).crossover(any(Chromosome.class), any(Chromosome.class));
+		verify(fitnessEvaluatorMock, times(rows * columns)).evaluate(any(Chromosome.class));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testDoTiledGenerationStopRequested() {
+		int rows = 4;
+		int columns = 4;
+
+		LatticePopulation population = createPopulation(rows, columns, mock(FitnessEvaluator.class));
+
+		Chromosome[][] original = population.getIndividualsAsArray();
+		Chromosome[][] originalCells = new Chromosome[rows][];
+		for (int x = 0; x < rows; x++) {
+			originalCells[x] = original[x].clone();
+		}
+
+		CrossoverAlgorithm crossoverAlgorithmMock = mock(CrossoverAlgorithm.class);
+		LatticeGeneticAlgorithm latticeGeneticAlgorithm = createTiledAlgorithm(population, crossoverAlgorithmMock);
+
+		AtomicInteger crossovers = new AtomicInteger();
+		when(crossoverAlgorithmMock.crossover(any(Chromosome.class), any(Chromosome.class))).thenAnswer(new Answer<List<Chromosome>>() {
+			@Override
+			public List<Chromosome> answer(InvocationOnMock invocation) throws Throwable {
+				// Stop partway through, leaving the next generation buffer half written
+				if (crossovers.incrementAndGet() == 5) {
+					latticeGeneticAlgorithm.requestStop();
+				}
+
+				return createChild();
+			}
+		});
+
+		population.discardBackup();
+
+		try {
+			latticeGeneticAlgorithm.doTiledGeneration(new GenerationStatistics(), new PerformanceStatistics());
+
+			fail("Expected the stop to interrupt the generation");
+		} catch (InterruptedException ie) {
+			population.recoverFromBackup();
+		}
+
+		// The interrupted generation was never swapped in, so the recovery must keep the current generation
+		assertSame(original, population.getIndividualsAsArray());
+
+		for (int x = 0; x < rows; x++) {
+			for (int y = 0; y < columns; y++) {
+				assertSame(originalCells[x][y], population.getIndividualsAsArray()[x][y]);
+				assertSame(population, originalCells[x][y].getPopulation());
+			}
+		}
+
+		assertEquals(rows * columns * 1.0, population.getTotalFitnessAsDouble(), 0.0);
+	}
+
+	@Test
+	public void testProceedWithNextGenerationTileFails() throws InterruptedException {
+		int rows = 4;
+		int columns = 4;
+
+		LatticePopulation population = createPopulation(rows, columns, mock(FitnessEvaluator.class));
+
+		Chromosome[][] original = population.getIndividualsAsArray();
+
+		CrossoverAlgorithm crossoverAlgorithmMock = mock(CrossoverAlgorithm.class);
+		LatticeGeneticAlgorithm latticeGeneticAlgorithm = createTiledAlgorithm(population, crossoverAlgorithmMock);
+
+		AtomicInteger crossovers = new AtomicInteger();
+		when(crossoverAlgorithmMock.crossover(any(Chromosome.class), any(Chromosome.class))).thenAnswer(new Answer<List<Chromosome>>() {
+			@Override
+			public List<Chromosome> answer(InvocationOnMock invocation) throws Throwable {
+				if (crossovers.incrementAndGet() == 5) {
+					throw new IllegalArgumentException();
+				}
+
+				return createChild();
+			}
+		});
+
+		try {
+			latticeGeneticAlgorithm.proceedWithNextGeneration();
+
+			fail("Expected the failed tile to abort the generation");
+		} catch (IllegalStateException ise) {
+			assertTrue(ise.getCause() instanceof IllegalArgumentException);
+		}
+
+		// The partly written next generation was never swapped in
+		assertSame(original, population.getIndividualsAsArray());
+
+		for (int x = 0; x < rows; x++) {
+			for (int y = 0; y < columns; y++) {
+				assertNotNull(population.getIndividualsAsArray()[x][y]);
+			}
+		}
+	}
+}
@@ -34,6 +34,7 @@ import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -41,6 +42,7 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Field;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
@@ -50,6 +52,7 @@ import java.util.concurrent.FutureTask;
 import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
+import org.springframework.core.task.SyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.util.ReflectionUtils;
 
@@ -63,6 +66,8 @@ import com.ciphertool.genetics.dao.GenerationStatisticsDao;
 import com.ciphertool.genetics.entities.Chromosome;
 import com.ciphertool.genetics.entities.statistics.ExecutionStatistics;
 import com.ciphertool.genetics.entities.statistics.GenerationStatistics;
+import com.ciphertool.genetics.entities.statistics.PerformanceStatistics;
+import com.ciphertool.genetics.fitness.CachingFitnessEvaluator;
 import com.ciphertool.genetics.fitness.FitnessEvaluator;
 import com.ciphertool.genetics.mocks.MockKeyedChromosome;
 import com.ciphertool.genetics.population.StandardPopulation;
@@ -283,6 +288,7 @@ public class StandardGeneticAlgorithmTest {
 		when(populationMock.removeIndividual(anyInt())).thenReturn(new MockKeyedChromosome());
 		when(populationMock.size()).thenReturn(initialPopulationSize);
 		when(populationMock.selectIndex()).thenReturn(0);
+		when(populationMock.selectIndices(anyInt())).thenReturn(new int[initialPopulationSize * 2]);
 		standardGeneticAlgorithm.setPopulation(populationMock);
 
 		GeneticAlgorithmStrategy strategyToSet = new GeneticAlgorithmStrategy();
@@ -348,13 +354,12 @@ public class StandardGeneticAlgorithmTest {
 		assertEquals(1, generationCountFromObject);
 
 		verify(populationMock, times(1)).backupIndividuals();
-		verify(populationMock, times(200)).selectIndex();
-		verify(populationMock, times(300)).getIndividuals();
+		verify(populationMock, times(1)).selectIndices(200);
+		verify(populationMock, times(101)).getIndividuals();
 		verify(populationMock, times(4)).size();
 		verify(populationMock, never()).breed();
 		verify(populationMock, times(1)).evaluateFitness(any(GenerationStatistics.class));
 		verify(populationMock, times(100)).addIndividual(any(Chromosome.class));
-		verify(populationMock, times(1)).sortIndividuals();
 		verify(populationMock, times(1)).clearIndividuals();
 		verify(populationMock, times(1)).reIndexSelector();
 		verify(populationMock, times(1)).calculateEntropy();
@@ -369,6 +374,42 @@ public class StandardGeneticAlgorithmTest {
 		verifyNoMoreInteractions(crossoverAlgorithmMock);
 	}
 
+	@Test
+	public void testSelect() throws InterruptedException {
+		StandardGeneticAlgorithm standardGeneticAlgorithm = new StandardGeneticAlgorithm();
+
+		List<Chromosome> individuals = new ArrayList<Chromosome>();
+		for (int i = 0; i < 3; i++) {
+			individuals.add(new MockKeyedChromosome());
+		}
+
+		StandardPopulation populationMock = mock(StandardPopulation.class);
+		when(populationMock.getIndividuals()).thenReturn(individuals);
+		when(populationMock.selectIndices(4)).thenReturn(new int[] { 0, 1, 2, 2 });
+		standardGeneticAlgorithm.setPopulation(populationMock);
+
+		CrossoverAlgorithm crossoverAlgorithmMock = mock(CrossoverAlgorithm.class);
+		when(crossoverAlgorithmMock.numberOfOffspring()).thenReturn(1);
+
+		Field crossoverAlgorithmField = ReflectionUtils.findField(StandardGeneticAlgorithm.class, "crossoverAlgorithm");
+		ReflectionUtils.makeAccessible(crossoverAlgorithmField);
+		ReflectionUtils.setField(crossoverAlgorithmField, standardGeneticAlgorithm, crossoverAlgorithmMock);
+
+		List<Chromosome> moms = new ArrayList<Chromosome>();
+		List<Chromosome> dads = new ArrayList<Chromosome>();
+
+		standardGeneticAlgorithm.select(2, moms, dads);
+
+		assertEquals(Arrays.asList(individuals.get(0), individuals.get(2)), moms);
+
+		// The second pair selected the same individual twice, so the dad must have been shifted to a neighbor
+		assertEquals(Arrays.asList(individuals.get(1), individuals.get(1)), dads);
+
+		verify(populationMock, times(1)).selectIndices(4);
+		verify(populationMock, times(1)).getIndividuals();
+		verifyNoMoreInteractions(populationMock);
+	}
+
 	@Test
 	public void testValidateParameters_NoErrors() {
 		StandardGeneticAlgorithm standardGeneticAlgorithm = new StandardGeneticAlgorithm();
@@ -552,6 +593,108 @@ public class StandardGeneticAlgorithmTest {
 		verifyZeroInteractions(crossoverAlgorithmMock);
 	}
 
+	@Test
+	public void testCrossoverAndMutatePipelined() throws InterruptedException {
+		StandardPopulation populationMock = mock(StandardPopulation.class);
+		when(populationMock.size()).thenReturn(1);
+
+		StandardGeneticAlgorithm standardGeneticAlgorithm = spy(new StandardGeneticAlgorithm());
+		standardGeneticAlgorithm.setPopulation(populationMock);
+		standardGeneticAlgorithm.setPipelined(true);
+
+		List<Chromosome> moms = new ArrayList<Chromosome>();
+		List<Chromosome> dads = new ArrayList<Chromosome>();
+		GenerationStatistics generationStatistics = new GenerationStatistics();
+		PerformanceStatistics performanceStats = new PerformanceStatistics();
+
+		standardGeneticAlgorithm.crossoverAndMutate(1, moms, dads, generationStatistics, performanceStats);
+
+		verify(standardGeneticAlgorithm, times(1)).pipelineGeneration(1, moms, dads, generationStatistics, performanceStats);
+		verify(standardGeneticAlgorithm, never()).crossover(anyInt(), anyListOf(Chromosome.class), anyListOf(Chromosome.class));
+		verify(standardGeneticAlgorithm, never()).mutate(anyInt());
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Test
+	public void testPipelineGeneration() throws InterruptedException {
+		int initialPopulationSize = 50;
+
+		List<Chromosome> individuals = new ArrayList<Chromosome>();
+		for (int i = 0; i < initialPopulationSize; i++) {
+			individuals.add(new MockKeyedChromosome());
+		}
+
+		StandardPopulation populationMock = mock(StandardPopulation.class);
+		when(populationMock.getIndividuals()).thenReturn(individuals);
+		when(populationMock.size()).thenReturn(initialPopulationSize);
+
+		StandardGeneticAlgorithm standardGeneticAlgorithm = new StandardGeneticAlgorithm();
+		standardGeneticAlgorithm.setPopulation(populationMock);
+		standardGeneticAlgorithm.setTaskExecutor(new SyncTaskExecutor());
+
+		List<Chromosome> children = new ArrayList<Chromosome>();
+
+		CrossoverAlgorithm crossoverAlgorithmMock = mock(CrossoverAlgorithm.class);
+		when(crossoverAlgorithmMock.crossover(any(Chromosome.class), any(Chromosome.class))).thenAnswer(new Answer<List<Chromosome>>() {
+			@Override
+			public List<Chromosome> answer(InvocationOnMock invocation) throws Throwable {
+				MockKeyedChromosome child = new MockKeyedChromosome();
+				child.setEvaluationNeeded(true);
+				// As a clone of a parent would be
+				child.setPopulation(populationMock);
+				children.add(child);
+
+				return Arrays.asList(child);
+			}
+		});
+
+		Field crossoverAlgorithmField = ReflectionUtils.findField(StandardGeneticAlgorithm.class, "crossoverAlgorithm");
+		ReflectionUtils.makeAccessible(crossoverAlgorithmField);
+		ReflectionUtils.setField(crossoverAlgorithmField, standardGeneticAlgorithm, crossoverAlgorithmMock);
+
+		MutationAlgorithm mutationAlgorithmMock = mock(MutationAlgorithm.class);
+		when(mutationAlgorithmMock.mutateChromosome(any(Chromosome.class))).thenAnswer(new Answer<Boolean>() {
+			@Override
+			public Boolean answer(InvocationOnMock invocation) throws Throwable {
+				assertNull(((Chromosome) invocation.getArguments()[0]).getPopulation());
+
+				return true;
+			}
+		});
+
+		Field mutationAlgorithmField = ReflectionUtils.findField(StandardGeneticAlgorithm.class, "mutationAlgorithm");
+		ReflectionUtils.makeAccessible(mutationAlgorithmField);
+		ReflectionUtils.setField(mutationAlgorithmField, standardGeneticAlgorithm, mutationAlgorithmMock);
+
+		FitnessEvaluator fitnessEvaluatorMock = mock(FitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluate(any(Chromosome.class))).thenReturn(BigDecimal.ONE);
+
+		GeneticAlgorithmStrategy strategy = new GeneticAlgorithmStrategy();
+		strategy.setFitnessEvaluator(fitnessEvaluatorMock);
+
+		Field strategyField = ReflectionUtils.findField(StandardGeneticAlgorithm.class, "strategy");
+		ReflectionUtils.makeAccessible(strategyField);
+		ReflectionUtils.setField(strategyField, standardGeneticAlgorithm, strategy);
+
+		GenerationStatistics generationStatistics = new GenerationStatistics();
+		PerformanceStatistics performanceStats = new PerformanceStatistics();
+
+		standardGeneticAlgorithm.pipelineGeneration(initialPopulationSize, individuals, individuals, generationStatistics, performanceStats);
+
+		assertEquals(initialPopulationSize, children.size());
+		assertEquals(initialPopulationSize, generationStatistics.getNumberOfEvaluations());
+
+		for (Chromosome child : children) {
+			assertFalse(child.isEvaluationNeeded());
+			assertEquals(BigDecimal.ONE, child.getFitness());
+			verify(populationMock, times(1)).addIndividual(same(child));
+		}
+
+		verify(populationMock, times(1)).clearIndividuals();
+		verify(mutationAlgorithmMock, times(initialPopulationSize)).mutateChromosome(any(Chromosome.class));
+		verify(fitnessEvaluatorMock, times(initialPopulationSize)).evaluate(any(Chromosome.class));
+	}
+
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	@Test
 	public void testMutate() throws InterruptedException {
@@ -602,13 +745,71 @@ public class StandardGeneticAlgorithmTest {
 
 		verify(populationMock, times(100)).getIndividuals();
 		verify(populationMock, times(1)).size();
-		verify(populationMock, times(1)).sortIndividuals();
 		verifyNoMoreInteractions(populationMock);
 
 		verify(mutationAlgorithmMock, times(100)).mutateChromosome(any(Chromosome.class));
 		verifyNoMoreInteractions(mutationAlgorithmMock);
 	}
 
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Test
+	public void testMutate_Elitism() throws InterruptedException {
+		int initialPopulationSize = 100;
+		int index = 0;
+
+		List<Chromosome> individuals = new ArrayList<Chromosome>();
+		for (int i = 0; i < initialPopulationSize; i++) {
+			individuals.add(new MockKeyedChromosome());
+		}
+
+		StandardPopulation populationMock = mock(StandardPopulation.class);
+		when(populationMock.selectIndex()).thenReturn(index);
+		when(populationMock.getIndividuals()).thenReturn(individuals);
+		when(populationMock.size()).thenReturn(initialPopulationSize);
+
+		StandardGeneticAlgorithm standardGeneticAlgorithm = new StandardGeneticAlgorithm();
+		standardGeneticAlgorithm.setPopulation(populationMock);
+
+		TaskExecutor taskExecutorMock = mock(TaskExecutor.class);
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				((FutureTask) invocation.getArguments()[0]).run();
+
+				return null;
+			}
+		}).when(taskExecutorMock).execute(any(FutureTask.class));
+
+		Field taskExecutorField = ReflectionUtils.findField(StandardGeneticAlgorithm.class, "taskExecutor");
+		ReflectionUtils.makeAccessible(taskExecutorField);
+		ReflectionUtils.setField(taskExecutorField, standardGeneticAlgorithm, taskExecutorMock);
+
+		GeneticAlgorithmStrategy strategyToSet = new GeneticAlgorithmStrategy();
+		double mutationRate = 0.5;
+		strategyToSet.setMutationRate(mutationRate);
+
+		Field strategyField = ReflectionUtils.findField(StandardGeneticAlgorithm.class, "strategy");
+		ReflectionUtils.makeAccessible(strategyField);
+		ReflectionUtils.setField(strategyField, standardGeneticAlgorithm, strategyToSet);
+
+		MutationAlgorithm mutationAlgorithmMock = mock(MutationAlgorithm.class);
+		Field mutationAlgorithmField = ReflectionUtils.findField(StandardGeneticAlgorithm.class, "mutationAlgorithm");
+		ReflectionUtils.makeAccessible(mutationAlgorithmField);
+		ReflectionUtils.setField(mutationAlgorithmField, standardGeneticAlgorithm, mutationAlgorithmMock);
+
+		standardGeneticAlgorithm.setElitism(10);
+
+		standardGeneticAlgorithm.mutate(initialPopulationSize);
+
+		verify(populationMock, times(90)).getIndividuals();
+		verify(populationMock, times(1)).size();
+		verify(populationMock, times(1)).partitionTopIndividuals(10);
+		verifyNoMoreInteractions(populationMock);
+
+		verify(mutationAlgorithmMock, times(90)).mutateChromosome(any(Chromosome.class));
+		verifyNoMoreInteractions(mutationAlgorithmMock);
+	}
+
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	@Test
 	public void testMutate_SmallPopulation() throws InterruptedException {
@@ -660,7 +861,6 @@ public class StandardGeneticAlgorithmTest {
 
 		verify(populationMock, times(actualPopulationSize)).getIndividuals();
 		verify(populationMock, times(1)).size();
-		verify(populationMock, times(1)).sortIndividuals();
 		verifyNoMoreInteractions(populationMock);
 
 		verify(mutationAlgorithmMock, times(actualPopulationSize)).mutateChromosome(any(Chromosome.class));
@@ -701,6 +901,93 @@ public class StandardGeneticAlgorithmTest {
 		verifyNoMoreInteractions(populationMock);
 	}
 
+	@Test
+	public void testCalculateEntropy_Sampled() {
+		StandardPopulation populationMock = mock(StandardPopulation.class);
+		when(populationMock.size()).thenReturn(100);
+		when(populationMock.estimateEntropy(anyInt())).thenReturn(BigDecimal.ONE);
+
+		StandardGeneticAlgorithm standardGeneticAlgorithm = new StandardGeneticAlgorithm();
+		standardGeneticAlgorithm.setPopulation(populationMock);
+		standardGeneticAlgorithm.setEntropySampleSize(10);
+
+		GenerationStatistics generationStatistics = new GenerationStatistics();
+		PerformanceStatistics performanceStats = new PerformanceStatistics();
+
+		standardGeneticAlgorithm.calculateEntropy(generationStatistics, performanceStats);
+
+		assertEquals(BigDecimal.ONE, generationStatistics.getEntropy());
+		assertEquals(Integer.valueOf(10), generationStatistics.getEntropySampleSize());
+		verify(populationMock, times(1)).estimateEntropy(eq(10));
+		verify(populationMock, never()).calculateEntropy();
+	}
+
+	@Test
+	public void testCalculateEntropy_StepSize() {
+		StandardPopulation populationMock = mock(StandardPopulation.class);
+		when(populationMock.calculateEntropy()).thenReturn(BigDecimal.ONE);
+
+		StandardGeneticAlgorithm standardGeneticAlgorithm = new StandardGeneticAlgorithm();
+		standardGeneticAlgorithm.setPopulation(populationMock);
+		standardGeneticAlgorithm.setEntropyStepSize(3);
+
+		Field generationCountField = ReflectionUtils.findField(StandardGeneticAlgorithm.class, "generationCount");
+		ReflectionUtils.makeAccessible(generationCountField);
+
+		for (int generation = 1; generation <= 6; generation++) {
+			ReflectionUtils.setField(generationCountField, standardGeneticAlgorithm, generation);
+
+			GenerationStatistics generationStatistics = new GenerationStatistics();
+			standardGeneticAlgorithm.calculateEntropy(generationStatistics, new PerformanceStatistics());
+
+			assertEquals((generation % 3 == 0) ? BigDecimal.ONE : null, generationStatistics.getEntropy());
+			assertNull(generationStatistics.getEntropySampleSize());
+		}
+
+		verify(populationMock, times(2)).calculateEntropy();
+		verifyNoMoreInteractions(populationMock);
+	}
+
+	@Test
+	public void testRecordFitnessCacheStatistics() {
+		FitnessEvaluator fitnessEvaluatorMock = mock(FitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluate(any(Chromosome.class))).thenReturn(BigDecimal.ONE);
+
+		CachingFitnessEvaluator cachingFitnessEvaluator = new CachingFitnessEvaluator();
+		cachingFitnessEvaluator.setFitnessEvaluator(fitnessEvaluatorMock);
+
+		GeneticAlgorithmStrategy strategyToSet = new GeneticAlgorithmStrategy();
+		strategyToSet.setFitnessEvaluator(cachingFitnessEvaluator);
+
+		StandardGeneticAlgorithm standardGeneticAlgorithm = new StandardGeneticAlgorithm();
+
+		Field strategyField = ReflectionUtils.findField(StandardGeneticAlgorithm.class, "strategy");
+		ReflectionUtils.makeAccessible(strategyField);
+		ReflectionUtils.setField(strategyField, standardGeneticAlgorithm, strategyToSet);
+
+		MockKeyedChromosome chromosome = new MockKeyedChromosome();
+		cachingFitnessEvaluator.evaluate(chromosome);
+		cachingFitnessEvaluator.evaluate(chromosome);
+
+		GenerationStatistics generationStatistics = new GenerationStatistics();
+		standardGeneticAlgorithm.recordFitnessCacheStatistics(generationStatistics);
+		assertEquals(Long.valueOf(1L), generationStatistics.getFitnessCacheHits());
+		assertEquals(Long.valueOf(1L), generationStatistics.getFitnessCacheMisses());
+
+		cachingFitnessEvaluator.evaluate(chromosome);
+
+		// Only the counts since the previous generation are recorded
+		generationStatistics = new GenerationStatistics();
+		standardGeneticAlgorithm.recordFitnessCacheStatistics(generationStatistics);
+		assertEquals(Long.valueOf(1L), generationStatistics.getFitnessCacheHits());
+		assertEquals(Long.valueOf(0L), generationStatistics.getFitnessCacheMisses());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetEntropyStepSize_Invalid() {
+		new StandardGeneticAlgorithm().setEntropyStepSize(0);
+	}
+
 	@Test
 	public void testPersistStatistics() {
 		StandardGeneticAlgorithm standardGeneticAlgorithm = new StandardGeneticAlgorithm();
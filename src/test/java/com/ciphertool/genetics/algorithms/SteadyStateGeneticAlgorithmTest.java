@@ -0,0 +1,365 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.util.ReflectionUtils;
+
+import com.ciphertool.genetics.GeneticAlgorithmStrategy;
+import com.ciphertool.genetics.algorithms.crossover.CrossoverAlgorithm;
+import com.ciphertool.genetics.algorithms.mutation.MutationAlgorithm;
+import com.ciphertool.genetics.algorithms.selection.modes.RandomSelector;
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.entities.KeyedChromosome;
+import com.ciphertool.genetics.entities.statistics.GenerationStatistics;
+import com.ciphertool.genetics.entities.statistics.PerformanceStatistics;
+import com.ciphertool.genetics.fitness.AscendingFitnessComparator;
+import com.ciphertool.genetics.fitness.DescendingFitnessComparator;
+import com.ciphertool.genetics.fitness.FitnessEvaluator;
+import com.ciphertool.genetics.mocks.MockGene;
+import com.ciphertool.genetics.mocks.MockKeyedChromosome;
+import com.ciphertool.genetics.population.StandardPopulation;
+
+public class SteadyStateGeneticAlgorithmTest {
+	private static SteadyStateGeneticAlgorithm createAlgorithm(StandardPopulation population, CrossoverAlgorithm<?> crossoverAlgorithm, MutationAlgorithm<?> mutationAlgorithm, FitnessEvaluator fitnessEvaluator) {
+		SteadyStateGeneticAlgorithm steadyStateGeneticAlgorithm = new SteadyStateGeneticAlgorithm();
+		steadyStateGeneticAlgorithm.setPopulation(population);
+		steadyStateGeneticAlgorithm.setTaskExecutor(new SimpleAsyncTaskExecutor());
+		steadyStateGeneticAlgorithm.setWorkers(2);
+		steadyStateGeneticAlgorithm.setOffspringPerGeneration(4);
+
+		Field crossoverAlgorithmField = ReflectionUtils.findField(SteadyStateGeneticAlgorithm.class, "crossoverAlgorithm");
+		ReflectionUtils.makeAccessible(crossoverAlgorithmField);
+		ReflectionUtils.setField(crossoverAlgorithmField, steadyStateGeneticAlgorithm, crossoverAlgorithm);
+
+		Field mutationAlgorithmField = ReflectionUtils.findField(SteadyStateGeneticAlgorithm.class, "mutationAlgorithm");
+		ReflectionUtils.makeAccessible(mutationAlgorithmField);
+		ReflectionUtils.setField(mutationAlgorithmField, steadyStateGeneticAlgorithm, mutationAlgorithm);
+
+		GeneticAlgorithmStrategy strategy = new GeneticAlgorithmStrategy();
+		strategy.setFitnessEvaluator(fitnessEvaluator);
+
+		Field strategyField = ReflectionUtils.findField(SteadyStateGeneticAlgorithm.class, "strategy");
+		ReflectionUtils.makeAccessible(strategyField);
+		ReflectionUtils.setField(strategyField, steadyStateGeneticAlgorithm, strategy);
+
+		return steadyStateGeneticAlgorithm;
+	}
+
+	private static List<?> runningWorkers(SteadyStateGeneticAlgorithm steadyStateGeneticAlgorithm) {
+		Field runningWorkersField = ReflectionUtils.findField(SteadyStateGeneticAlgorithm.class, "runningWorkers");
+		ReflectionUtils.makeAccessible(runningWorkersField);
+
+		return (List<?>) ReflectionUtils.getField(runningWorkersField, steadyStateGeneticAlgorithm);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Test
+	public void testDoSteadyStateBreeding() throws InterruptedException {
+		StandardPopulation population = new StandardPopulation();
+		population.setSelector(new RandomSelector());
+		population.setFitnessComparator(new AscendingFitnessComparator());
+
+		for (int i = 1; i <= 10; i++) {
+			MockKeyedChromosome individual = new MockKeyedChromosome();
+			individual.setFitness(BigDecimal.valueOf(i));
+			population.addIndividual(individual);
+		}
+
+		CrossoverAlgorithm crossoverAlgorithmMock = mock(CrossoverAlgorithm.class);
+		when(crossoverAlgorithmMock.numberOfOffspring()).thenReturn(1);
+		AtomicInteger pairs = new AtomicInteger();
+		when(crossoverAlgorithmMock.crossover(any(Chromosome.class), any(Chromosome.class))).thenAnswer(new Answer<List<Chromosome>>() {
+			@Override
+			public List<Chromosome> answer(InvocationOnMock invocation) throws Throwable {
+				// The workers keep breeding until they are stopped, so only the first four pairs have a child
+				if (pairs.incrementAndGet() > 4) {
+					return Collections.emptyList();
+				}
+
+				MockKeyedChromosome child = new MockKeyedChromosome();
+				child.setEvaluationNeeded(true);
+
+				return Arrays.asList(child);
+			}
+		});
+
+		MutationAlgorithm mutationAlgorithmMock = mock(MutationAlgorithm.class);
+		when(mutationAlgorithmMock.mutateChromosome(any(Chromosome.class))).thenReturn(true);
+
+		FitnessEvaluator fitnessEvaluatorMock = mock(FitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluate(any(Chromosome.class))).thenReturn(BigDecimal.valueOf(100));
+
+		SteadyStateGeneticAlgorithm steadyStateGeneticAlgorithm = createAlgorithm(population, crossoverAlgorithmMock, mutationAlgorithmMock, fitnessEvaluatorMock);
+		// A single worker breeds the pairs in order, so the snapshot holds exactly the first four
+		steadyStateGeneticAlgorithm.setWorkers(1);
+
+		GenerationStatistics generationStatistics = new GenerationStatistics();
+		PerformanceStatistics performanceStats = new PerformanceStatistics();
+
+		steadyStateGeneticAlgorithm.doSteadyStateBreeding(generationStatistics, performanceStats);
+
+		assertEquals(4, generationStatistics.getNumberOfEvaluations());
+
+		assertNull(steadyStateGeneticAlgorithm.stopWorkers());
+
+		verify(crossoverAlgorithmMock, atLeast(4)).crossover(any(Chromosome.class), any(Chromosome.class));
+		verify(mutationAlgorithmMock, times(4)).mutateChromosome(any(Chromosome.class));
+
+		// The four least fit individuals were replaced by the children
+		List<Double> fitnesses = new ArrayList<Double>();
+		for (Chromosome individual : population.getIndividuals()) {
+			assertFalse(individual.isEvaluationNeeded());
+
+			fitnesses.add(individual.getFitnessAsDouble());
+		}
+
+		assertEquals(10, population.size());
+		assertEquals(Arrays.asList(100.0, 100.0, 100.0, 100.0, 5.0, 6.0, 7.0, 8.0, 9.0, 10.0), fitnesses);
+		assertEquals(5.0 + 6.0 + 7.0 + 8.0 + 9.0 + 10.0 + 400.0, population.getTotalFitness().doubleValue(), 0.0);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Test
+	public void testDoSteadyStateBreedingWithDescendingFitness() throws InterruptedException {
+		StandardPopulation population = new StandardPopulation();
+		population.setSelector(new RandomSelector());
+		population.setFitnessComparator(new DescendingFitnessComparator());
+
+		for (int i = 1; i <= 10; i++) {
+			MockKeyedChromosome individual = new MockKeyedChromosome();
+			individual.setFitness(BigDecimal.valueOf(i));
+			population.addIndividual(individual);
+		}
+
+		CrossoverAlgorithm crossoverAlgorithmMock = mock(CrossoverAlgorithm.class);
+		when(crossoverAlgorithmMock.numberOfOffspring()).thenReturn(1);
+		AtomicInteger pairs = new AtomicInteger();
+		when(crossoverAlgorithmMock.crossover(any(Chromosome.class), any(Chromosome.class))).thenAnswer(new Answer<List<Chromosome>>() {
+			@Override
+			public List<Chromosome> answer(InvocationOnMock invocation) throws Throwable {
+				// The workers keep breeding until they are stopped, so only the first four pairs have a child
+				if (pairs.incrementAndGet() > 4) {
+					return Collections.emptyList();
+				}
+
+				MockKeyedChromosome child = new MockKeyedChromosome();
+				child.setEvaluationNeeded(true);
+
+				return Arrays.asList(child);
+			}
+		});
+
+		MutationAlgorithm mutationAlgorithmMock = mock(MutationAlgorithm.class);
+
+		FitnessEvaluator fitnessEvaluatorMock = mock(FitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluate(any(Chromosome.class))).thenReturn(BigDecimal.valueOf(0));
+
+		SteadyStateGeneticAlgorithm steadyStateGeneticAlgorithm = createAlgorithm(population, crossoverAlgorithmMock, mutationAlgorithmMock, fitnessEvaluatorMock);
+
+		steadyStateGeneticAlgorithm.doSteadyStateBreeding(new GenerationStatistics(), new PerformanceStatistics());
+		steadyStateGeneticAlgorithm.stopWorkers();
+
+		// A lower fitness is better, so the four highest were replaced
+		List<Double> fitnesses = new ArrayList<Double>();
+		for (Chromosome individual : population.getIndividuals()) {
+			fitnesses.add(individual.getFitnessAsDouble());
+		}
+
+		assertEquals(Arrays.asList(1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 0.0, 0.0, 0.0, 0.0), fitnesses);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Test
+	public void testDoSteadyStateBreedingWithIncrementalEntropy() throws InterruptedException {
+		Gene gene1 = new MockGene();
+		Gene gene2 = new MockGene();
+		Gene mutatedGene = new MockGene();
+
+		StandardPopulation population = new StandardPopulation();
+		population.setSelector(new RandomSelector());
+		population.setFitnessComparator(new AscendingFitnessComparator());
+		population.setIncrementalEntropy(true);
+
+		for (int i = 1; i <= 10; i++) {
+			MockKeyedChromosome individual = new MockKeyedChromosome();
+			individual.putGene(0, gene1);
+			individual.putGene(1, (i % 2 == 0) ? gene1 : gene2);
+			individual.setFitness(BigDecimal.valueOf(i));
+			population.addIndividual(individual);
+		}
+
+		CrossoverAlgorithm crossoverAlgorithmMock = mock(CrossoverAlgorithm.class);
+		when(crossoverAlgorithmMock.numberOfOffspring()).thenReturn(1);
+		AtomicInteger pairs = new AtomicInteger();
+		when(crossoverAlgorithmMock.crossover(any(Chromosome.class), any(Chromosome.class))).thenAnswer(new Answer<List<Chromosome>>() {
+			@Override
+			public List<Chromosome> answer(InvocationOnMock invocation) throws Throwable {
+				if (pairs.incrementAndGet() > 4) {
+					return Collections.emptyList();
+				}
+
+				Chromosome mom = (Chromosome) invocation.getArguments()[0];
+
+				MockKeyedChromosome child = new MockKeyedChromosome();
+				child.putGene(0, gene1);
+				child.putGene(1, gene2);
+				// As a clone of the mom would be
+				child.setPopulation(mom.getPopulation());
+				child.setEvaluationNeeded(true);
+
+				return Arrays.asList(child);
+			}
+		});
+
+		MutationAlgorithm mutationAlgorithmMock = mock(MutationAlgorithm.class);
+		when(mutationAlgorithmMock.mutateChromosome(any(Chromosome.class))).thenAnswer(new Answer<Boolean>() {
+			@Override
+			public Boolean answer(InvocationOnMock invocation) throws Throwable {
+				KeyedChromosome.replaceGene((KeyedChromosome<Object>) invocation.getArguments()[0], 0, mutatedGene);
+
+				return true;
+			}
+		});
+
+		FitnessEvaluator fitnessEvaluatorMock = mock(FitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluate(any(Chromosome.class))).thenReturn(BigDecimal.valueOf(100));
+
+		SteadyStateGeneticAlgorithm steadyStateGeneticAlgorithm = createAlgorithm(population, crossoverAlgorithmMock, mutationAlgorithmMock, fitnessEvaluatorMock);
+
+		steadyStateGeneticAlgorithm.doSteadyStateBreeding(new GenerationStatistics(), new PerformanceStatistics());
+		steadyStateGeneticAlgorithm.stopWorkers();
+
+		double tracked = population.calculateEntropy().doubleValue();
+
+		population.setIncrementalEntropy(false);
+
+		assertEquals(population.calculateEntropy().doubleValue(), tracked, 0.000000001);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Test
+	public void testDoSteadyStateBreedingWorkerFails() throws InterruptedException {
+		StandardPopulation population = new StandardPopulation();
+		population.setSelector(new RandomSelector());
+		population.setFitnessComparator(new AscendingFitnessComparator());
+
+		List<Chromosome> originals = new ArrayList<Chromosome>();
+		for (int i = 1; i <= 10; i++) {
+			MockKeyedChromosome individual = new MockKeyedChromosome();
+			individual.setFitness(BigDecimal.valueOf(i));
+			population.addIndividual(individual);
+			originals.add(individual);
+		}
+
+		IllegalArgumentException crossoverFailure = new IllegalArgumentException("Unable to cross over.");
+
+		CrossoverAlgorithm crossoverAlgorithmMock = mock(CrossoverAlgorithm.class);
+		when(crossoverAlgorithmMock.numberOfOffspring()).thenReturn(1);
+		when(crossoverAlgorithmMock.crossover(any(Chromosome.class), any(Chromosome.class))).thenThrow(crossoverFailure);
+
+		SteadyStateGeneticAlgorithm steadyStateGeneticAlgorithm = createAlgorithm(population, crossoverAlgorithmMock, mock(MutationAlgorithm.class), mock(FitnessEvaluator.class));
+
+		try {
+			steadyStateGeneticAlgorithm.doSteadyStateBreeding(new GenerationStatistics(), new PerformanceStatistics());
+
+			fail("Expected an IllegalStateException when a worker fails.");
+		} catch (IllegalStateException ise) {
+			assertSame(crossoverFailure, ise.getCause());
+		}
+
+		// The workers were stopped, and none of them replaced anyone
+		assertTrue(runningWorkers(steadyStateGeneticAlgorithm).isEmpty());
+		assertEquals(originals, population.getIndividuals());
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Test
+	public void testDoSteadyStateBreedingStopRequested() {
+		StandardPopulation population = new StandardPopulation();
+		population.setSelector(new RandomSelector());
+		population.setFitnessComparator(new AscendingFitnessComparator());
+
+		for (int i = 1; i <= 10; i++) {
+			MockKeyedChromosome individual = new MockKeyedChromosome();
+			individual.setFitness(BigDecimal.valueOf(i));
+			population.addIndividual(individual);
+		}
+
+		CrossoverAlgorithm crossoverAlgorithmMock = mock(CrossoverAlgorithm.class);
+		when(crossoverAlgorithmMock.numberOfOffspring()).thenReturn(1);
+
+		SteadyStateGeneticAlgorithm steadyStateGeneticAlgorithm = createAlgorithm(population, crossoverAlgorithmMock, mock(MutationAlgorithm.class), mock(FitnessEvaluator.class));
+		steadyStateGeneticAlgorithm.setOffspringPerGeneration(1000);
+
+		when(crossoverAlgorithmMock.crossover(any(Chromosome.class), any(Chromosome.class))).thenAnswer(new Answer<List<Chromosome>>() {
+			@Override
+			public List<Chromosome> answer(InvocationOnMock invocation) throws Throwable {
+				steadyStateGeneticAlgorithm.requestStop();
+
+				return Collections.emptyList();
+			}
+		});
+
+		try {
+			steadyStateGeneticAlgorithm.doSteadyStateBreeding(new GenerationStatistics(), new PerformanceStatistics());
+
+			fail("Expected an InterruptedException when stop is requested.");
+		} catch (InterruptedException ie) {
+			// The workers have already been stopped
+			assertTrue(runningWorkers(steadyStateGeneticAlgorithm).isEmpty());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetWorkersInvalid() {
+		new SteadyStateGeneticAlgorithm().setWorkers(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetOffspringPerGenerationInvalid() {
+		new SteadyStateGeneticAlgorithm().setOffspringPerGeneration(-1);
+	}
+}
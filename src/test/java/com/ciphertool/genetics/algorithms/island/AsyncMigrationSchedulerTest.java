@@ -0,0 +1,188 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.island;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import com.ciphertool.genetics.algorithms.GeneticAlgorithm;
+import com.ciphertool.genetics.algorithms.island.impl.LoopbackMigrationTransport;
+import com.ciphertool.genetics.algorithms.island.impl.RingTopology;
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.fitness.AscendingFitnessComparator;
+import com.ciphertool.genetics.mocks.MockKeyedChromosome;
+import com.ciphertool.genetics.population.StandardPopulation;
+
+public class AsyncMigrationSchedulerTest {
+	/*
+	 * Stands in for a real serializer by handing out tickets for batches kept in memory.
+	 */
+	private static class TicketSerializer implements MigrantSerializer {
+		private Map<Integer, List<Chromosome>>	batches	= new ConcurrentHashMap<Integer, List<Chromosome>>();
+
+		@Override
+		public byte[] serialize(List<Chromosome> migrants) {
+			int ticket = batches.size();
+			batches.put(ticket, new ArrayList<Chromosome>(migrants));
+
+			return ByteBuffer.allocate(4).putInt(ticket).array();
+		}
+
+		@Override
+		public List<Chromosome> deserialize(byte[] batch) {
+			return batches.get(ByteBuffer.wrap(batch).getInt());
+		}
+	}
+
+	private static IslandModelGeneticAlgorithm createProcess(int islandId, double fitnessScale,
+			MigrationTransport transport, MigrantSerializer serializer) {
+		StandardPopulation population = new StandardPopulation();
+		population.setFitnessComparator(new AscendingFitnessComparator());
+
+		for (int i = 1; i <= 3; i++) {
+			MockKeyedChromosome individual = new MockKeyedChromosome();
+			individual.setFitness(BigDecimal.valueOf(i * fitnessScale));
+			population.addIndividual(individual);
+		}
+
+		GeneticAlgorithm island = mock(GeneticAlgorithm.class);
+		when(island.getPopulation()).thenReturn(population);
+
+		AsyncMigrationScheduler scheduler = new AsyncMigrationScheduler();
+		scheduler.setMigrationTransport(transport);
+		scheduler.setMigrantSerializer(serializer);
+		scheduler.setTaskExecutor(new SyncTaskExecutor());
+		scheduler.setFirstIslandId(islandId);
+		scheduler.setIslandCount(2);
+
+		IslandModelGeneticAlgorithm islandModel = new IslandModelGeneticAlgorithm();
+		islandModel.setIslands(Arrays.asList(island));
+		islandModel.setMigrationTopology(new RingTopology());
+		islandModel.setMigrationScheduler(scheduler);
+		islandModel.validateParameters();
+
+		return islandModel;
+	}
+
+	private static double totalFitness(IslandModelGeneticAlgorithm islandModel) {
+		return ((StandardPopulation) islandModel.getIslands().get(0).getPopulation()).getTotalFitness().doubleValue();
+	}
+
+	@Test
+	public void testMigrateBetweenProcesses() {
+		MigrationTransport transport = new LoopbackMigrationTransport();
+		MigrantSerializer serializer = new TicketSerializer();
+
+		IslandModelGeneticAlgorithm first = createProcess(0, 1.0, transport, serializer);
+		IslandModelGeneticAlgorithm second = createProcess(1, 10.0, transport, serializer);
+
+		// Nothing has arrived yet, so the first process only sends
+		first.migrate();
+		assertEquals(6.0, totalFitness(first), 0.0);
+
+		// The second process takes in the first's best before sending its own
+		second.migrate();
+		assertEquals(3.0 + 20.0 + 30.0, totalFitness(second), 0.0);
+
+		first.migrate();
+		assertEquals(30.0 + 2.0 + 3.0, totalFitness(first), 0.0);
+	}
+
+	@Test
+	public void testMigrantsAreDetached() {
+		MigrationTransport transport = new LoopbackMigrationTransport();
+		TicketSerializer serializer = new TicketSerializer();
+
+		IslandModelGeneticAlgorithm first = createProcess(0, 1.0, transport, serializer);
+
+		// Like a real Chromosome, this one's clones keep its population
+		MockKeyedChromosome best = new MockKeyedChromosome() {
+			@Override
+			public MockKeyedChromosome clone() {
+				MockKeyedChromosome clone = super.clone();
+				clone.setPopulation(getPopulation());
+
+				return clone;
+			}
+		};
+		best.setFitness(BigDecimal.TEN);
+		((StandardPopulation) first.getIslands().get(0).getPopulation()).addIndividual(best);
+
+		first.migrate();
+
+		assertEquals(1, serializer.batches.size());
+		assertEquals(BigDecimal.TEN, serializer.batches.get(0).get(0).getFitness());
+
+		for (Chromosome migrant : serializer.batches.get(0)) {
+			assertNull(migrant.getPopulation());
+		}
+	}
+
+	@Test
+	public void testMigrateAfterFailedSend() throws IOException {
+		MigrationTransport transport = new LoopbackMigrationTransport();
+		MigrantSerializer serializer = mock(MigrantSerializer.class);
+		when(serializer.serialize(anyListOf(Chromosome.class))).thenThrow(new IOException());
+
+		IslandModelGeneticAlgorithm first = createProcess(0, 1.0, transport, serializer);
+
+		// The failed send is logged when the next migration clears it, and the islands are unaffected
+		first.migrate();
+		first.migrate();
+		assertEquals(6.0, totalFitness(first), 0.0);
+		assertNull(transport.receive(1));
+
+		verify(serializer, times(2)).serialize(anyListOf(Chromosome.class));
+	}
+
+	@Test
+	public void testLoopbackMigrationTransport() {
+		LoopbackMigrationTransport transport = new LoopbackMigrationTransport();
+
+		assertNull(transport.receive(3));
+
+		byte[] batch = new byte[] { 1, 2, 3 };
+		transport.send(3, batch);
+		transport.send(3, new byte[] { 4 });
+		batch[0] = 9;
+
+		assertEquals(1, transport.receive(3)[0]);
+		assertEquals(4, transport.receive(3)[0]);
+		assertNull(transport.receive(3));
+		assertNull(transport.receive(2));
+	}
+}
@@ -0,0 +1,258 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.island;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import com.ciphertool.genetics.GeneticAlgorithmStrategy;
+import com.ciphertool.genetics.algorithms.GeneticAlgorithm;
+import com.ciphertool.genetics.algorithms.island.impl.FullyConnectedTopology;
+import com.ciphertool.genetics.algorithms.island.impl.RandomTopology;
+import com.ciphertool.genetics.algorithms.island.impl.RingTopology;
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.statistics.ExecutionStatistics;
+import com.ciphertool.genetics.entities.statistics.GenerationStatistics;
+import com.ciphertool.genetics.entities.statistics.PerformanceStatistics;
+import com.ciphertool.genetics.fitness.AscendingFitnessComparator;
+import com.ciphertool.genetics.fitness.CachingFitnessEvaluator;
+import com.ciphertool.genetics.fitness.DescendingFitnessComparator;
+import com.ciphertool.genetics.mocks.MockKeyedChromosome;
+import com.ciphertool.genetics.population.StandardPopulation;
+
+public class IslandModelGeneticAlgorithmTest {
+	private static List<GeneticAlgorithm> createIslands(double... fitnessScales) {
+		List<GeneticAlgorithm> islands = new ArrayList<GeneticAlgorithm>();
+
+		for (double scale : fitnessScales) {
+			StandardPopulation population = new StandardPopulation();
+			population.setFitnessComparator(new AscendingFitnessComparator());
+
+			for (int i = 1; i <= 3; i++) {
+				MockKeyedChromosome individual = new MockKeyedChromosome();
+				individual.setFitness(BigDecimal.valueOf(i * scale));
+				population.addIndividual(individual);
+			}
+
+			GeneticAlgorithmStrategy strategy = new GeneticAlgorithmStrategy();
+			strategy.setPopulationSize(3);
+			strategy.setMaxGenerations(4);
+
+			GeneticAlgorithm island = mock(GeneticAlgorithm.class);
+			when(island.getPopulation()).thenReturn(population);
+			when(island.getStrategy()).thenReturn(strategy);
+			islands.add(island);
+		}
+
+		return islands;
+	}
+
+	private static double totalFitness(GeneticAlgorithm island) {
+		return ((StandardPopulation) island.getPopulation()).getTotalFitness().doubleValue();
+	}
+
+	@Test
+	public void testMigrateRing() {
+		List<GeneticAlgorithm> islands = createIslands(1.0, 10.0, 100.0);
+
+		IslandModelGeneticAlgorithm islandModel = new IslandModelGeneticAlgorithm();
+		islandModel.setIslands(islands);
+		islandModel.setMigrationTopology(new RingTopology());
+		islandModel.setMigrantCount(1);
+
+		Chromosome best = islands.get(0).getPopulation().getIndividuals().get(2);
+
+		islandModel.migrate();
+
+		// Each island's fittest replaced the least fit of the next island
+		assertEquals(300.0 + 2.0 + 3.0, totalFitness(islands.get(0)), 0.0);
+		assertEquals(3.0 + 20.0 + 30.0, totalFitness(islands.get(1)), 0.0);
+		assertEquals(30.0 + 200.0 + 300.0, totalFitness(islands.get(2)), 0.0);
+
+		// The migrants are clones, not the originals
+		for (Chromosome individual : islands.get(1).getPopulation().getIndividuals()) {
+			assertNotSame(best, individual);
+		}
+	}
+
+	@Test
+	public void testProceedWithNextEpoch() throws InterruptedException {
+		List<GeneticAlgorithm> islands = createIslands(1.0, 10.0);
+
+		IslandModelGeneticAlgorithm islandModel = new IslandModelGeneticAlgorithm();
+		islandModel.setIslands(islands);
+		islandModel.setMigrationTopology(new FullyConnectedTopology());
+		islandModel.setMigrationInterval(3);
+		islandModel.setMigrantCount(1);
+		islandModel.setTaskExecutor(new SyncTaskExecutor());
+
+		islandModel.proceedWithNextEpoch();
+		assertEquals(3, islandModel.getGenerationCount());
+
+		// The last epoch is cut short by maxGenerations
+		islandModel.proceedWithNextEpoch();
+		assertEquals(4, islandModel.getGenerationCount());
+
+		for (GeneticAlgorithm island : islands) {
+			verify(island, times(4)).proceedWithNextGeneration();
+		}
+	}
+
+	@Test
+	public void testFinish() {
+		List<GeneticAlgorithm> islands = createIslands(1.0, 10.0);
+
+		for (int i = 0; i < islands.size(); i++) {
+			ExecutionStatistics executionStatistics = new ExecutionStatistics(new Date(), null);
+
+			for (int generation = 0; generation <= 2; generation++) {
+				GenerationStatistics generationStatistics = new GenerationStatistics(executionStatistics, generation);
+				generationStatistics.setBestFitness(BigDecimal.valueOf(generation + i));
+				generationStatistics.setPerformanceStatistics(new PerformanceStatistics());
+				executionStatistics.addGenerationStatistics(generationStatistics);
+			}
+
+			when(islands.get(i).getExecutionStatistics()).thenReturn(executionStatistics);
+		}
+
+		IslandModelGeneticAlgorithm islandModel = new IslandModelGeneticAlgorithm();
+		islandModel.setIslands(islands);
+
+		islandModel.finish();
+
+		ExecutionStatistics merged = islandModel.getExecutionStatistics();
+		assertNotNull(merged);
+		assertEquals(Integer.valueOf(6), merged.getPopulationSize());
+		assertEquals(3, merged.getGenerationStatisticsList().size());
+		assertEquals(BigDecimal.valueOf(3), merged.getGenerationStatisticsList().get(2).getBestFitness());
+		assertEquals(2, islandModel.getIslandExecutionStatistics().size());
+
+		for (GeneticAlgorithm island : islands) {
+			verify(island, times(1)).finish();
+		}
+	}
+
+	@Test
+	public void testTopologies() {
+		assertArrayEquals(new int[] { 0 }, new RingTopology().getDestinations(3, 4));
+		assertArrayEquals(new int[] { 0, 1, 3 }, new FullyConnectedTopology().getDestinations(2, 4));
+
+		RandomTopology randomTopology = new RandomTopology();
+		for (int i = 0; i < 100; i++) {
+			int[] destinations = randomTopology.getDestinations(1, 3);
+
+			assertEquals(1, destinations.length);
+			assertNotEquals(1, destinations[0]);
+			assertEquals(true, destinations[0] >= 0 && destinations[0] < 3);
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testProceedWithNextEpochIslandFails() throws InterruptedException {
+		List<GeneticAlgorithm> islands = createIslands(1.0, 10.0);
+		doThrow(new IllegalArgumentException()).when(islands.get(1)).proceedWithNextGeneration();
+
+		IslandModelGeneticAlgorithm islandModel = new IslandModelGeneticAlgorithm();
+		islandModel.setIslands(islands);
+		islandModel.setMigrationTopology(new FullyConnectedTopology());
+		islandModel.setTaskExecutor(new SyncTaskExecutor());
+
+		islandModel.proceedWithNextEpoch();
+	}
+
+	@Test(expected = InterruptedException.class)
+	public void testProceedWithNextEpochIslandStopped() throws InterruptedException {
+		List<GeneticAlgorithm> islands = createIslands(1.0, 10.0);
+		doThrow(new InterruptedException()).when(islands.get(0)).proceedWithNextGeneration();
+
+		IslandModelGeneticAlgorithm islandModel = new IslandModelGeneticAlgorithm();
+		islandModel.setIslands(islands);
+		islandModel.setMigrationTopology(new FullyConnectedTopology());
+		islandModel.setTaskExecutor(new SyncTaskExecutor());
+
+		islandModel.proceedWithNextEpoch();
+	}
+
+	@Test
+	public void testFinishWithLowerFitnessBetter() {
+		List<GeneticAlgorithm> islands = createIslands(1.0, 10.0);
+
+		for (int i = 0; i < islands.size(); i++) {
+			((StandardPopulation) islands.get(i).getPopulation()).setFitnessComparator(new DescendingFitnessComparator());
+
+			ExecutionStatistics executionStatistics = new ExecutionStatistics(new Date(), null);
+
+			GenerationStatistics generationStatistics = new GenerationStatistics(executionStatistics, 0);
+			generationStatistics.setBestFitness(BigDecimal.valueOf(i + 1));
+			generationStatistics.setPerformanceStatistics(new PerformanceStatistics());
+			executionStatistics.addGenerationStatistics(generationStatistics);
+
+			when(islands.get(i).getExecutionStatistics()).thenReturn(executionStatistics);
+		}
+
+		IslandModelGeneticAlgorithm islandModel = new IslandModelGeneticAlgorithm();
+		islandModel.setIslands(islands);
+
+		islandModel.finish();
+
+		assertEquals(BigDecimal.valueOf(1), islandModel.getExecutionStatistics().getGenerationStatisticsList().get(0).getBestFitness());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testValidateParametersSharedFitnessCache() {
+		List<GeneticAlgorithm> islands = createIslands(1.0, 10.0);
+
+		CachingFitnessEvaluator cachingFitnessEvaluator = new CachingFitnessEvaluator();
+
+		for (GeneticAlgorithm island : islands) {
+			island.getStrategy().setFitnessEvaluator(cachingFitnessEvaluator);
+		}
+
+		IslandModelGeneticAlgorithm islandModel = new IslandModelGeneticAlgorithm();
+		islandModel.setIslands(islands);
+
+		islandModel.validateParameters();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testValidateParametersTooFewIslands() {
+		IslandModelGeneticAlgorithm islandModel = new IslandModelGeneticAlgorithm();
+		islandModel.setIslands(Arrays.asList(mock(GeneticAlgorithm.class)));
+
+		islandModel.validateParameters();
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.mutation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.mocks.MockGene;
+import com.ciphertool.genetics.mocks.MockKeyedChromosome;
+
+public class UndoLogTest {
+	private static MockKeyedChromosome createChromosome(int size) {
+		MockKeyedChromosome chromosome = new MockKeyedChromosome();
+
+		for (int i = 0; i < size; i++) {
+			chromosome.putGene(i, new MockGene());
+		}
+
+		return chromosome;
+	}
+
+	@Test
+	public void testRollback() {
+		MockKeyedChromosome chromosome = createChromosome(5);
+		Map<Object, Gene> original = new HashMap<Object, Gene>(chromosome.getGenes());
+
+		UndoLog undoLog = new UndoLog();
+		undoLog.reset(chromosome);
+		assertEquals(5, undoLog.getKeyCount());
+		assertTrue(undoLog.isEmpty());
+
+		undoLog.replaceGene(chromosome, 1, new MockGene());
+		undoLog.replaceGene(chromosome, 3, new MockGene());
+		assertFalse(undoLog.isEmpty());
+		assertNotSame(original.get(undoLog.getKey(1)), chromosome.getGenes().get(undoLog.getKey(1)));
+
+		undoLog.rollback(chromosome);
+		assertTrue(undoLog.isEmpty());
+
+		for (Map.Entry<Object, Gene> entry : original.entrySet()) {
+			assertSame(entry.getValue(), chromosome.getGenes().get(entry.getKey()));
+		}
+	}
+
+	@Test
+	public void testRollbackOfRepeatedReplacement() {
+		MockKeyedChromosome chromosome = createChromosome(2);
+		Gene originalGene = chromosome.getGenes().get(0);
+
+		UndoLog undoLog = new UndoLog();
+		undoLog.reset(chromosome);
+
+		int index = (undoLog.getKey(0).equals(0)) ? 0 : 1;
+		undoLog.replaceGene(chromosome, index, new MockGene());
+		undoLog.replaceGene(chromosome, index, new MockGene());
+		undoLog.replaceGene(chromosome, index, new MockGene());
+
+		undoLog.rollback(chromosome);
+
+		assertSame(originalGene, chromosome.getGenes().get(0));
+	}
+
+	@Test
+	public void testReuseAcrossChromosomes() {
+		UndoLog undoLog = new UndoLog();
+		undoLog.reset(createChromosome(3));
+
+		MockKeyedChromosome chromosome = createChromosome(8);
+		undoLog.reset(chromosome);
+		assertEquals(8, undoLog.getKeyCount());
+
+		undoLog.replaceGene(chromosome, 7, new MockGene());
+		undoLog.clear();
+
+		assertTrue(undoLog.isEmpty());
+		assertEquals(0, undoLog.getKeyCount());
+	}
+
+	@Test
+	public void testChooseDistinctIndices() {
+		UndoLog undoLog = new UndoLog();
+		undoLog.reset(createChromosome(10));
+
+		for (int count = 0; count <= 10; count++) {
+			int[] indices = undoLog.chooseDistinctIndices(count);
+
+			boolean[] seen = new boolean[10];
+			for (int i = 0; i < count; i++) {
+				assertTrue(indices[i] >= 0 && indices[i] < 10);
+				assertFalse(seen[indices[i]]);
+				seen[indices[i]] = true;
+			}
+		}
+	}
+}
@@ -55,6 +55,7 @@ import com.ciphertool.genetics.entities.Chromosome;
 import com.ciphertool.genetics.entities.Gene;
 import com.ciphertool.genetics.mocks.MockGene;
 import com.ciphertool.genetics.mocks.MockKeyedChromosome;
+import com.ciphertool.genetics.mocks.MockSequence;
 
 public class RandomValueMutationAlgorithmTest {
 	private final static int					MAX_MUTATIONS	= 2;
@@ -150,6 +151,24 @@ public class RandomValueMutationAlgorithmTest {
 		verifyZeroInteractions(logMock);
 	}
 
+	@Test
+	public void testMutateChromosomeDetectsChange() {
+		randomValueMutationAlgorithm.setMaxMutationsPerChromosome(MAX_MUTATIONS);
+
+		MockKeyedChromosome mockKeyedChromosome = new MockKeyedChromosome();
+		mockKeyedChromosome.putGene("1", new MockGene());
+		mockKeyedChromosome.putGene("2", new MockGene());
+
+		// An empty MockGene is equal to the Genes it replaces, so nothing has changed
+		when(geneDaoMock.findRandomGene(same(mockKeyedChromosome))).thenReturn(new MockGene());
+		assertFalse(randomValueMutationAlgorithm.mutateChromosome(mockKeyedChromosome));
+
+		MockGene differentGene = new MockGene();
+		differentGene.addSequence(new MockSequence("a"));
+		when(geneDaoMock.findRandomGene(same(mockKeyedChromosome))).thenReturn(differentGene);
+		assertTrue(randomValueMutationAlgorithm.mutateChromosome(mockKeyedChromosome));
+	}
+
 	@Test
 	public void testMutateRandomGene() {
 		MockKeyedChromosome mockKeyedChromosome = new MockKeyedChromosome();
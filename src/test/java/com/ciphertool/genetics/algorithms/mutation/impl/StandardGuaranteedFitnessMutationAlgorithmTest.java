@@ -0,0 +1,122 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.mutation.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.ciphertool.genetics.dao.GeneDao;
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.fitness.IncrementalFitnessEvaluator;
+import com.ciphertool.genetics.mocks.MockGene;
+import com.ciphertool.genetics.mocks.MockKeyedChromosome;
+import com.ciphertool.genetics.mocks.MockSequence;
+
+public class StandardGuaranteedFitnessMutationAlgorithmTest {
+	private static MockGene createGene(Object value) {
+		MockGene gene = new MockGene();
+		gene.addSequence(new MockSequence(value));
+
+		return gene;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testMutateChromosomeWithIncrementalFitnessEvaluator() {
+		MockKeyedChromosome chromosome = new MockKeyedChromosome();
+		chromosome.putGene("1", createGene("a"));
+		chromosome.putGene("2", createGene("b"));
+		chromosome.setFitness(BigDecimal.ONE);
+
+		GeneDao geneDaoMock = mock(GeneDao.class);
+		when(geneDaoMock.findRandomGene(same(chromosome))).thenReturn(createGene("c"));
+
+		List<Object> changedKeys = new ArrayList<Object>();
+		IncrementalFitnessEvaluator fitnessEvaluatorMock = mock(IncrementalFitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluateIncrementally(any(Chromosome.class), anyCollectionOf(Object.class), anyDouble())).thenAnswer(new Answer<Double>() {
+			@Override
+			public Double answer(InvocationOnMock invocation) throws Throwable {
+				changedKeys.addAll((List<Object>) invocation.getArguments()[1]);
+
+				return 2.0;
+			}
+		});
+
+		StandardGuaranteedFitnessMutationAlgorithm algorithm = new StandardGuaranteedFitnessMutationAlgorithm();
+		algorithm.setGeneDao(geneDaoMock);
+		algorithm.setFitnessEvaluator(fitnessEvaluatorMock);
+		algorithm.setMutationRate(1.0);
+		algorithm.setMaxAttempts(1);
+
+		assertTrue(algorithm.mutateChromosome(chromosome));
+
+		verify(fitnessEvaluatorMock).evaluateIncrementally(same(chromosome), anyCollectionOf(Object.class), eq(1.0));
+		verify(fitnessEvaluatorMock, never()).evaluate(any(Chromosome.class));
+		assertEquals(new HashSet<Object>(Arrays.asList("1", "2")), new HashSet<Object>(changedKeys));
+		assertEquals(2.0, chromosome.getFitnessAsDouble(), 0.0);
+	}
+
+	@Test
+	public void testMutateChromosomeRollsBack() {
+		MockKeyedChromosome chromosome = new MockKeyedChromosome();
+		Gene originalGene = createGene("a");
+		chromosome.putGene("1", originalGene);
+		chromosome.setFitness(BigDecimal.ONE);
+
+		GeneDao geneDaoMock = mock(GeneDao.class);
+		when(geneDaoMock.findRandomGene(same(chromosome))).thenReturn(createGene("c"));
+
+		IncrementalFitnessEvaluator fitnessEvaluatorMock = mock(IncrementalFitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluateIncrementally(any(Chromosome.class), anyCollectionOf(Object.class), anyDouble())).thenReturn(0.5);
+
+		StandardGuaranteedFitnessMutationAlgorithm algorithm = new StandardGuaranteedFitnessMutationAlgorithm();
+		algorithm.setGeneDao(geneDaoMock);
+		algorithm.setFitnessEvaluator(fitnessEvaluatorMock);
+		algorithm.setMutationRate(1.0);
+		algorithm.setMaxAttempts(3);
+
+		assertFalse(algorithm.mutateChromosome(chromosome));
+
+		assertSame(originalGene, chromosome.getGenes().get("1"));
+		assertEquals(BigDecimal.ONE, chromosome.getFitness());
+	}
+}
@@ -0,0 +1,224 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.selection.modes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.springframework.util.ReflectionUtils;
+
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.mocks.MockKeyedChromosome;
+
+public class FenwickTreeSelectorTest {
+	private static FenwickTreeSelector	fenwickTreeSelector;
+	private static Logger				logMock;
+
+	@BeforeClass
+	public static void setUp() {
+		fenwickTreeSelector = new FenwickTreeSelector();
+
+		logMock = mock(Logger.class);
+		Field logField = ReflectionUtils.findField(FenwickTreeSelector.class, "log");
+		ReflectionUtils.makeAccessible(logField);
+		ReflectionUtils.setField(logField, fenwickTreeSelector, logMock);
+	}
+
+	@Before
+	public void resetMocks() {
+		reset(logMock);
+	}
+
+	@Test
+	public void testGetNextIndex() {
+		List<Chromosome> individuals = new ArrayList<Chromosome>();
+
+		MockKeyedChromosome chromosome1 = new MockKeyedChromosome();
+		chromosome1.setFitness(BigDecimal.valueOf(1.0));
+		individuals.add(chromosome1);
+
+		MockKeyedChromosome chromosome2 = new MockKeyedChromosome();
+		chromosome2.setFitness(BigDecimal.valueOf(0.0));
+		individuals.add(chromosome2);
+
+		MockKeyedChromosome chromosome3 = new MockKeyedChromosome();
+		chromosome3.setFitness(BigDecimal.valueOf(3.0));
+		individuals.add(chromosome3);
+
+		MockKeyedChromosome chromosome4 = new MockKeyedChromosome();
+		chromosome4.setFitness(BigDecimal.valueOf(0.0));
+		individuals.add(chromosome4);
+
+		MockKeyedChromosome chromosome5 = new MockKeyedChromosome();
+		chromosome5.setFitness(BigDecimal.valueOf(4.0));
+		individuals.add(chromosome5);
+
+		fenwickTreeSelector.reIndex(individuals);
+
+		int[] counts = new int[individuals.size()];
+		int spins = 40000;
+		for (int i = 0; i < spins; i++) {
+			counts[fenwickTreeSelector.getNextIndex(individuals, 8.0)]++;
+		}
+
+		// Individuals with zero fitness can never be selected
+		assertEquals(0, counts[1]);
+		assertEquals(0, counts[3]);
+
+		assertEquals(0.125, (double) counts[0] / spins, 0.02);
+		assertEquals(0.375, (double) counts[2] / spins, 0.02);
+		assertEquals(0.5, (double) counts[4] / spins, 0.02);
+		verifyZeroInteractions(logMock);
+	}
+
+	@Test
+	public void testUpdate() {
+		List<Chromosome> individuals = new ArrayList<Chromosome>();
+
+		MockKeyedChromosome chromosome1 = new MockKeyedChromosome();
+		chromosome1.setFitness(BigDecimal.valueOf(5.0));
+		individuals.add(chromosome1);
+
+		individuals.add(new MockKeyedChromosome());
+		individuals.add(new MockKeyedChromosome());
+
+		fenwickTreeSelector.reIndex(individuals);
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(0, fenwickTreeSelector.getNextIndex(individuals, 5.0));
+		}
+
+		// Moving all of the weight onto the last individual must take effect without a reIndex
+		fenwickTreeSelector.update(0, 0.0);
+		fenwickTreeSelector.update(2, 2.0);
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(2, fenwickTreeSelector.getNextIndex(individuals, 2.0));
+		}
+
+		assertEquals(2.0, fenwickTreeSelector.prefixSum(individuals.size()), 0.0);
+		verifyZeroInteractions(logMock);
+	}
+
+	@Test
+	public void testUpdateInvalidIndex() {
+		List<Chromosome> individuals = new ArrayList<Chromosome>();
+
+		MockKeyedChromosome chromosome1 = new MockKeyedChromosome();
+		chromosome1.setFitness(BigDecimal.valueOf(1.0));
+		individuals.add(chromosome1);
+
+		MockKeyedChromosome chromosome2 = new MockKeyedChromosome();
+		chromosome2.setFitness(BigDecimal.valueOf(2.0));
+		individuals.add(chromosome2);
+
+		fenwickTreeSelector.reIndex(individuals);
+
+		fenwickTreeSelector.update(2, 1.0);
+
+		assertEquals(3.0, fenwickTreeSelector.prefixSum(individuals.size()), 0.0);
+		verify(logMock, times(1)).warn(anyString());
+	}
+
+	@Test
+	public void testGetNextIndexWithoutIndex() {
+		List<Chromosome> indexed = new ArrayList<Chromosome>();
+
+		MockKeyedChromosome indexed1 = new MockKeyedChromosome();
+		indexed1.setFitness(BigDecimal.valueOf(1.0));
+		indexed.add(indexed1);
+
+		fenwickTreeSelector.reIndex(indexed);
+
+		List<Chromosome> individuals = new ArrayList<Chromosome>();
+		individuals.add(new MockKeyedChromosome());
+
+		MockKeyedChromosome chromosome2 = new MockKeyedChromosome();
+		chromosome2.setFitness(BigDecimal.valueOf(2.0));
+		individuals.add(chromosome2);
+
+		// This List does not match what was indexed, so the selector must fall back to spinning over the List itself
+		for (int i = 0; i < 100; i++) {
+			assertEquals(1, fenwickTreeSelector.getNextIndex(individuals, 2.0));
+		}
+	}
+
+	@Test
+	public void testGetNextIndexWithSameSizedList() {
+		List<Chromosome> indexed = new ArrayList<Chromosome>();
+
+		MockKeyedChromosome indexed1 = new MockKeyedChromosome();
+		indexed1.setFitness(BigDecimal.valueOf(2.0));
+		indexed.add(indexed1);
+
+		indexed.add(new MockKeyedChromosome());
+
+		fenwickTreeSelector.reIndex(indexed);
+
+		List<Chromosome> individuals = new ArrayList<Chromosome>();
+		individuals.add(new MockKeyedChromosome());
+
+		MockKeyedChromosome chromosome2 = new MockKeyedChromosome();
+		chromosome2.setFitness(BigDecimal.valueOf(2.0));
+		individuals.add(chromosome2);
+
+		// A different List of the same size must not be sampled with the indexed weights
+		for (int i = 0; i < 100; i++) {
+			assertEquals(1, fenwickTreeSelector.getNextIndex(individuals, 2.0));
+		}
+	}
+
+	@Test
+	public void testGetNextIndexWithZeroTotalFitness() {
+		List<Chromosome> individuals = new ArrayList<Chromosome>();
+		individuals.add(new MockKeyedChromosome());
+		individuals.add(new MockKeyedChromosome());
+
+		fenwickTreeSelector.reIndex(individuals);
+
+		int selectedIndex = fenwickTreeSelector.getNextIndex(individuals, 0.0);
+
+		assertTrue(selectedIndex > -1 && selectedIndex < individuals.size());
+		verifyZeroInteractions(logMock);
+	}
+
+	@Test
+	public void testGetNextIndexWithEmptyPopulation() {
+		int selectedIndex = fenwickTreeSelector.getNextIndex(new ArrayList<Chromosome>(), 6.0);
+
+		assertEquals(-1, selectedIndex);
+		verify(logMock, times(1)).warn(anyString());
+	}
+}
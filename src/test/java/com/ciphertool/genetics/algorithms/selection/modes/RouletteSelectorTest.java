@@ -66,7 +66,7 @@ public class RouletteSelectorTest {
 	@Test
 	public void testGetNextIndex() {
 		BinaryRouletteTree binaryRouletteTree = new BinaryRouletteTree();
-		binaryRouletteTree.insert(new BinaryRouletteNode(0, BigDecimal.valueOf(7.0)));
+		binaryRouletteTree.insert(new BinaryRouletteNode(0, 7.0));
 
 		Field rouletteWheelField = ReflectionUtils.findField(RouletteSelector.class, "rouletteWheel");
 		ReflectionUtils.makeAccessible(rouletteWheelField);
@@ -0,0 +1,151 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.algorithms.selection.modes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.springframework.util.ReflectionUtils;
+
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.mocks.MockKeyedChromosome;
+
+public class StochasticUniversalSamplingSelectorTest {
+	private static StochasticUniversalSamplingSelector	susSelector;
+	private static Logger								logMock;
+
+	@BeforeClass
+	public static void setUp() {
+		susSelector = new StochasticUniversalSamplingSelector();
+
+		logMock = mock(Logger.class);
+		Field logField = ReflectionUtils.findField(StochasticUniversalSamplingSelector.class, "log");
+		ReflectionUtils.makeAccessible(logField);
+		ReflectionUtils.setField(logField, susSelector, logMock);
+	}
+
+	@Before
+	public void resetMocks() {
+		reset(logMock);
+	}
+
+	@Test
+	public void testGetNextIndices() {
+		List<Chromosome> individuals = new ArrayList<Chromosome>();
+
+		MockKeyedChromosome chromosome1 = new MockKeyedChromosome();
+		chromosome1.setFitness(BigDecimal.valueOf(1.0));
+		individuals.add(chromosome1);
+
+		individuals.add(new MockKeyedChromosome());
+
+		MockKeyedChromosome chromosome3 = new MockKeyedChromosome();
+		chromosome3.setFitness(BigDecimal.valueOf(3.0));
+		individuals.add(chromosome3);
+
+		// A negative fitness is treated as zero
+		MockKeyedChromosome chromosome4 = new MockKeyedChromosome();
+		chromosome4.setFitness(BigDecimal.valueOf(-2.0));
+		individuals.add(chromosome4);
+
+		MockKeyedChromosome chromosome5 = new MockKeyedChromosome();
+		chromosome5.setFitness(BigDecimal.valueOf(4.0));
+		individuals.add(chromosome5);
+
+		for (int spin = 0; spin < 100; spin++) {
+			int[] counts = new int[individuals.size()];
+
+			for (int index : susSelector.getNextIndices(individuals, 8.0, 8)) {
+				counts[index]++;
+			}
+
+			// The pointers are exactly one unit of fitness apart, so every spin selects the expected counts exactly
+			assertEquals(1, counts[0]);
+			assertEquals(0, counts[1]);
+			assertEquals(3, counts[2]);
+			assertEquals(0, counts[3]);
+			assertEquals(4, counts[4]);
+		}
+
+		verifyZeroInteractions(logMock);
+	}
+
+	@Test
+	public void testGetNextIndicesWithZeroTotalFitness() {
+		List<Chromosome> individuals = new ArrayList<Chromosome>();
+		individuals.add(new MockKeyedChromosome());
+		individuals.add(new MockKeyedChromosome());
+
+		for (int index : susSelector.getNextIndices(individuals, 0.0, 10)) {
+			assertTrue(index > -1 && index < individuals.size());
+		}
+
+		verifyZeroInteractions(logMock);
+	}
+
+	@Test
+	public void testGetNextIndicesWithEmptyPopulation() {
+		int[] indices = susSelector.getNextIndices(new ArrayList<Chromosome>(), 6.0, 2);
+
+		assertEquals(2, indices.length);
+		assertEquals(-1, indices[0]);
+		assertEquals(-1, indices[1]);
+		verify(logMock, times(1)).warn(anyString());
+	}
+
+	@Test
+	public void testGetNextIndex() {
+		List<Chromosome> individuals = new ArrayList<Chromosome>();
+		individuals.add(new MockKeyedChromosome());
+
+		MockKeyedChromosome chromosome2 = new MockKeyedChromosome();
+		chromosome2.setFitness(BigDecimal.valueOf(2.0));
+		individuals.add(chromosome2);
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(1, susSelector.getNextIndex(individuals, 2.0));
+		}
+
+		verifyZeroInteractions(logMock);
+	}
+
+	@Test
+	public void testGetNextIndexWithNullPopulation() {
+		int selectedIndex = susSelector.getNextIndex(null, BigDecimal.valueOf(6.0));
+
+		assertEquals(-1, selectedIndex);
+		verify(logMock, times(1)).warn(anyString());
+	}
+}
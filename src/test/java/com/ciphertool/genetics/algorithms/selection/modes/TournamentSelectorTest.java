@@ -91,6 +91,58 @@ public class TournamentSelectorTest {
 		tournamentSelector.setSelectionAccuracy(selectionAccuracyToSet);
 	}
 
+	@Test
+	public void testSetTournamentSize() {
+		int tournamentSizeToSet = 5;
+
+		TournamentSelector tournamentSelector = new TournamentSelector();
+		tournamentSelector.setTournamentSize(tournamentSizeToSet);
+
+		Field tournamentSizeField = ReflectionUtils.findField(TournamentSelector.class, "tournamentSize");
+		ReflectionUtils.makeAccessible(tournamentSizeField);
+
+		assertEquals(tournamentSizeToSet, ReflectionUtils.getField(tournamentSizeField, tournamentSelector));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetTournamentSizeInvalid() {
+		TournamentSelector tournamentSelector = new TournamentSelector();
+		tournamentSelector.setTournamentSize(0);
+	}
+
+	@Test
+	public void testGetNextIndexDoesNotModifyPopulation() {
+		TournamentSelector tournamentSelector = new TournamentSelector();
+		tournamentSelector.setSelectionAccuracy(1.0);
+		tournamentSelector.setTournamentSize(50);
+
+		List<Chromosome> individuals = new ArrayList<Chromosome>();
+
+		MockKeyedChromosome chromosome1 = new MockKeyedChromosome();
+		chromosome1.setFitness(BigDecimal.valueOf(1.0));
+		individuals.add(chromosome1);
+
+		MockKeyedChromosome chromosome2 = new MockKeyedChromosome();
+		chromosome2.setFitness(BigDecimal.valueOf(3.0));
+		individuals.add(chromosome2);
+
+		MockKeyedChromosome chromosome3 = new MockKeyedChromosome();
+		chromosome3.setFitness(BigDecimal.valueOf(2.0));
+		individuals.add(chromosome3);
+
+		List<Chromosome> original = new ArrayList<Chromosome>(individuals);
+
+		/*
+		 * With perfect accuracy and a large tournament, the fittest individual is all but certain to be sampled and
+		 * must then always win.
+		 */
+		for (int i = 0; i < 100; i++) {
+			assertEquals(1, tournamentSelector.getNextIndex(individuals, 6.0));
+		}
+
+		assertEquals(original, individuals);
+	}
+
 	@Test
 	public void testGetNextIndex() {
 		List<Chromosome> individuals = new ArrayList<Chromosome>();
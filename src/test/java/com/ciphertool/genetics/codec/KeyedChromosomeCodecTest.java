@@ -0,0 +1,252 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.entities.GeneIndex;
+import com.ciphertool.genetics.entities.KeyedChromosome;
+import com.ciphertool.genetics.mocks.MockImmutableGene;
+import com.ciphertool.genetics.mocks.MockIndexedChromosome;
+import com.ciphertool.genetics.mocks.MockKeyedChromosome;
+
+public class KeyedChromosomeCodecTest {
+	private static class StringGeneSerializer implements GeneSerializer {
+		@Override
+		public void write(Gene gene, DataOutput out) throws IOException {
+			out.writeUTF(((MockImmutableGene) gene).getValue());
+		}
+
+		@Override
+		public Gene read(DataInput in) throws IOException {
+			return new MockImmutableGene(in.readUTF());
+		}
+	}
+
+	private static KeyedChromosomeCodec createCodec() {
+		KeyedChromosomeCodec codec = new KeyedChromosomeCodec();
+		codec.setGeneSerializer(new StringGeneSerializer());
+		codec.setChromosomeFactory(MockKeyedChromosome::new);
+
+		return codec;
+	}
+
+	private static List<Chromosome> createChromosomes(int count) {
+		List<Chromosome> chromosomes = new ArrayList<Chromosome>();
+
+		for (int i = 0; i < count; i++) {
+			MockKeyedChromosome chromosome = new MockKeyedChromosome();
+
+			for (int j = -2; j < 50; j++) {
+				chromosome.putGene(j, new MockImmutableGene("value" + ((i + j) % 3)));
+			}
+
+			chromosome.setFitness(BigDecimal.valueOf(i + 0.5));
+			chromosome.setEvaluationNeeded(i % 2 == 0);
+
+			chromosomes.add(chromosome);
+		}
+
+		return chromosomes;
+	}
+
+	private static void assertRoundTrip(List<Chromosome> original, List<Chromosome> decoded) {
+		assertEquals(original.size(), decoded.size());
+
+		for (int i = 0; i < original.size(); i++) {
+			assertEquals(original.get(i), decoded.get(i));
+			assertEquals(original.get(i).getFitnessAsDouble(), decoded.get(i).getFitnessAsDouble(), 0.0);
+			assertEquals(original.get(i).isEvaluationNeeded(), decoded.get(i).isEvaluationNeeded());
+		}
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		KeyedChromosomeCodec codec = createCodec();
+
+		List<Chromosome> original = createChromosomes(10);
+		List<Chromosome> decoded = codec.decode(codec.encode(original));
+
+		assertRoundTrip(original, decoded);
+
+		// Repeated values are decoded to the same immutable Gene
+		KeyedChromosome<?> first = (KeyedChromosome<?>) decoded.get(0);
+		KeyedChromosome<?> second = (KeyedChromosome<?>) decoded.get(1);
+		assertSame(first.getGenes().get(1), second.getGenes().get(0));
+	}
+
+	@Test
+	public void testRoundTripCompressed() throws IOException {
+		KeyedChromosomeCodec codec = createCodec();
+
+		List<Chromosome> original = createChromosomes(100);
+		byte[] uncompressed = codec.encode(original);
+
+		codec.setCompressed(true);
+		byte[] compressed = codec.encode(original);
+
+		assertTrue(compressed.length < uncompressed.length);
+		assertRoundTrip(original, codec.decode(compressed));
+
+		// The header records the compression, so any codec can decode either
+		codec.setCompressed(false);
+		assertRoundTrip(original, codec.decode(compressed));
+	}
+
+	@Test
+	public void testSerializeAndDeserialize() throws IOException {
+		KeyedChromosomeCodec codec = createCodec();
+
+		MockKeyedChromosome chromosome = new MockKeyedChromosome();
+		chromosome.putGene(7, new MockImmutableGene("a"));
+
+		List<Chromosome> original = Arrays.asList(chromosome);
+
+		assertRoundTrip(original, codec.deserialize(codec.serialize(original)));
+	}
+
+	@Test
+	public void testRoundTripWithGeneIndex() throws IOException {
+		GeneIndex<Object> geneIndex = new GeneIndex<Object>(Arrays.asList("x", "y", "z"));
+
+		KeyedChromosomeCodec codec = createCodec();
+		codec.setGeneIndex(geneIndex);
+		codec.setChromosomeFactory(() -> new MockIndexedChromosome(geneIndex));
+
+		MockIndexedChromosome chromosome = new MockIndexedChromosome(geneIndex);
+		chromosome.putGene("x", new MockImmutableGene("a"));
+		chromosome.putGene("z", new MockImmutableGene("b"));
+
+		List<Chromosome> decoded = codec.decode(codec.encode(Arrays.asList(chromosome)));
+
+		assertEquals(chromosome.getGenes(), ((KeyedChromosome<?>) decoded.get(0)).getGenes());
+		assertSame(geneIndex, ((MockIndexedChromosome) decoded.get(0)).getGeneIndex());
+	}
+
+	@Test(expected = IOException.class)
+	public void testEncodeUnindexedKey() throws IOException {
+		KeyedChromosomeCodec codec = createCodec();
+		codec.setGeneIndex(new GeneIndex<Object>(Arrays.asList("x")));
+
+		MockKeyedChromosome chromosome = new MockKeyedChromosome();
+		chromosome.putGene("y", new MockImmutableGene("a"));
+
+		codec.encode(Arrays.asList(chromosome));
+	}
+
+	@Test(expected = IOException.class)
+	public void testEncodeNonIntegerKey() throws IOException {
+		KeyedChromosomeCodec codec = createCodec();
+
+		MockKeyedChromosome chromosome = new MockKeyedChromosome();
+		chromosome.putGene("y", new MockImmutableGene("a"));
+
+		codec.encode(Arrays.asList(chromosome));
+	}
+
+	@Test(expected = IOException.class)
+	public void testEncodeNonKeyedChromosome() throws IOException {
+		createCodec().encode(Arrays.asList(mock(Chromosome.class)));
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecodeBadHeader() throws IOException {
+		createCodec().decode(new byte[] { 'X', 'Y', 1, 0, 0 });
+	}
+
+	private static byte[] createBytes(int... body) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		out.write(new byte[] { 'G', 'C', 1, 0 });
+
+		for (int value : body) {
+			KeyedChromosomeCodec.writeVarint(out, value);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecodeNegativeChromosomeCount() throws IOException {
+		createCodec().decode(createBytes(-1));
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecodeTruncated() throws IOException {
+		// Claims far more Chromosomes than follow
+		createCodec().decode(createBytes(Integer.MAX_VALUE));
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecodeNegativeGeneCount() throws IOException {
+		// One Chromosome with no fitness, then its Gene count
+		createCodec().decode(createBytes(1, 0, -1));
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecodeDanglingReference() throws IOException {
+		// One Chromosome with no fitness and one Gene, at key 0, referring to a value never read
+		createCodec().decode(createBytes(1, 0, 1, 0, 1));
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecodeKeyOutsideGeneIndex() throws IOException {
+		KeyedChromosomeCodec codec = createCodec();
+		codec.setGeneIndex(new GeneIndex<Object>(Arrays.asList("x")));
+
+		// One Chromosome with no fitness and one Gene, at key position 5
+		codec.decode(createBytes(1, 0, 1, 5, 0));
+	}
+
+	@Test
+	public void testVarint() throws IOException {
+		int[] values = { 0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1 };
+		int[] lengths = { 1, 1, 1, 2, 2, 3, 5, 5 };
+
+		for (int i = 0; i < values.length; i++) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			KeyedChromosomeCodec.writeVarint(new DataOutputStream(bytes), values[i]);
+
+			assertEquals(lengths[i], bytes.size());
+			assertEquals(values[i], KeyedChromosomeCodec.readVarint(new DataInputStream(
+					new ByteArrayInputStream(bytes.toByteArray()))));
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.mocks.MockGene;
+import com.ciphertool.genetics.mocks.MockImmutableGene;
+import com.ciphertool.genetics.mocks.MockKeyedChromosome;
+
+public class InterningGeneDaoTest {
+	@Test
+	public void testFindRandomGene() {
+		MockKeyedChromosome chromosome = new MockKeyedChromosome();
+
+		MockImmutableGene first = new MockImmutableGene("a");
+		MockImmutableGene equal = new MockImmutableGene("a");
+		MockImmutableGene other = new MockImmutableGene("b");
+
+		GeneDao geneDaoMock = mock(GeneDao.class);
+		when(geneDaoMock.findRandomGene(chromosome)).thenReturn(first, equal, other);
+
+		InterningGeneDao interningGeneDao = new InterningGeneDao();
+		interningGeneDao.setGeneDao(geneDaoMock);
+
+		assertSame(first, interningGeneDao.findRandomGene(chromosome));
+		assertSame(first, interningGeneDao.findRandomGene(chromosome));
+		assertSame(other, interningGeneDao.findRandomGene(chromosome));
+		assertEquals(2, interningGeneDao.getInternedCount());
+
+		interningGeneDao.clear();
+		assertEquals(0, interningGeneDao.getInternedCount());
+	}
+
+	@Test
+	public void testInternMutableGene() {
+		InterningGeneDao interningGeneDao = new InterningGeneDao();
+
+		Gene gene = new MockGene();
+
+		assertSame(gene, interningGeneDao.intern(gene));
+		assertEquals(0, interningGeneDao.getInternedCount());
+	}
+
+	@Test
+	public void testSharedGeneHasNoChromosome() {
+		MockImmutableGene gene = new MockImmutableGene("a");
+
+		MockKeyedChromosome first = new MockKeyedChromosome();
+		first.putGene(0, gene);
+
+		MockKeyedChromosome second = first.clone();
+
+		assertSame(gene, second.getGenes().get(0));
+		assertNull(gene.getChromosome());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSharedGeneHasMatch() {
+		MockImmutableGene gene = new MockImmutableGene("a");
+
+		assertFalse(gene.hasMatch());
+
+		gene.setHasMatch(true);
+	}
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.entities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import com.ciphertool.genetics.mocks.MockCopyOnWriteChromosome;
+import com.ciphertool.genetics.mocks.MockGene;
+
+public class CopyOnWriteKeyedChromosomeTest {
+	private static MockCopyOnWriteChromosome createChromosome() {
+		MockCopyOnWriteChromosome chromosome = new MockCopyOnWriteChromosome();
+		chromosome.putGene(1, new MockGene());
+		chromosome.putGene(2, new MockGene());
+		chromosome.setFitness(BigDecimal.ONE);
+
+		return chromosome;
+	}
+
+	@Test
+	public void testCloneSharesGenes() {
+		MockCopyOnWriteChromosome parent = createChromosome();
+		MockCopyOnWriteChromosome child = parent.clone();
+
+		assertTrue(parent.isSharingGenes());
+		assertTrue(child.isSharingGenes());
+		assertSame(parent.getGenes().get(1), child.getGenes().get(1));
+		assertFalse(child.isEvaluationNeeded());
+	}
+
+	@Test
+	public void testReplaceGeneCopiesMap() {
+		MockCopyOnWriteChromosome parent = createChromosome();
+		Gene originalGene = parent.getGenes().get(1);
+		MockCopyOnWriteChromosome child = parent.clone();
+
+		MockGene replacement = new MockGene();
+		child.replaceGene(1, replacement);
+
+		assertFalse(child.isSharingGenes());
+		assertSame(replacement, child.getGenes().get(1));
+		assertSame(child, replacement.getChromosome());
+		assertTrue(child.isEvaluationNeeded());
+
+		// The parent is unaffected, and the unchanged Gene is still shared
+		assertSame(originalGene, parent.getGenes().get(1));
+		assertSame(parent.getGenes().get(2), child.getGenes().get(2));
+		assertFalse(parent.isEvaluationNeeded());
+
+		parent.removeGene(2);
+		assertNull(parent.getGenes().get(2));
+		assertEquals(parent.getGenes().size() + 1, child.getGenes().size());
+	}
+
+	@Test
+	public void testGetGeneForUpdate() {
+		MockCopyOnWriteChromosome parent = createChromosome();
+		Gene originalGene = parent.getGenes().get(1);
+
+		// Genes put directly are owned, so no copy is needed
+		assertSame(originalGene, parent.getGeneForUpdate(1));
+
+		MockCopyOnWriteChromosome child = parent.clone();
+
+		Gene childGene = child.getGeneForUpdate(1);
+		assertNotSame(originalGene, childGene);
+		assertSame(child, childGene.getChromosome());
+		assertSame(childGene, child.getGeneForUpdate(1));
+
+		// After the clone, the parent no longer owns its Genes outright either
+		Gene parentGene = parent.getGeneForUpdate(2);
+		assertNotSame(child.getGenes().get(2), parentGene);
+		assertSame(originalGene, parent.getGenes().get(1));
+
+		assertNull(parent.getGeneForUpdate(3));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testGetGenesIsUnmodifiable() {
+		createChromosome().getGenes().put(3, new MockGene());
+	}
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.entities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.ciphertool.genetics.mocks.MockGene;
+import com.ciphertool.genetics.mocks.MockIndexedChromosome;
+import com.ciphertool.genetics.mocks.MockKeyedChromosome;
+
+public class IndexedChromosomeTest {
+	@Test
+	public void testGeneIndex() {
+		GeneIndex<Object> geneIndex = new GeneIndex<Object>(Arrays.asList((Object) "a", "b", "c"));
+
+		assertEquals(3, geneIndex.size());
+		assertEquals("b", geneIndex.keyAt(1));
+		assertEquals(2, geneIndex.indexOf("c"));
+		assertEquals(-1, geneIndex.indexOf("d"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGeneIndexDuplicateKey() {
+		new GeneIndex<Object>(Arrays.asList((Object) "a", "a"));
+	}
+
+	@Test
+	public void testGenesByPosition() {
+		GeneIndex<Object> geneIndex = new GeneIndex<Object>(Arrays.asList((Object) "a", "b"));
+		MockIndexedChromosome chromosome = new MockIndexedChromosome(geneIndex);
+
+		MockGene gene = new MockGene();
+		chromosome.putGene("b", gene);
+
+		assertNull(chromosome.getGeneAt(0));
+		assertSame(gene, chromosome.getGeneAt(1));
+
+		MockGene replacement = new MockGene();
+		chromosome.replaceGeneAt(1, replacement);
+
+		assertSame(replacement, chromosome.getGenes().get("b"));
+		assertSame(replacement, chromosome.getGeneAt(1));
+	}
+
+	@Test
+	public void testSharesGeneIndex() {
+		GeneIndex<Object> geneIndex = new GeneIndex<Object>(Arrays.asList((Object) "a", "b"));
+		GeneIndex<Object> otherIndex = new GeneIndex<Object>(Arrays.asList((Object) "a", "b"));
+
+		MockIndexedChromosome first = new MockIndexedChromosome(geneIndex);
+
+		assertTrue(IndexedChromosome.sharesGeneIndex(first, new MockIndexedChromosome(geneIndex)));
+		assertTrue(IndexedChromosome.sharesGeneIndex(first, first.clone()));
+		assertFalse(IndexedChromosome.sharesGeneIndex(first, new MockIndexedChromosome(otherIndex)));
+		assertFalse(IndexedChromosome.sharesGeneIndex(first, new MockKeyedChromosome()));
+	}
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.entities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import com.ciphertool.genetics.mocks.MockGene;
+import com.ciphertool.genetics.mocks.MockVersionedChromosome;
+
+public class VersionedChromosomeTest {
+	@Test
+	public void testModificationMarksEvaluationNeeded() {
+		MockVersionedChromosome chromosome = new MockVersionedChromosome();
+		assertFalse(chromosome.isEvaluationNeeded());
+
+		chromosome.putGene(0, new MockGene());
+		assertTrue(chromosome.isEvaluationNeeded());
+		assertEquals(1L, chromosome.getModificationCount());
+
+		chromosome.setFitness(BigDecimal.ONE);
+		assertFalse(chromosome.isEvaluationNeeded());
+		assertEquals(1L, chromosome.getEvaluatedModificationCount());
+
+		chromosome.replaceGene(0, new MockGene());
+		assertTrue(chromosome.isEvaluationNeeded());
+	}
+
+	@Test
+	public void testSetEvaluationNeeded() {
+		MockVersionedChromosome chromosome = new MockVersionedChromosome();
+
+		chromosome.setEvaluationNeeded(true);
+		assertTrue(chromosome.isEvaluationNeeded());
+
+		chromosome.setEvaluationNeeded(false);
+		assertFalse(chromosome.isEvaluationNeeded());
+	}
+
+	@Test
+	public void testClone() {
+		MockVersionedChromosome chromosome = new MockVersionedChromosome();
+		chromosome.putGene(0, new MockGene());
+		chromosome.setFitness(BigDecimal.ONE);
+
+		MockVersionedChromosome clone = chromosome.clone();
+		assertFalse(clone.isEvaluationNeeded());
+
+		clone.replaceGene(0, new MockGene());
+		assertTrue(clone.isEvaluationNeeded());
+		assertFalse(chromosome.isEvaluationNeeded());
+	}
+}
@@ -21,10 +21,13 @@ package com.ciphertool.genetics.entities.statistics;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
 
 import org.bson.types.ObjectId;
 import org.junit.Test;
@@ -217,4 +220,53 @@ public class GenerationStatisticsTest {
 		ReflectionUtils.setField(generationStatisticsIdField, generationStatisticsWithNullPropertiesB, null);
 		assertEquals(generationStatisticsWithNullPropertiesA, generationStatisticsWithNullPropertiesB);
 	}
+
+	@Test
+	public void testMerge() {
+		ExecutionStatistics executionStatistics = new ExecutionStatistics();
+
+		GenerationStatistics first = new GenerationStatistics(new ExecutionStatistics(), 3);
+		first.setBestFitness(BigDecimal.valueOf(5.0));
+		first.setAverageFitness(BigDecimal.valueOf(2.0));
+		first.setNumberOfCrossovers(10);
+		first.setNumberOfEvaluations(7);
+		first.setPerformanceStatistics(new PerformanceStatistics());
+		first.getPerformanceStatistics().setTotalMillis(40L);
+
+		GenerationStatistics second = new GenerationStatistics(new ExecutionStatistics(), 3);
+		second.setBestFitness(BigDecimal.valueOf(8.0));
+		second.setAverageFitness(BigDecimal.valueOf(4.0));
+		second.setEntropy(BigDecimal.valueOf(0.5));
+		second.setNumberOfCrossovers(20);
+		second.setNumberOfEvaluations(3);
+		second.setPerformanceStatistics(new PerformanceStatistics());
+		second.getPerformanceStatistics().setTotalMillis(60L);
+
+		GenerationStatistics merged = GenerationStatistics.merge(executionStatistics, Arrays.asList(first, second));
+
+		assertSame(executionStatistics, merged.getExecutionStatistics());
+		assertEquals(3, merged.getGeneration());
+		assertEquals(BigDecimal.valueOf(8.0), merged.getBestFitness());
+		assertEquals(0, BigDecimal.valueOf(3.0).compareTo(merged.getAverageFitness()));
+		assertEquals(0, BigDecimal.valueOf(0.5).compareTo(merged.getEntropy()));
+		assertEquals(30, merged.getNumberOfCrossovers());
+		assertEquals(10, merged.getNumberOfEvaluations());
+		assertEquals(60L, merged.getPerformanceStatistics().getTotalMillis());
+		assertNull(merged.getKnownSolutionProximity());
+		assertNull(merged.getFitnessCacheHits());
+	}
+
+	@Test
+	public void testMergeWithLowerFitnessBetter() {
+		GenerationStatistics first = new GenerationStatistics(new ExecutionStatistics(), 3);
+		first.setBestFitness(BigDecimal.valueOf(5.0));
+
+		GenerationStatistics second = new GenerationStatistics(new ExecutionStatistics(), 3);
+		second.setBestFitness(BigDecimal.valueOf(8.0));
+
+		GenerationStatistics merged = GenerationStatistics.merge(new ExecutionStatistics(), Arrays.asList(first,
+				second), Comparator.<BigDecimal> reverseOrder());
+
+		assertEquals(BigDecimal.valueOf(5.0), merged.getBestFitness());
+	}
 }
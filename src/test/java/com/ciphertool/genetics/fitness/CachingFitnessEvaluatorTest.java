@@ -0,0 +1,179 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.fitness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.mocks.MockGene;
+import com.ciphertool.genetics.mocks.MockKeyedChromosome;
+
+public class CachingFitnessEvaluatorTest {
+	private static MockKeyedChromosome createChromosome(Gene... genes) {
+		MockKeyedChromosome chromosome = new MockKeyedChromosome();
+
+		for (int i = 0; i < genes.length; i++) {
+			chromosome.getGenes().put(i, genes[i]);
+		}
+
+		return chromosome;
+	}
+
+	@Test
+	public void testEvaluate() {
+		FitnessEvaluator fitnessEvaluatorMock = mock(FitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluate(any(Chromosome.class))).thenReturn(BigDecimal.TEN);
+
+		CachingFitnessEvaluator cachingFitnessEvaluator = new CachingFitnessEvaluator();
+		cachingFitnessEvaluator.setFitnessEvaluator(fitnessEvaluatorMock);
+
+		Gene gene1 = new MockGene();
+		Gene gene2 = new MockGene();
+
+		assertEquals(BigDecimal.TEN, cachingFitnessEvaluator.evaluate(createChromosome(gene1, gene2)));
+		assertEquals(BigDecimal.TEN, cachingFitnessEvaluator.evaluate(createChromosome(gene1, gene2)));
+		assertEquals(BigDecimal.TEN, cachingFitnessEvaluator.evaluate(createChromosome(gene2, gene1)));
+
+		verify(fitnessEvaluatorMock, times(2)).evaluate(any(Chromosome.class));
+		assertEquals(1L, cachingFitnessEvaluator.getHitCount());
+		assertEquals(2L, cachingFitnessEvaluator.getMissCount());
+	}
+
+	@Test
+	public void testEvaluateAsDouble() {
+		DoubleFitnessEvaluator fitnessEvaluatorMock = mock(DoubleFitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluateAsDouble(any(Chromosome.class))).thenReturn(2.5);
+
+		CachingFitnessEvaluator cachingFitnessEvaluator = new CachingFitnessEvaluator();
+		cachingFitnessEvaluator.setFitnessEvaluator(fitnessEvaluatorMock);
+
+		Gene gene1 = new MockGene();
+
+		assertEquals(2.5, cachingFitnessEvaluator.evaluateAsDouble(createChromosome(gene1)), 0.0);
+		assertEquals(2.5, cachingFitnessEvaluator.evaluateAsDouble(createChromosome(gene1)), 0.0);
+		assertEquals(BigDecimal.valueOf(2.5), cachingFitnessEvaluator.evaluate(createChromosome(gene1)));
+
+		verify(fitnessEvaluatorMock, times(1)).evaluateAsDouble(any(Chromosome.class));
+		verify(fitnessEvaluatorMock, times(0)).evaluate(any(Chromosome.class));
+		assertEquals(2L, cachingFitnessEvaluator.getHitCount());
+		assertEquals(1L, cachingFitnessEvaluator.getMissCount());
+	}
+
+	@Test
+	public void testEvaluateIncrementally() {
+		IncrementalFitnessEvaluator fitnessEvaluatorMock = mock(IncrementalFitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluateIncrementally(any(Chromosome.class), anyCollectionOf(Object.class),
+				anyDouble())).thenReturn(4.0);
+
+		CachingFitnessEvaluator cachingFitnessEvaluator = new CachingFitnessEvaluator();
+		cachingFitnessEvaluator.setFitnessEvaluator(fitnessEvaluatorMock);
+
+		Gene gene1 = new MockGene();
+		Gene gene2 = new MockGene();
+
+		assertEquals(4.0, cachingFitnessEvaluator.evaluateIncrementally(createChromosome(gene1, gene2), Arrays
+				.<Object> asList(1), 3.0), 0.0);
+		assertEquals(4.0, cachingFitnessEvaluator.evaluateIncrementally(createChromosome(gene1, gene2), Arrays
+				.<Object> asList(0), 1.0), 0.0);
+
+		verify(fitnessEvaluatorMock, times(1)).evaluateIncrementally(any(Chromosome.class), anyCollectionOf(
+				Object.class), anyDouble());
+		verify(fitnessEvaluatorMock, times(0)).evaluate(any(Chromosome.class));
+		assertEquals(1L, cachingFitnessEvaluator.getHitCount());
+		assertEquals(1L, cachingFitnessEvaluator.getMissCount());
+	}
+
+	@Test
+	public void testEvaluateIncrementallyWithoutIncrementalEvaluator() {
+		FitnessEvaluator fitnessEvaluatorMock = mock(FitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluate(any(Chromosome.class))).thenReturn(BigDecimal.ONE);
+
+		CachingFitnessEvaluator cachingFitnessEvaluator = new CachingFitnessEvaluator();
+		cachingFitnessEvaluator.setFitnessEvaluator(fitnessEvaluatorMock);
+
+		assertEquals(1.0, cachingFitnessEvaluator.evaluateIncrementally(createChromosome(new MockGene()), Arrays
+				.<Object> asList(0), 3.0), 0.0);
+
+		verify(fitnessEvaluatorMock, times(1)).evaluate(any(Chromosome.class));
+	}
+
+	@Test
+	public void testEviction() {
+		FitnessEvaluator fitnessEvaluatorMock = mock(FitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluate(any(Chromosome.class))).thenReturn(BigDecimal.ONE);
+
+		CachingFitnessEvaluator cachingFitnessEvaluator = new CachingFitnessEvaluator();
+		cachingFitnessEvaluator.setFitnessEvaluator(fitnessEvaluatorMock);
+		cachingFitnessEvaluator.setMaximumSize(16);
+
+		Gene[] genes = new Gene[100];
+		for (int i = 0; i < genes.length; i++) {
+			genes[i] = new MockGene();
+			cachingFitnessEvaluator.evaluate(createChromosome(genes[i]));
+		}
+
+		// The earliest entries can no longer all be held, so re-evaluating them must miss at least once
+		for (int i = 0; i < genes.length; i++) {
+			cachingFitnessEvaluator.evaluate(createChromosome(genes[i]));
+		}
+
+		assertEquals(200L, cachingFitnessEvaluator.getHitCount() + cachingFitnessEvaluator.getMissCount());
+		assertTrue(cachingFitnessEvaluator.getMissCount() > 100L);
+	}
+
+	@Test
+	public void testSetGeneticStructure() {
+		FitnessEvaluator fitnessEvaluatorMock = mock(FitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluate(any(Chromosome.class))).thenReturn(BigDecimal.ONE);
+
+		CachingFitnessEvaluator cachingFitnessEvaluator = new CachingFitnessEvaluator();
+		cachingFitnessEvaluator.setFitnessEvaluator(fitnessEvaluatorMock);
+
+		MockKeyedChromosome chromosome = createChromosome(new MockGene());
+		cachingFitnessEvaluator.evaluate(chromosome);
+
+		Object geneticStructure = new Object();
+		cachingFitnessEvaluator.setGeneticStructure(geneticStructure);
+		cachingFitnessEvaluator.evaluate(chromosome);
+
+		verify(fitnessEvaluatorMock).setGeneticStructure(geneticStructure);
+		verify(fitnessEvaluatorMock, times(2)).evaluate(any(Chromosome.class));
+		assertEquals(0L, cachingFitnessEvaluator.getHitCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetMaximumSizeInvalid() {
+		new CachingFitnessEvaluator().setMaximumSize(0);
+	}
+}
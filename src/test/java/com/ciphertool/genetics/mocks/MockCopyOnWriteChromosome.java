@@ -0,0 +1,130 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.ciphertool.genetics.mocks;
+
+import java.math.BigDecimal;
+
+import com.ciphertool.genetics.entities.Ancestry;
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.CopyOnWriteKeyedChromosome;
+import com.ciphertool.genetics.population.Population;
+
+public class MockCopyOnWriteChromosome extends CopyOnWriteKeyedChromosome<Object> {
+	private BigDecimal	fitness				= BigDecimal.ZERO;
+	private int			age					= 0;
+	private int			numberOfChildren	= 0;
+	private Population	population;
+
+	@Override
+	public BigDecimal getFitness() {
+		return this.fitness;
+	}
+
+	@Override
+	public void setFitness(BigDecimal fitness) {
+		this.fitness = fitness;
+
+		markEvaluated();
+	}
+
+	@Override
+	public int getAge() {
+		return this.age;
+	}
+
+	@Override
+	public void setAge(int age) {
+		this.age = age;
+	}
+
+	@Override
+	public void increaseAge() {
+		this.age++;
+	}
+
+	@Override
+	public int getNumberOfChildren() {
+		return this.numberOfChildren;
+	}
+
+	@Override
+	public void setNumberOfChildren(int numberOfChildren) {
+		this.numberOfChildren = numberOfChildren;
+	}
+
+	@Override
+	public void increaseNumberOfChildren() {
+		this.numberOfChildren++;
+	}
+
+	@Override
+	public Integer targetSize() {
+		return 0;
+	}
+
+	@Override
+	public MockCopyOnWriteChromosome clone() {
+		MockCopyOnWriteChromosome copyChromosome = (MockCopyOnWriteChromosome) super.clone();
+
+		copyChromosome.setAge(0);
+		copyChromosome.setNumberOfChildren(0);
+
+		return copyChromosome;
+	}
+
+	@Override
+	public Integer getSolutionSetId() {
+		throw new UnsupportedOperationException("Method not yet implemented.");
+	}
+
+	@Override
+	public void setSolutionSetId(Integer solutionSetId) {
+		throw new UnsupportedOperationException("Method not yet implemented.");
+	}
+
+	@Override
+	public double similarityTo(Chromosome other) {
+		return 0;
+	}
+
+	@Override
+	public Population getPopulation() {
+		return population;
+	}
+
+	@Override
+	public void setPopulation(Population population) {
+		this.population = population;
+	}
+
+	@Override
+	public Ancestry getAncestry() {
+		throw new UnsupportedOperationException("Method getAncestry() not implemented");
+	}
+
+	@Override
+	public void setAncestry(Ancestry ancestry) {
+		throw new UnsupportedOperationException("Method setAncestry() not implemented");
+	}
+
+	@Override
+	public String getId() {
+		throw new UnsupportedOperationException("Method getId() not implemented");
+	}
+}
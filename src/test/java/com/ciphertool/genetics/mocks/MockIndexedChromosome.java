@@ -0,0 +1,78 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.ciphertool.genetics.mocks;
+
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.entities.GeneIndex;
+import com.ciphertool.genetics.entities.IndexedChromosome;
+
+public class MockIndexedChromosome extends MockKeyedChromosome implements IndexedChromosome<Object> {
+	private GeneIndex<Object>	geneIndex;
+	private Gene[]				genesByPosition;
+
+	public MockIndexedChromosome(GeneIndex<Object> geneIndex) {
+		this.geneIndex = geneIndex;
+		this.genesByPosition = new Gene[geneIndex.size()];
+	}
+
+	@Override
+	public GeneIndex<Object> getGeneIndex() {
+		return geneIndex;
+	}
+
+	@Override
+	public Gene getGeneAt(int position) {
+		return genesByPosition[position];
+	}
+
+	@Override
+	public void replaceGeneAt(int position, Gene newGene) {
+		this.replaceGene(geneIndex.keyAt(position), newGene);
+	}
+
+	@Override
+	public void putGene(Object key, Gene gene) {
+		super.putGene(key, gene);
+
+		genesByPosition[geneIndex.indexOf(key)] = gene;
+	}
+
+	@Override
+	public Gene removeGene(Object key) {
+		genesByPosition[geneIndex.indexOf(key)] = null;
+
+		return super.removeGene(key);
+	}
+
+	@Override
+	public MockIndexedChromosome clone() {
+		MockIndexedChromosome copyChromosome = new MockIndexedChromosome(this.geneIndex);
+
+		copyChromosome.setEvaluationNeeded(this.isEvaluationNeeded());
+		copyChromosome.setFitness(this.getFitness());
+
+		for (int i = 0; i < genesByPosition.length; i++) {
+			if (genesByPosition[i] != null) {
+				copyChromosome.putGene(geneIndex.keyAt(i), genesByPosition[i].clone());
+			}
+		}
+
+		return copyChromosome;
+	}
+}
@@ -53,6 +53,9 @@ public class MockKeyedChromosome implements KeyedChromosome<Object> {
 	@Clean
 	public void setFitness(BigDecimal fitness) {
 		this.fitness = fitness;
+
+		// Cleared explicitly as well so that the tests also pass when built without weaving
+		this.needsEvaluation = false;
 	}
 
 	@Override
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.ciphertool.genetics.mocks;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.entities.VersionedChromosome;
+
+public class MockVersionedChromosome extends MockKeyedChromosome implements VersionedChromosome {
+	private long	modificationCount;
+	private long	evaluatedModificationCount;
+
+	@Override
+	public long getModificationCount() {
+		return this.modificationCount;
+	}
+
+	@Override
+	public long getEvaluatedModificationCount() {
+		return this.evaluatedModificationCount;
+	}
+
+	@Override
+	public void setEvaluatedModificationCount(long evaluatedModificationCount) {
+		this.evaluatedModificationCount = evaluatedModificationCount;
+	}
+
+	@Override
+	public void markModified() {
+		this.modificationCount++;
+	}
+
+	@Override
+	public boolean isEvaluationNeeded() {
+		return VersionedChromosome.super.isEvaluationNeeded();
+	}
+
+	@Override
+	public void setEvaluationNeeded(boolean evaluationNeeded) {
+		VersionedChromosome.super.setEvaluationNeeded(evaluationNeeded);
+	}
+
+	@Override
+	public void setFitness(BigDecimal fitness) {
+		super.setFitness(fitness);
+
+		markEvaluated();
+	}
+
+	@Override
+	public void putGene(Object key, Gene gene) {
+		super.putGene(key, gene);
+
+		markModified();
+	}
+
+	@Override
+	public Gene removeGene(Object key) {
+		markModified();
+
+		return super.removeGene(key);
+	}
+
+	@Override
+	public MockVersionedChromosome clone() {
+		MockVersionedChromosome copyChromosome = new MockVersionedChromosome();
+
+		for (Map.Entry<Object, Gene> entry : this.getGenes().entrySet()) {
+			copyChromosome.putGene(entry.getKey(), entry.getValue().clone());
+		}
+
+		copyChromosome.setFitness(this.getFitness());
+		copyChromosome.modificationCount = this.modificationCount;
+		copyChromosome.evaluatedModificationCount = this.evaluatedModificationCount;
+
+		return copyChromosome;
+	}
+}
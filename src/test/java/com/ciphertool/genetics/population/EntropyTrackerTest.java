@@ -0,0 +1,165 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.ciphertool.genetics.population;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.entities.KeyedChromosome;
+import com.ciphertool.genetics.mocks.MockGene;
+import com.ciphertool.genetics.mocks.MockKeyedChromosome;
+
+public class EntropyTrackerTest {
+	private static final double	DELTA	= 0.000000001;
+
+	private static List<Gene> createGenes(int count) {
+		List<Gene> genes = new ArrayList<Gene>();
+
+		for (int i = 0; i < count; i++) {
+			genes.add(new MockGene());
+		}
+
+		return genes;
+	}
+
+	private static StandardPopulation createPopulation(List<Gene> genes, int size, int keys) {
+		StandardPopulation population = new StandardPopulation();
+		population.setIncrementalEntropy(true);
+
+		for (int i = 0; i < size; i++) {
+			MockKeyedChromosome chromosome = new MockKeyedChromosome();
+
+			for (int key = 0; key < keys; key++) {
+				chromosome.putGene(key, genes.get((i * (key + 1)) % genes.size()));
+			}
+
+			population.addIndividual(chromosome);
+		}
+
+		return population;
+	}
+
+	private static double fullEntropy(StandardPopulation population) {
+		population.setIncrementalEntropy(false);
+
+		return population.calculateEntropy().doubleValue();
+	}
+
+	@Test
+	public void testCalculateEntropy() {
+		StandardPopulation population = createPopulation(createGenes(4), 10, 3);
+
+		double tracked = population.calculateEntropy().doubleValue();
+
+		assertEquals(fullEntropy(population), tracked, DELTA);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testCalculateEntropyAfterChanges() {
+		List<Gene> genes = createGenes(5);
+		StandardPopulation population = createPopulation(genes, 12, 4);
+
+		for (int i = 0; i < population.size(); i += 3) {
+			KeyedChromosome<Object> chromosome = (KeyedChromosome<Object>) population.getIndividuals().get(i);
+			KeyedChromosome.replaceGene(chromosome, 1, genes.get(4));
+			KeyedChromosome.replaceGene(chromosome, 2, genes.get(0));
+		}
+
+		population.removeIndividual(5);
+
+		MockKeyedChromosome replacement = new MockKeyedChromosome();
+		for (int key = 0; key < 4; key++) {
+			replacement.putGene(key, genes.get(3));
+		}
+
+		population.replaceIndividual(0, replacement);
+
+		double tracked = population.calculateEntropy().doubleValue();
+
+		assertEquals(fullEntropy(population), tracked, DELTA);
+	}
+
+	@Test
+	public void testCalculateEntropyWhenEmpty() {
+		EntropyTracker entropyTracker = new EntropyTracker();
+
+		assertEquals(BigDecimal.ZERO, entropyTracker.calculateEntropy(0));
+	}
+
+	@Test
+	public void testCalculateEntropyAfterClear() {
+		List<Gene> genes = createGenes(3);
+		StandardPopulation population = createPopulation(genes, 6, 2);
+
+		population.clearIndividuals();
+
+		MockKeyedChromosome chromosome1 = new MockKeyedChromosome();
+		chromosome1.putGene(0, genes.get(0));
+		chromosome1.putGene(1, genes.get(1));
+		population.addIndividual(chromosome1);
+
+		MockKeyedChromosome chromosome2 = new MockKeyedChromosome();
+		chromosome2.putGene(0, genes.get(0));
+		chromosome2.putGene(1, genes.get(2));
+		population.addIndividual(chromosome2);
+
+		double tracked = population.calculateEntropy().doubleValue();
+
+		assertEquals(fullEntropy(population), tracked, DELTA);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testCalculateEntropyAfterConcurrentChanges() throws InterruptedException {
+		List<Gene> genes = createGenes(6);
+		StandardPopulation population = createPopulation(genes, 40, 8);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		for (int i = 0; i < population.size(); i++) {
+			KeyedChromosome<Object> chromosome = (KeyedChromosome<Object>) population.getIndividuals().get(i);
+			int offset = i;
+
+			executor.execute(() -> {
+				for (int key = 0; key < 8; key++) {
+					KeyedChromosome.replaceGene(chromosome, key, genes.get((offset + key) % genes.size()));
+				}
+			});
+		}
+
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		double tracked = population.calculateEntropy().doubleValue();
+
+		assertEquals(fullEntropy(population), tracked, DELTA);
+	}
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright 2015 George Belden
+ * 
+ * This file is part of Genie.
+ * 
+ * Genie is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * 
+ * Genie is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * Genie. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.ciphertool.genetics.population;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import com.ciphertool.genetics.algorithms.selection.modes.AliasRouletteSelector;
+import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.SpatialChromosome;
+import com.ciphertool.genetics.mocks.MockSpatialChromosome;
+
+public class LatticePopulationTest {
+	private static LatticePopulation createPopulation(int rows, int columns, double fitness) {
+		LatticePopulation population = new LatticePopulation();
+		population.setTargetSize(rows * columns);
+		population.setSelector(new AliasRouletteSelector());
+		population.clearIndividuals();
+
+		MockSpatialChromosome individual;
+		for (int x = 0; x < rows; x++) {
+			for (int y = 0; y < columns; y++) {
+				individual = new MockSpatialChromosome(x, y);
+				individual.setFitness(BigDecimal.valueOf(fitness));
+				population.addIndividual(individual);
+			}
+		}
+
+		return population;
+	}
+
+	private static boolean isNeighbor(Chromosome[][] individuals, int row, int column, Chromosome individual) {
+		for (int x = row - 1; x <= row + 1; x++) {
+			for (int y = column - 1; y <= column + 1; y++) {
+				if ((x != row || y != column) && x >= 0 && y >= 0 && x < individuals.length
+						&& y < individuals[x].length && individuals[x][y] == individual) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	@Test
+	public void testSelectParents() {
+		LatticePopulation population = createPopulation(3, 3, 1.0);
+		Chromosome[][] individuals = population.getIndividualsAsArray();
+
+		SpatialChromosome[] parents = new SpatialChromosome[2];
+
+		for (int i = 0; i < 100; i++) {
+			for (int x = 0; x < 3; x++) {
+				for (int y = 0; y < 3; y++) {
+					population.selectParents(x, y, parents);
+
+					assertNotSame(parents[0], parents[1]);
+					assertTrue(isNeighbor(individuals, x, y, parents[0]));
+					assertTrue(isNeighbor(individuals, x, y, parents[1]));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSelectIndex() {
+		LatticePopulation population = createPopulation(3, 3, 0.0);
+		Chromosome[][] individuals = population.getIndividualsAsArray();
+
+		// Only one neighbor of the corner has any fitness, so it must always be chosen
+		individuals[1][1].setFitness(BigDecimal.valueOf(2.0));
+
+		for (int i = 0; i < 100; i++) {
+			assertSame(individuals[1][1], population.selectIndex(0, 0));
+		}
+	}
+
+	@Test
+	public void testToroidalNeighborhood() {
+		LatticePopulation population = createPopulation(3, 3, 0.0);
+		population.setToroidal(true);
+		Chromosome[][] individuals = population.getIndividualsAsArray();
+
+		// The opposite corner is only a neighbor of the corner once the edges wrap around
+		individuals[2][2].setFitness(BigDecimal.valueOf(2.0));
+
+		for (int i = 0; i < 100; i++) {
+			assertSame(individuals[2][2], population.selectIndex(0, 0));
+		}
+
+		LatticePopulation.Neighborhood neighborhood = population.new Neighborhood();
+		neighborhood.reset(0, 0);
+		assertEquals(8, neighborhood.size());
+	}
+
+	@Test
+	public void testNeighborhoodShapes() {
+		LatticePopulation population = createPopulation(5, 5, 1.0);
+		LatticePopulation.Neighborhood neighborhood = population.new Neighborhood();
+
+		neighborhood.reset(2, 2);
+		assertEquals(8, neighborhood.size());
+
+		population.setNeighborhoodShape(NeighborhoodShape.VON_NEUMANN);
+		neighborhood.reset(2, 2);
+		assertEquals(4, neighborhood.size());
+
+		population.setNeighborhoodRadius(2);
+		neighborhood.reset(2, 2);
+		assertEquals(12, neighborhood.size());
+
+		population.setNeighborhoodShape(NeighborhoodShape.MOORE);
+		neighborhood.reset(2, 2);
+		assertEquals(24, neighborhood.size());
+
+		// Edge clipping applies unless the lattice is toroidal
+		neighborhood.reset(0, 0);
+		assertEquals(8, neighborhood.size());
+
+		population.setToroidal(true);
+		neighborhood.reset(0, 0);
+		assertEquals(24, neighborhood.size());
+		assertEquals(24.0, neighborhood.getTotalFitness(), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testToroidalLatticeTooSmall() {
+		LatticePopulation population = new LatticePopulation();
+		population.setToroidal(true);
+		population.setNeighborhoodRadius(2);
+		population.setTargetSize(16);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetNeighborhoodRadiusInvalid() {
+		LatticePopulation population = new LatticePopulation();
+		population.setNeighborhoodRadius(0);
+	}
+}
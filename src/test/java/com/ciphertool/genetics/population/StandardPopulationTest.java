@@ -27,9 +27,11 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyDouble;
 import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -37,6 +39,9 @@ import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.BeforeClass;
@@ -46,13 +51,20 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.ReflectionUtils;
 
 import com.ciphertool.genetics.Breeder;
+import com.ciphertool.genetics.algorithms.selection.modes.IncrementalSelector;
 import com.ciphertool.genetics.algorithms.selection.modes.Selector;
 import com.ciphertool.genetics.entities.Chromosome;
+import com.ciphertool.genetics.entities.Gene;
+import com.ciphertool.genetics.entities.GeneIndex;
 import com.ciphertool.genetics.entities.statistics.GenerationStatistics;
 import com.ciphertool.genetics.fitness.AscendingFitnessComparator;
+import com.ciphertool.genetics.fitness.DoubleFitnessEvaluator;
 import com.ciphertool.genetics.fitness.FitnessEvaluator;
 import com.ciphertool.genetics.mocks.MockBreeder;
+import com.ciphertool.genetics.mocks.MockGene;
+import com.ciphertool.genetics.mocks.MockIndexedChromosome;
 import com.ciphertool.genetics.mocks.MockKeyedChromosome;
+import com.ciphertool.genetics.mocks.MockVersionedChromosome;
 
 public class StandardPopulationTest {
 	private static ThreadPoolTaskExecutor	taskExecutor			= new ThreadPoolTaskExecutor();
@@ -246,6 +258,29 @@ public class StandardPopulationTest {
 		assertEquals(BigDecimal.valueOf(50.0), population.getTotalFitness());
 	}
 
+	@Test
+	public void testBreedInBatches() {
+		StandardPopulation population = new StandardPopulation();
+		population.setTaskExecutor(taskExecutor);
+		population.setBatchExecution(true);
+		population.setBatchCount(3);
+
+		int expectedPopulationSize = 10;
+		population.setTargetSize(expectedPopulationSize);
+
+		Breeder breederMock = mock(Breeder.class);
+		MockKeyedChromosome mockKeyedChromosome = new MockKeyedChromosome();
+		mockKeyedChromosome.setFitness(BigDecimal.valueOf(5.0));
+		when(breederMock.breed()).thenReturn(mockKeyedChromosome.clone());
+		population.setBreeder(breederMock);
+
+		assertEquals(expectedPopulationSize, population.breed());
+
+		assertEquals(expectedPopulationSize, population.size());
+		assertEquals(BigDecimal.valueOf(50.0), population.getTotalFitness());
+		verify(breederMock, times(expectedPopulationSize)).breed();
+	}
+
 	@Test
 	public void testEvaluatorTask() {
 		StandardPopulation population = new StandardPopulation();
@@ -311,6 +346,125 @@ public class StandardPopulationTest {
 		verify(fitnessEvaluatorMock, times(2)).evaluate(any(Chromosome.class));
 	}
 
+	@Test
+	public void testDoConcurrentFitnessEvaluationsWithDoubleFitnessEvaluator() throws InterruptedException {
+		StandardPopulation population = new StandardPopulation();
+		population.setTaskExecutor(taskExecutor);
+
+		DoubleFitnessEvaluator fitnessEvaluatorMock = mock(DoubleFitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluateAsDouble(any(Chromosome.class))).thenReturn(2.5);
+		population.setFitnessEvaluator(fitnessEvaluatorMock);
+
+		MockKeyedChromosome chromosomeEvaluationNeeded = new MockKeyedChromosome();
+		chromosomeEvaluationNeeded.setFitness(BigDecimal.valueOf(1.0));
+		population.addIndividual(chromosomeEvaluationNeeded);
+		chromosomeEvaluationNeeded.setEvaluationNeeded(true);
+
+		population.doConcurrentFitnessEvaluations(fitnessEvaluatorMock, -1, false);
+
+		assertFalse(chromosomeEvaluationNeeded.isEvaluationNeeded());
+		assertEquals(2.5, chromosomeEvaluationNeeded.getFitnessAsDouble(), 0.0);
+
+		// The primitive channel is used exclusively when it is available
+		verify(fitnessEvaluatorMock, times(1)).evaluateAsDouble(same(chromosomeEvaluationNeeded));
+		verify(fitnessEvaluatorMock, never()).evaluate(any(Chromosome.class));
+	}
+
+	@Test
+	public void testDoBatchFitnessEvaluations() throws InterruptedException {
+		StandardPopulation population = new StandardPopulation();
+		population.setTaskExecutor(taskExecutor);
+		population.setBatchExecution(true);
+		population.setBatchCount(2);
+
+		FitnessEvaluator fitnessEvaluatorMock = mock(FitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluate(any(Chromosome.class))).thenReturn(DEFAULT_FITNESS_VALUE);
+		population.setFitnessEvaluator(fitnessEvaluatorMock);
+
+		for (int i = 0; i < 5; i++) {
+			MockKeyedChromosome chromosomeEvaluationNeeded = new MockKeyedChromosome();
+			chromosomeEvaluationNeeded.setFitness(BigDecimal.valueOf(5.0));
+			population.addIndividual(chromosomeEvaluationNeeded);
+			chromosomeEvaluationNeeded.setEvaluationNeeded(true);
+		}
+
+		MockKeyedChromosome chromosomeEvaluationNotNeeded = new MockKeyedChromosome();
+		chromosomeEvaluationNotNeeded.setFitness(BigDecimal.valueOf(5.0));
+		population.addIndividual(chromosomeEvaluationNotNeeded);
+
+		assertEquals(5, population.doConcurrentFitnessEvaluations(fitnessEvaluatorMock, -1, false));
+
+		for (Chromosome individual : population.getIndividuals()) {
+			assertFalse(individual.isEvaluationNeeded());
+		}
+
+		verify(fitnessEvaluatorMock, times(5)).evaluate(any(Chromosome.class));
+	}
+
+	@Test
+	public void testDoConcurrentFitnessEvaluationsWithIncrementalSelector() throws InterruptedException {
+		StandardPopulation population = new StandardPopulation();
+		population.setTaskExecutor(taskExecutor);
+
+		IncrementalSelector selectorMock = mock(IncrementalSelector.class);
+		population.setSelector(selectorMock);
+
+		FitnessEvaluator fitnessEvaluatorMock = mock(FitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluate(any(Chromosome.class))).thenReturn(DEFAULT_FITNESS_VALUE);
+		population.setFitnessEvaluator(fitnessEvaluatorMock);
+
+		MockKeyedChromosome chromosomeEvaluationNotNeeded = new MockKeyedChromosome();
+		chromosomeEvaluationNotNeeded.setFitness(BigDecimal.valueOf(5.0));
+		population.addIndividual(chromosomeEvaluationNotNeeded);
+
+		MockKeyedChromosome chromosomeEvaluationNeeded = new MockKeyedChromosome();
+		chromosomeEvaluationNeeded.setFitness(BigDecimal.valueOf(5.0));
+		population.addIndividual(chromosomeEvaluationNeeded);
+		chromosomeEvaluationNeeded.setEvaluationNeeded(true);
+
+		assertEquals(1, population.doConcurrentFitnessEvaluations(fitnessEvaluatorMock, -1, false));
+
+		// Only the individual which was actually re-evaluated should be pushed to the selector
+		verify(selectorMock, times(1)).update(1, DEFAULT_FITNESS_VALUE.doubleValue());
+		verifyNoMoreInteractions(selectorMock);
+	}
+
+	@Test
+	public void testReplaceIndividual() {
+		StandardPopulation population = new StandardPopulation();
+
+		IncrementalSelector selectorMock = mock(IncrementalSelector.class);
+		population.setSelector(selectorMock);
+
+		MockKeyedChromosome chromosome1 = new MockKeyedChromosome();
+		chromosome1.setFitness(BigDecimal.valueOf(5.0));
+		population.addIndividual(chromosome1);
+
+		MockKeyedChromosome chromosome2 = new MockKeyedChromosome();
+		chromosome2.setFitness(BigDecimal.valueOf(5.0));
+		population.addIndividual(chromosome2);
+
+		MockKeyedChromosome replacement = new MockKeyedChromosome();
+		replacement.setFitness(BigDecimal.valueOf(2.0));
+
+		assertSame(chromosome1, population.replaceIndividual(0, replacement));
+		assertSame(replacement, population.getIndividuals().get(0));
+		assertSame(chromosome2, population.getIndividuals().get(1));
+		assertEquals(7.0, population.getTotalFitnessAsDouble(), 0.0);
+		assertSame(population, replacement.getPopulation());
+		verify(selectorMock, times(1)).update(0, 2.0);
+
+		// Try to replace an individual that doesn't exist
+		assertNull(population.replaceIndividual(2, new MockKeyedChromosome()));
+		verifyNoMoreInteractions(selectorMock);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetBatchCountInvalid() {
+		StandardPopulation population = new StandardPopulation();
+		population.setBatchCount(0);
+	}
+
 	@Test
 	public void testEvaluateFitness() throws InterruptedException {
 		GenerationStatistics generationStatistics = new GenerationStatistics();
@@ -365,6 +519,33 @@ public class StandardPopulationTest {
 		assertEquals(BigDecimal.valueOf(100.1), generationStatistics.getBestFitness());
 	}
 
+	@Test
+	public void testEvaluateFitnessWithVersionedChromosomes() throws InterruptedException {
+		StandardPopulation population = new StandardPopulation();
+		population.setTaskExecutor(taskExecutor);
+
+		FitnessEvaluator fitnessEvaluatorMock = mock(FitnessEvaluator.class);
+		when(fitnessEvaluatorMock.evaluate(any(Chromosome.class))).thenReturn(DEFAULT_FITNESS_VALUE);
+		population.setFitnessEvaluator(fitnessEvaluatorMock);
+
+		MockVersionedChromosome modified = new MockVersionedChromosome();
+		modified.setFitness(BigDecimal.valueOf(5.0));
+		population.addIndividual(modified);
+		modified.putGene(0, new MockGene());
+
+		MockVersionedChromosome unmodified = new MockVersionedChromosome();
+		unmodified.putGene(0, new MockGene());
+		unmodified.setFitness(BigDecimal.valueOf(5.0));
+		population.addIndividual(unmodified);
+
+		population.evaluateFitness(new GenerationStatistics());
+
+		verify(fitnessEvaluatorMock, times(1)).evaluate(same(modified));
+		verifyNoMoreInteractions(fitnessEvaluatorMock);
+		assertFalse(modified.isEvaluationNeeded());
+		assertEquals(DEFAULT_FITNESS_VALUE, modified.getFitness());
+	}
+
 	@Test
 	public void testEvaluateFitnessCompareToKnownSolution() throws InterruptedException {
 		GenerationStatistics generationStatistics = new GenerationStatistics();
@@ -432,11 +613,11 @@ public class StandardPopulationTest {
 		int indexToReturn = 7;
 
 		Selector selector = mock(Selector.class);
-		when(selector.getNextIndex(anyListOf(Chromosome.class), any(BigDecimal.class))).thenReturn(indexToReturn);
+		when(selector.getNextIndex(anyListOf(Chromosome.class), anyDouble())).thenReturn(indexToReturn);
 		population.setSelector(selector);
 
 		assertEquals(indexToReturn, population.selectIndex());
-		verify(selector, times(1)).getNextIndex(anyListOf(Chromosome.class), any(BigDecimal.class));
+		verify(selector, times(1)).getNextIndex(anyListOf(Chromosome.class), anyDouble());
 	}
 
 	@Test(expected = UnsupportedOperationException.class)
@@ -517,7 +698,8 @@ public class StandardPopulationTest {
 		assertSame(chromosome1, population.getIndividuals().get(0));
 
 		fitnessSum = fitnessSum.subtract(population.removeIndividual(0).getFitness());
-		assertEquals(fitnessSum, population.getTotalFitness());
+		// The total of an empty population is summed afresh, so only its value is comparable
+		assertEquals(0, fitnessSum.compareTo(population.getTotalFitness()));
 		assertEquals(0, population.size());
 
 		// Try to remove an individual that doesn't exist
@@ -594,4 +776,124 @@ public class StandardPopulationTest {
 		assertSame(chromosome2, population.getIndividuals().get(1));
 		assertSame(chromosome1, population.getIndividuals().get(2));
 	}
+
+	@Test
+	public void testPartitionTopIndividuals() {
+		StandardPopulation population = new StandardPopulation();
+		population.setFitnessComparator(new AscendingFitnessComparator());
+
+		List<Double> fitnesses = new ArrayList<Double>();
+
+		// Plenty of duplicates, as in a converged population
+		for (int i = 0; i < 50; i++) {
+			MockKeyedChromosome chromosome = new MockKeyedChromosome();
+			chromosome.setFitness(BigDecimal.valueOf((double) ((i * 7) % 10)));
+			population.addIndividual(chromosome);
+
+			fitnesses.add(chromosome.getFitnessAsDouble());
+		}
+
+		Collections.sort(fitnesses);
+
+		for (int count = 0; count <= 50; count++) {
+			population.partitionTopIndividuals(count);
+
+			assertEquals(50, population.size());
+
+			double lowestOfTop = Double.MAX_VALUE;
+			double highestOfRest = -Double.MAX_VALUE;
+
+			for (int i = 0; i < 50; i++) {
+				double fitness = population.getIndividuals().get(i).getFitnessAsDouble();
+
+				if (i >= 50 - count) {
+					lowestOfTop = Math.min(lowestOfTop, fitness);
+				} else {
+					highestOfRest = Math.max(highestOfRest, fitness);
+				}
+			}
+
+			assertTrue(highestOfRest <= lowestOfTop);
+
+			if (count > 0) {
+				assertEquals(fitnesses.get(50 - count), lowestOfTop, 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void testEstimateEntropy() {
+		List<Gene> genes = new ArrayList<Gene>();
+		for (int i = 0; i < 3; i++) {
+			genes.add(new MockGene());
+		}
+
+		StandardPopulation population = new StandardPopulation();
+
+		for (int i = 0; i < 20; i++) {
+			MockKeyedChromosome chromosome = new MockKeyedChromosome();
+			chromosome.putGene(0, genes.get(i % genes.size()));
+			chromosome.putGene(1, genes.get(0));
+			population.addIndividual(chromosome);
+		}
+
+		// A sample covering the whole population is exact
+		assertEquals(population.calculateEntropy(), population.estimateEntropy(20));
+		assertEquals(population.calculateEntropy(), population.estimateEntropy(50));
+
+		// A single individual has no diversity to measure
+		assertEquals(0.0, population.estimateEntropy(1).doubleValue(), 0.0);
+
+		double estimate = population.estimateEntropy(10).doubleValue();
+		assertTrue(estimate >= 0.0 && estimate <= 1.0);
+	}
+
+	@Test
+	public void testCalculateEntropyWithIndexedChromosomes() {
+		List<Gene> genes = new ArrayList<Gene>();
+		for (int i = 0; i < 3; i++) {
+			genes.add(new MockGene());
+		}
+
+		GeneIndex<Object> geneIndex = new GeneIndex<Object>(Arrays.asList((Object) 0, 1, 2));
+
+		StandardPopulation keyedPopulation = new StandardPopulation();
+		StandardPopulation indexedPopulation = new StandardPopulation();
+
+		for (int i = 0; i < 20; i++) {
+			MockKeyedChromosome keyed = new MockKeyedChromosome();
+			MockIndexedChromosome indexed = new MockIndexedChromosome(geneIndex);
+
+			for (MockKeyedChromosome chromosome : Arrays.asList(keyed, indexed)) {
+				chromosome.putGene(0, genes.get(i % genes.size()));
+				chromosome.putGene(1, genes.get(0));
+				chromosome.putGene(2, genes.get(i % 2));
+			}
+
+			keyedPopulation.addIndividual(keyed);
+			indexedPopulation.addIndividual(indexed);
+		}
+
+		assertTrue(Population.sharesGeneIndex(indexedPopulation.getIndividuals()));
+		assertFalse(Population.sharesGeneIndex(keyedPopulation.getIndividuals()));
+
+		assertEquals(keyedPopulation.calculateEntropy().doubleValue(),
+				indexedPopulation.calculateEntropy().doubleValue(), 0.0000000001);
+	}
+
+	@Test
+	public void testSampleIndices() {
+		for (int sampleSize = 0; sampleSize <= 10; sampleSize++) {
+			int[] indices = Population.sampleIndices(10, sampleSize);
+
+			assertEquals(sampleSize, indices.length);
+
+			boolean[] seen = new boolean[10];
+			for (int index : indices) {
+				assertTrue(index >= 0 && index < 10);
+				assertFalse(seen[index]);
+				seen[index] = true;
+			}
+		}
+	}
 }